@@ -0,0 +1,100 @@
+package com.fy.schoolwall.comment.service;
+
+import com.fy.schoolwall.auth.security.UserPrincipal;
+import com.fy.schoolwall.comment.model.Comment;
+import com.fy.schoolwall.user.service.UserService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 评论 DTO 转换基准：一页评论（20 条，含回复和已删除评论）转换为 CommentDto 的耗时
+ * <p>
+ * 转换时会读取当前用户判断 canEdit，按访问者分为三组：未登录（取不到用户）、评论作者本人、其他登录用户。
+ * 登录用户由访问令牌还原的 UserPrincipal 提供，与线上经过 JWT 过滤器的请求相同，不查询数据库。
+ * 运行：mvn -Pbenchmark -DskipTests test-compile exec:exec -Djmh.args="CommentDtoConversionBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommentDtoConversionBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final long AUTHOR_ID = 7L;
+
+    @Param({ "anonymous", "author", "other" })
+    public String viewer;
+
+    private CommentService commentService;
+    private List<Comment> comments;
+
+    @Setup
+    public void setUp() {
+        // 测量线程与 @Setup 线程不一定相同，改为全局安全上下文
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.clearContext();
+        if (!"anonymous".equals(viewer)) {
+            long viewerId = "author".equals(viewer) ? AUTHOR_ID : AUTHOR_ID + 1;
+            UserPrincipal principal = UserPrincipal.fromToken(viewerId, "viewer" + viewerId, "USER");
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        }
+
+        UserService userService = new UserService(null, null, null, true, null);
+        commentService = new CommentService(null, null, userService, null);
+
+        comments = new ArrayList<>(PAGE_SIZE);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Comment comment = new Comment();
+            comment.setId((long) i + 1);
+            comment.setContent("同问，食堂三楼的麻辣烫周末也开吗？第" + i + "楼");
+            comment.setUserId(i % 2 == 0 ? AUTHOR_ID : AUTHOR_ID + 10 + i);
+            comment.setUsername("student" + i);
+            comment.setUserAvatarUrl("/uploads/avatars/" + i + ".png");
+            comment.setPostId(42L);
+            comment.setPostTitle("食堂新开的麻辣烫怎么样");
+            if (i % 4 != 0) {
+                comment.setParentCommentId((long) (i / 4) * 4 + 1);
+                comment.setParentCommentContent("食堂新开的麻辣烫味道不错，就是排队有点久");
+            }
+            comment.setIsDeleted(i % 10 == 9);
+            comment.setCreatedAt(now.minusMinutes(i));
+            comment.setUpdatedAt(now.minusMinutes(i));
+            comments.add(comment);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void toCommentDto(Blackhole blackhole) {
+        for (Comment comment : comments) {
+            blackhole.consume(commentService.convertToCommentDto(comment));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.fy.schoolwall.common.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分页响应构造基准：参数校验与 createPageResponse 的总页数等字段计算
+ * <p>
+ * 运行：mvn -Pbenchmark -DskipTests test-compile exec:exec -Djmh.args="PaginationUtilBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaginationUtilBenchmark {
+
+    @Param({ "0", "95", "1000000" })
+    public long totalElements;
+
+    private List<Long> content;
+    private PaginationUtil.PageRequest pageRequest;
+
+    @Setup
+    public void setUp() {
+        pageRequest = PaginationUtil.validatePageRequest(3, 20, "createdAt", "desc");
+        content = new ArrayList<>();
+        for (long i = 0; i < Math.min(totalElements, pageRequest.getSize()); i++) {
+            content.add(i);
+        }
+    }
+
+    @Benchmark
+    public PaginationUtil.PageResponse<Long> createPageResponse() {
+        return PaginationUtil.createPageResponse(content, pageRequest, totalElements);
+    }
+
+    @Benchmark
+    public PaginationUtil.PageResponse<Long> validateAndCreate() {
+        PaginationUtil.PageRequest request = PaginationUtil.validatePageRequest(3, 20, "createdAt", "desc");
+        return PaginationUtil.createPageResponse(content, request, totalElements);
+    }
+}
@@ -0,0 +1,77 @@
+package com.fy.schoolwall.common.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * slug 生成基准：单次遍历查表实现与原先逐字 pinyin4j + 正则实现对比
+ * <p>
+ * 标题取自校园墙常见的中英文混合标题，按长度分为短标题和长标题两组。
+ * 运行：mvn -Pbenchmark -DskipTests test-compile exec:exec -Djmh.args="SlugGeneratorBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SlugGeneratorBenchmark {
+
+    private static final String[] SHORT_TITLES = {
+            "周末一起去爬山吗？",
+            "二手自行车出售",
+            "Java 21 虚拟线程入门",
+            "失物招领：图书馆三楼捡到校园卡",
+            "Résumé 写作技巧分享",
+            "CET-6 听力真题 2024",
+            "食堂新开的麻辣烫怎么样",
+            "求组队 ACM 校赛"
+    };
+
+    private static final String[] LONG_TITLES = {
+            "期末考试复习资料分享（高等数学 + 线性代数 + 概率论），附 2023-2024 学年往年真题和详细解析",
+            "校园墙 Spring Boot 实战：从 0 到 1 搭建一个支持评论、情绪分析和全文搜索的社区系统",
+            "【转】计算机学院研究生推免经验贴：GPA、科研、竞赛和夏令营时间线，以及面试常见问题汇总",
+            "Weekend hiking trip to the mountains 周六早上八点在东门集合，路线约 12 公里，欢迎新同学报名参加"
+    };
+
+    @Param({ "short", "long" })
+    public String titleSet;
+
+    private String[] titles;
+
+    @Setup
+    public void setUp() {
+        titles = "short".equals(titleSet) ? SHORT_TITLES : LONG_TITLES;
+        // 建表开销不计入测量
+        PinyinTable.load();
+        SlugGenerator.generateSlug(titles[0]);
+        LegacySlugGenerator.generateSlug(titles[0]);
+    }
+
+    @Benchmark
+    public void singlePass(Blackhole blackhole) {
+        for (String title : titles) {
+            blackhole.consume(SlugGenerator.generateSlug(title));
+        }
+    }
+
+    @Benchmark
+    public void legacyRegex(Blackhole blackhole) {
+        for (String title : titles) {
+            blackhole.consume(LegacySlugGenerator.generateSlug(title));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.fy.schoolwall.emotion.service;
+
+import com.fy.schoolwall.emotion.model.Emotion;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 情绪结果 DTO 转换基准：主要耗时在用 Jackson 解析 probabilities_json
+ * <p>
+ * 分别测量正常的概率 JSON 和无法解析的 JSON（走异常分支，概率置为 null）。
+ * 转换方法只使用 EmotionService 自带的 ObjectMapper，这里以 null 依赖构造。
+ * 运行：mvn -Pbenchmark -DskipTests test-compile exec:exec -Djmh.args="EmotionDtoBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmotionDtoBenchmark {
+
+    private EmotionService emotionService;
+    private Emotion emotion;
+    private Emotion malformed;
+
+    @Setup
+    public void setUp() {
+        emotionService = new EmotionService(null, null, null, null, null);
+        emotion = emotion("{\"positive\":0.8123,\"neutral\":0.1432,\"negative\":0.0445}");
+        malformed = emotion("{\"positive\":0.8123,");
+    }
+
+    private static Emotion emotion(String probabilitiesJson) {
+        Emotion emotion = new Emotion();
+        emotion.setId(1L);
+        emotion.setPostId(42L);
+        emotion.setText("周末一起去爬山吗？天气预报说是晴天，欢迎大家报名。");
+        emotion.setSentiment("positive");
+        emotion.setConfidence(0.8123);
+        emotion.setProbabilitiesJson(probabilitiesJson);
+        emotion.setCreatedAt(LocalDateTime.now());
+        return emotion;
+    }
+
+    @Benchmark
+    public Object toDto() {
+        return emotionService.toDto(emotion);
+    }
+
+    @Benchmark
+    public Object toDtoMalformedJson() {
+        return emotionService.toDto(malformed);
+    }
+}
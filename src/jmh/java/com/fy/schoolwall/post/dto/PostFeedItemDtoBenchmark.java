@@ -0,0 +1,60 @@
+package com.fy.schoolwall.post.dto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 列表摘要基准：普通列表的截取摘要与搜索结果的高亮摘要
+ * <p>
+ * 正文按长度分为不需要截取的短正文和数千字的长正文两组。
+ * 运行：mvn -Pbenchmark -DskipTests test-compile exec:exec -Djmh.args="PostFeedItemDtoBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostFeedItemDtoBenchmark {
+
+    private static final String PARAGRAPH = "周六早上八点在东门集合，路线约 12 公里，沿途有补给点。"
+            + "Please bring water & snacks <no glass bottles>. 欢迎新同学报名参加！";
+
+    private static final List<String> TERMS = List.of("补给", "water");
+
+    @Param({ "short", "long" })
+    public String contentLength;
+
+    private String content;
+    private PostFeedItemDto dto;
+
+    @Setup
+    public void setUp() {
+        content = "short".equals(contentLength) ? PARAGRAPH.substring(0, 40) : PARAGRAPH.repeat(40);
+        dto = new PostFeedItemDto();
+    }
+
+    @Benchmark
+    public String summary() {
+        dto.generateSummary(content);
+        return dto.getSummary();
+    }
+
+    @Benchmark
+    public String highlightedSummary() {
+        dto.generateHighlightedSummary(content, TERMS);
+        return dto.getSummary();
+    }
+}
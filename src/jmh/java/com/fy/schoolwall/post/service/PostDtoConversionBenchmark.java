@@ -0,0 +1,84 @@
+package com.fy.schoolwall.post.service;
+
+import com.fy.schoolwall.post.model.Post;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 帖子 DTO 转换基准：一页帖子（20 条）转换为详情 DTO 和列表项 DTO 的耗时
+ * <p>
+ * 帖子的分类混合了分类代码、显示名称和空值，正文长短不一，覆盖分类解析和摘要截取的各个分支。
+ * 转换方法不访问 PostService 的依赖，这里以 null 依赖构造。
+ * 运行：mvn -Pbenchmark -DskipTests test-compile exec:exec -Djmh.args="PostDtoConversionBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostDtoConversionBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final String[] CATEGORIES = { "academic", "campus_life", "二手交易", "job_intern", "社团活动", null };
+
+    private PostService postService;
+    private List<Post> posts;
+
+    @Setup
+    public void setUp() {
+        postService = new PostService(null, null, null, null, null, null, null, null, null, null, true);
+        posts = new ArrayList<>(PAGE_SIZE);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Post post = new Post();
+            post.setId((long) i + 1);
+            post.setTitle("期末复习资料分享 第" + i + "期");
+            post.setContent("高等数学、线性代数和概率论的复习提纲，附往年真题和详细解析。".repeat(1 + i % 8));
+            post.setSlug("qi-mo-fu-xi-zi-liao-fen-xiang-" + i);
+            post.setAuthorId(100L + i);
+            post.setAuthorUsername("student" + i);
+            post.setStatus("PUBLISHED");
+            post.setCategory(CATEGORIES[i % CATEGORIES.length]);
+            post.setTags("复习,期末,资料");
+            post.setViewCount(i * 37);
+            post.setCommentCount(i * 3);
+            post.setIsTop(i == 0);
+            post.setIsRecommended(i % 5 == 0);
+            post.setCreatedAt(now.minusHours(i));
+            post.setUpdatedAt(now.minusMinutes(i));
+            post.setPublishedAt(now.minusHours(i));
+            posts.add(post);
+        }
+    }
+
+    @Benchmark
+    public void toPostDto(Blackhole blackhole) {
+        for (Post post : posts) {
+            blackhole.consume(postService.convertToPostDto(post));
+        }
+    }
+
+    @Benchmark
+    public void toFeedItemDto(Blackhole blackhole) {
+        for (Post post : posts) {
+            blackhole.consume(postService.convertToFeedItemDto(post));
+        }
+    }
+}
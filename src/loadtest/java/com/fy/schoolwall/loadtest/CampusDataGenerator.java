@@ -0,0 +1,323 @@
+package com.fy.schoolwall.loadtest;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 合成数据生成器：把 {@link CampusDataset} 批量写入已迁移、且为空的 schoolwall 库
+ *
+ * 意义：
+ * 1. 使用 JDBC 批量插入（rewriteBatchedStatements 合并为多行 INSERT），每批一个事务，
+ *    会话内关闭唯一性和外键检查，千万级评论可以在本机数十分钟内写完
+ * 2. 帖子按ID区间分给多个写入线程，每个线程写自己区间内的帖子和这些帖子的全部评论；
+ *    评论ID按帖子顺序预先分配，父评论一定先于回复写入
+ * 3. 冗余字段与应用写入的一致：帖子的 comment_count、评论的作者/帖子标题/父评论摘要快照，
+ *    写完后按 posts 重建 post_counters，并把 slug_sequences 推进到帖子数之后
+ *
+ * 回复关系：约三分之一是顶级评论，其余多数回复上一条评论（形成很深的回复链），少数回复帖子内任意一条更早的评论。
+ */
+public class CampusDataGenerator {
+
+    private static final int BATCH_SIZE = 2000;
+    private static final int PARENT_EXCERPT_LENGTH = 200;
+    // 评论在帖子发布后 30 天内陆续出现
+    private static final long COMMENT_SPAN_SECONDS = 30L * 24 * 3600;
+
+    private final CampusDataset dataset;
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+    private final int threads;
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    private final AtomicLong writtenPosts = new AtomicLong();
+    private final AtomicLong writtenComments = new AtomicLong();
+
+    public CampusDataGenerator(CampusDataset dataset, String jdbcUrl, String username, String password,
+            int threads) {
+        this.dataset = dataset;
+        this.jdbcUrl = withBatchRewrite(jdbcUrl);
+        this.username = username;
+        this.password = password;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * 写入全部数据
+     *
+     * @throws IllegalStateException 库中已有用户
+     */
+    public void generate() throws Exception {
+        try (Connection connection = connect()) {
+            try (Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM users")) {
+                rs.next();
+                if (rs.getLong(1) > 0) {
+                    throw new IllegalStateException("Target database already contains users; "
+                            + "the generator only writes into an empty, migrated schema");
+                }
+            }
+        }
+
+        long start = System.nanoTime();
+        System.out.println("Generating campus dataset: scale=" + dataset.getScale() + ", users="
+                + dataset.getUserCount() + ", posts=" + dataset.getPostCount() + ", threads=" + threads);
+
+        writeUsers();
+        System.out.println("Users written: " + dataset.getUserCount());
+
+        long[] firstCommentIds = assignCommentIds();
+        writePostsAndComments(firstCommentIds);
+        finish();
+
+        System.out.println("Campus dataset generated in " + (System.nanoTime() - start) / 1_000_000_000
+                + " s: users=" + dataset.getUserCount() + ", posts=" + writtenPosts.get() + ", comments="
+                + writtenComments.get());
+    }
+
+    private void writeUsers() throws SQLException {
+        // 所有用户共用一个哈希，生成时只计算一次 BCrypt
+        String passwordHash = new BCryptPasswordEncoder(10).encode(CampusDataset.PASSWORD);
+        Timestamp createdAt = Timestamp.valueOf(now.minusYears(2));
+        try (Connection connection = connect();
+                PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO users (id, username, email, password_hash, role, avatar_url, created_at,"
+                                + " updated_at, is_enabled, is_locked) VALUES (?, ?, ?, ?, 'USER', ?, ?, ?, TRUE, FALSE)")) {
+            int pending = 0;
+            for (long userId = 1; userId <= dataset.getUserCount(); userId++) {
+                insert.setLong(1, userId);
+                insert.setString(2, dataset.usernameOf(userId));
+                insert.setString(3, dataset.emailOf(userId));
+                insert.setString(4, passwordHash);
+                insert.setString(5, dataset.avatarUrlOf(userId));
+                insert.setTimestamp(6, createdAt);
+                insert.setTimestamp(7, createdAt);
+                insert.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    insert.executeBatch();
+                    connection.commit();
+                    pending = 0;
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    /**
+     * 计算每个帖子第一条评论的ID（下标为帖子ID），评论ID按帖子顺序连续分配
+     */
+    private long[] assignCommentIds() {
+        long[] firstCommentIds = new long[(int) dataset.getPostCount() + 2];
+        long next = 1;
+        for (long postId = 1; postId <= dataset.getPostCount(); postId++) {
+            firstCommentIds[(int) postId] = next;
+            next += dataset.commentCountOf(postId);
+        }
+        firstCommentIds[(int) dataset.getPostCount() + 1] = next;
+        System.out.println("Comments to write: " + (next - 1));
+        return firstCommentIds;
+    }
+
+    private void writePostsAndComments(long[] firstCommentIds) throws Exception {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "campus-data-writer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            long postCount = dataset.getPostCount();
+            long rangeSize = (postCount + threads - 1) / threads;
+            List<Future<?>> futures = new ArrayList<>();
+            for (long from = 1; from <= postCount; from += rangeSize) {
+                long to = Math.min(postCount, from + rangeSize - 1);
+                long rangeStart = from;
+                futures.add(executor.submit(() -> {
+                    writeRange(rangeStart, to, firstCommentIds);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void writeRange(long fromPostId, long toPostId, long[] firstCommentIds) throws SQLException {
+        try (Connection connection = connect();
+                PreparedStatement posts = connection.prepareStatement(
+                        "INSERT INTO posts (id, title, content, slug, author_id, author_username, status, category,"
+                                + " tags, view_count, comment_count, is_top, is_recommended, created_at, updated_at,"
+                                + " published_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, NULL, ?, ?, FALSE, ?, ?, ?, ?)");
+                PreparedStatement comments = connection.prepareStatement(
+                        "INSERT INTO comments (id, content, user_id, post_id, parent_comment_id, created_at,"
+                                + " updated_at, is_deleted, author_username, author_avatar_url, post_title,"
+                                + " parent_excerpt) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            int pendingPosts = 0;
+            int pendingComments = 0;
+            for (long postId = fromPostId; postId <= toPostId; postId++) {
+                int commentCount = (int) (firstCommentIds[(int) postId + 1] - firstCommentIds[(int) postId]);
+                LocalDateTime createdAt = dataset.createdAtOf(postId, now);
+                String title = dataset.titleOf(postId);
+                long authorId = dataset.authorOf(postId);
+                boolean published = dataset.isPublished(postId);
+
+                posts.setLong(1, postId);
+                posts.setString(2, title);
+                posts.setString(3, dataset.contentOf(postId));
+                posts.setString(4, dataset.slugOf(postId));
+                posts.setLong(5, authorId);
+                posts.setString(6, dataset.usernameOf(authorId));
+                posts.setString(7, dataset.statusOf(postId));
+                posts.setString(8, dataset.categoryOf(postId));
+                posts.setInt(9, published ? commentCount * 3 + (int) (postId % 50) : 0);
+                posts.setInt(10, commentCount);
+                posts.setBoolean(11, published && postId % 500 == 0);
+                posts.setTimestamp(12, Timestamp.valueOf(createdAt));
+                posts.setTimestamp(13, Timestamp.valueOf(createdAt));
+                if (published) {
+                    posts.setTimestamp(14, Timestamp.valueOf(createdAt));
+                } else {
+                    posts.setNull(14, Types.TIMESTAMP);
+                }
+                posts.addBatch();
+                pendingPosts++;
+
+                pendingComments += addComments(comments, postId, title, createdAt, commentCount,
+                        firstCommentIds[(int) postId]);
+
+                // 帖子先于其评论提交，便于中途观察进度；外键检查已关闭，顺序不影响正确性
+                if (pendingPosts >= BATCH_SIZE || pendingComments >= BATCH_SIZE) {
+                    flush(connection, posts, comments, pendingPosts, pendingComments);
+                    pendingPosts = 0;
+                    pendingComments = 0;
+                }
+            }
+            flush(connection, posts, comments, pendingPosts, pendingComments);
+        }
+    }
+
+    private int addComments(PreparedStatement comments, long postId, String postTitle, LocalDateTime postCreatedAt,
+            int commentCount, long firstCommentId) throws SQLException {
+        if (commentCount == 0) {
+            return 0;
+        }
+        SplittableRandom random = dataset.commentRandom(postId);
+        String[] contents = new String[commentCount];
+        long secondsStep = Math.max(1, COMMENT_SPAN_SECONDS / commentCount);
+        LocalDateTime createdAt = postCreatedAt;
+        for (int i = 0; i < commentCount; i++) {
+            long commentId = firstCommentId + i;
+            long userId = dataset.commenterOf(random);
+            contents[i] = dataset.commentText(random);
+            createdAt = createdAt.plusSeconds(1 + random.nextLong(secondsStep));
+            if (createdAt.isAfter(now)) {
+                createdAt = now;
+            }
+
+            int parentIndex = -1;
+            if (i > 0) {
+                int kind = random.nextInt(100);
+                if (kind >= 35) {
+                    parentIndex = kind < 80 ? i - 1 : random.nextInt(i);
+                }
+            }
+
+            comments.setLong(1, commentId);
+            comments.setString(2, contents[i]);
+            comments.setLong(3, userId);
+            comments.setLong(4, postId);
+            if (parentIndex >= 0) {
+                comments.setLong(5, firstCommentId + parentIndex);
+            } else {
+                comments.setNull(5, Types.BIGINT);
+            }
+            Timestamp timestamp = Timestamp.valueOf(createdAt);
+            comments.setTimestamp(6, timestamp);
+            comments.setTimestamp(7, timestamp);
+            comments.setBoolean(8, random.nextInt(100) < 2);
+            comments.setString(9, dataset.usernameOf(userId));
+            comments.setString(10, dataset.avatarUrlOf(userId));
+            comments.setString(11, postTitle);
+            comments.setString(12, parentIndex >= 0 ? excerpt(contents[parentIndex]) : null);
+            comments.addBatch();
+        }
+        return commentCount;
+    }
+
+    private void flush(Connection connection, PreparedStatement posts, PreparedStatement comments, int pendingPosts,
+            int pendingComments) throws SQLException {
+        if (pendingPosts > 0) {
+            posts.executeBatch();
+        }
+        if (pendingComments > 0) {
+            comments.executeBatch();
+        }
+        connection.commit();
+
+        long postsDone = writtenPosts.addAndGet(pendingPosts);
+        long commentsDone = writtenComments.addAndGet(pendingComments);
+        long step = Math.max(BATCH_SIZE, dataset.getPostCount() / 20);
+        if (postsDone / step != (postsDone - pendingPosts) / step) {
+            System.out.println("Progress: posts=" + postsDone + "/" + dataset.getPostCount() + ", comments="
+                    + commentsDone);
+        }
+    }
+
+    /**
+     * 重建派生数据并更新统计信息
+     */
+    private void finish() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM post_counters");
+            statement.executeUpdate("INSERT INTO post_counters (status, category, post_count)"
+                    + " SELECT status, COALESCE(category, ''), COUNT(*) FROM posts WHERE status IS NOT NULL"
+                    + " GROUP BY status, COALESCE(category, '')");
+            statement.executeUpdate("UPDATE slug_sequences SET next_value = GREATEST(next_value, "
+                    + (dataset.getPostCount() + 1) + ") WHERE name = 'post'");
+            connection.commit();
+            statement.execute("ANALYZE TABLE users, posts, comments");
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Connection connection = DriverManager.getConnection(jdbcUrl, username, password);
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET SESSION unique_checks = 0");
+            statement.execute("SET SESSION foreign_key_checks = 0");
+        }
+        return connection;
+    }
+
+    private static String excerpt(String content) {
+        return content.length() > PARENT_EXCERPT_LENGTH ? content.substring(0, PARENT_EXCERPT_LENGTH) : content;
+    }
+
+    private static String withBatchRewrite(String jdbcUrl) {
+        if (jdbcUrl.contains("rewriteBatchedStatements")) {
+            return jdbcUrl;
+        }
+        return jdbcUrl + (jdbcUrl.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
+    }
+}
@@ -0,0 +1,230 @@
+package com.fy.schoolwall.loadtest;
+
+import com.fy.schoolwall.common.enums.PostCategory;
+import com.fy.schoolwall.common.util.SlugGenerator;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+/**
+ * 合成校园墙数据集的形状
+ *
+ * 意义：
+ * 1. 按规模系数给出用户、帖子、评论的数量（scale=1 时为 20 万用户、200 万帖子、约 2000 万评论）
+ * 2. 每个帖子的作者、状态、分类、标题、slug、发布时间和评论数都由 (种子, 帖子ID) 确定，
+ *    生成器可以多线程按帖子区间并行写入，压测脚本不访问数据库也能算出有效的 slug 和帖子ID
+ * 3. 分布接近真实校园墙：少数活跃用户发帖多，评论数长尾（热门帖子有上千条评论），
+ *    约九成帖子已发布，分类按热度递减
+ *
+ * 帖子ID按发布时间递增（与自增主键一致），帖子 slug 的后缀直接使用帖子ID的 base36 编码，
+ * 生成结束后 slug_sequences 从帖子数 + 1 继续发放，不会与已生成的 slug 冲突。
+ */
+public class CampusDataset {
+
+    static final long BASE_USERS = 200_000;
+    static final long BASE_POSTS = 2_000_000;
+    static final long BASE_COMMENTS = 20_000_000;
+
+    /**
+     * 所有生成用户的登录密码
+     */
+    public static final String PASSWORD = "loadtest-Passw0rd!";
+
+    // 帖子时间跨度：最近两年
+    private static final long POST_SPAN_SECONDS = 2L * 365 * 24 * 3600;
+    // 评论数的对数正态分布参数：sigma 越大长尾越明显
+    private static final double COMMENT_SIGMA = 1.6;
+    private static final int MAX_COMMENTS_PER_POST = 50_000;
+
+    private static final String[] TITLE_SUBJECTS = {
+            "高等数学", "线性代数", "大学物理", "数据结构", "操作系统", "计算机网络", "大学英语", "马原",
+            "图书馆", "一食堂", "二食堂", "东门", "操场", "宿舍楼", "实验楼", "校医院", "ACM 校赛", "CET-6",
+            "Java 21", "Spring Boot", "考研", "保研", "实习", "社团招新", "篮球赛", "毕业旅行"
+    };
+
+    private static final String[] TITLE_TOPICS = {
+            "复习资料分享", "有人一起吗？", "求推荐", "经验贴", "避雷", "失物招领", "二手转让", "吐槽一下",
+            "怎么样？", "时间线汇总", "组队招募", "课程评价", "报名通知", "真题解析", "周末约起", "求助！"
+    };
+
+    private static final String[] CONTENT_PHRASES = {
+            "周六早上八点在东门集合，", "路线大约十二公里，", "欢迎新同学报名参加。", "附上往年真题和详细解析，",
+            "食堂三楼新开的麻辣烫味道不错，", "就是排队有点久。", "图书馆三楼捡到一张校园卡，", "请失主尽快联系我。",
+            "期末复习的时候一定要先把课本例题过一遍，", "然后再刷题。", "Please bring water and snacks. ",
+            "宿舍楼下的快递点周末不开门，", "有需要的同学可以私信。", "老师讲得很清楚，作业量适中，",
+            "推荐选这门课。", "比赛时间是下周三晚上七点，", "地点在体育馆。", "有没有同学知道怎么申请？"
+    };
+
+    private final double scale;
+    private final long seed;
+    private final long userCount;
+    private final long postCount;
+    private final double meanCommentsPerPublishedPost;
+    private final PostCategory[] categories = PostCategory.values();
+    private final double[] categoryWeights;
+
+    public CampusDataset(double scale, long seed) {
+        if (scale <= 0) {
+            throw new IllegalArgumentException("Dataset scale must be positive");
+        }
+        this.scale = scale;
+        this.seed = seed;
+        this.userCount = Math.max(10, Math.round(BASE_USERS * scale));
+        this.postCount = Math.max(10, Math.round(BASE_POSTS * scale));
+        long commentTarget = Math.round(BASE_COMMENTS * scale);
+        // 只有已发布的帖子有评论（约 90%）
+        this.meanCommentsPerPublishedPost = (double) commentTarget / (postCount * 0.9);
+
+        // 分类热度按 1/(i+1) 递减
+        this.categoryWeights = new double[categories.length];
+        double total = 0;
+        for (int i = 0; i < categories.length; i++) {
+            total += 1.0 / (i + 1);
+            categoryWeights[i] = total;
+        }
+        for (int i = 0; i < categories.length; i++) {
+            categoryWeights[i] /= total;
+        }
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getUserCount() {
+        return userCount;
+    }
+
+    public long getPostCount() {
+        return postCount;
+    }
+
+    public String usernameOf(long userId) {
+        return "student" + userId;
+    }
+
+    public String emailOf(long userId) {
+        return "student" + userId + "@campus.example.com";
+    }
+
+    /**
+     * 约一半用户设置了头像
+     */
+    public String avatarUrlOf(long userId) {
+        return userId % 2 == 0 ? "/uploads/avatars/" + userId + ".png" : null;
+    }
+
+    /**
+     * 帖子作者：ID 越小的用户发帖越多
+     */
+    public long authorOf(long postId) {
+        double u = random(postId, 1).nextDouble();
+        return 1 + Math.min(userCount - 1, (long) (userCount * u * u * u));
+    }
+
+    public String statusOf(long postId) {
+        int bucket = random(postId, 2).nextInt(100);
+        if (bucket < 90) {
+            return "PUBLISHED";
+        }
+        return bucket < 97 ? "DRAFT" : "HIDDEN";
+    }
+
+    public boolean isPublished(long postId) {
+        return "PUBLISHED".equals(statusOf(postId));
+    }
+
+    /**
+     * 分类代码，约 5% 的帖子没有分类
+     */
+    public String categoryOf(long postId) {
+        SplittableRandom random = random(postId, 3);
+        if (random.nextInt(100) < 5) {
+            return null;
+        }
+        double u = random.nextDouble();
+        for (int i = 0; i < categories.length; i++) {
+            if (u < categoryWeights[i]) {
+                return categories[i].getCode();
+            }
+        }
+        return categories[categories.length - 1].getCode();
+    }
+
+    public String titleOf(long postId) {
+        SplittableRandom random = random(postId, 4);
+        return TITLE_SUBJECTS[random.nextInt(TITLE_SUBJECTS.length)]
+                + TITLE_TOPICS[random.nextInt(TITLE_TOPICS.length)] + " " + postId;
+    }
+
+    /**
+     * 与 SlugAllocator 相同的格式：标题部分 + "-" + base36 序号（这里序号即帖子ID）
+     */
+    public String slugOf(long postId) {
+        return SlugGenerator.generateSlug(titleOf(postId)) + "-" + Long.toString(postId, 36);
+    }
+
+    public String contentOf(long postId) {
+        return text(random(postId, 5), 3, 40);
+    }
+
+    public LocalDateTime createdAtOf(long postId, LocalDateTime now) {
+        long secondsAgo = POST_SPAN_SECONDS - POST_SPAN_SECONDS * postId / postCount;
+        return now.minusSeconds(secondsAgo);
+    }
+
+    /**
+     * 帖子的评论数：已发布帖子服从对数正态分布，均值使总评论数接近目标值
+     */
+    public int commentCountOf(long postId) {
+        if (!isPublished(postId)) {
+            return 0;
+        }
+        double mu = Math.log(meanCommentsPerPublishedPost) - COMMENT_SIGMA * COMMENT_SIGMA / 2;
+        double count = Math.exp(mu + COMMENT_SIGMA * gaussian(random(postId, 6)));
+        return (int) Math.min(MAX_COMMENTS_PER_POST, Math.round(count));
+    }
+
+    /**
+     * 帖子内评论使用的随机数（回复关系、评论者、内容），与帖子其他属性的随机数相互独立
+     */
+    SplittableRandom commentRandom(long postId) {
+        return random(postId, 7);
+    }
+
+    /**
+     * 评论者：活跃用户评论更多，但比发帖分布平缓
+     */
+    long commenterOf(SplittableRandom random) {
+        double u = random.nextDouble();
+        return 1 + Math.min(userCount - 1, (long) (userCount * u * Math.sqrt(u)));
+    }
+
+    String commentText(SplittableRandom random) {
+        return text(random, 1, 6);
+    }
+
+    private String text(SplittableRandom random, int minPhrases, int maxPhrases) {
+        int phrases = minPhrases + random.nextInt(maxPhrases - minPhrases + 1);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < phrases; i++) {
+            text.append(CONTENT_PHRASES[random.nextInt(CONTENT_PHRASES.length)]);
+        }
+        return text.toString();
+    }
+
+    private SplittableRandom random(long id, int stream) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + id * 31 + stream);
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+}
@@ -0,0 +1,56 @@
+package com.fy.schoolwall.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * 单个压测线程记录的一个接口的响应时间（纳秒）
+ *
+ * 每个线程各自持有，不加锁；压测结束后合并，排序后计算分位数。
+ */
+class LatencyRecorder {
+
+    private long[] samples = new long[4096];
+    private int size;
+    private long errors;
+
+    void record(long nanos, boolean success) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    void mergeFrom(LatencyRecorder other) {
+        if (size + other.size > samples.length) {
+            samples = Arrays.copyOf(samples, Math.max(samples.length * 2, size + other.size));
+        }
+        System.arraycopy(other.samples, 0, samples, size, other.size);
+        size += other.size;
+        errors += other.errors;
+    }
+
+    int count() {
+        return size;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    /**
+     * 排序后取分位数，只能在合并完成后调用
+     *
+     * @param percentile 0-100
+     */
+    double percentileMillis(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        Arrays.sort(samples, 0, size);
+        int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+        return samples[Math.max(0, Math.min(size - 1, index))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,270 @@
+package com.fy.schoolwall.loadtest;
+
+import com.fy.schoolwall.SchoolwallApplication;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 端到端压测入口：准备 MySQL、写入合成数据、启动应用、执行压测并输出报告
+ *
+ * 运行：mvn -Ploadtest -DskipTests test-compile exec:exec -Dloadtest.args="--scale=0.05 --duration=120"
+ * （完整规模的数据在容器中需要写入较长时间，先用较小的 scale 验证流程）
+ * <p>
+ * 对比平台线程和虚拟线程：-Dloadtest.args="--scale=0.05 --threads=compare --duration=60"
+ * <p>
+ * 对比全文索引和 LIKE 搜索（100 万帖子）：-Dloadtest.args="--scale=0.5 --search=compare --duration=60"
+ * <p>
+ * 参数（--名称=值）：
+ * <ul>
+ * <li>scale：数据规模系数，1 为 20 万用户、200 万帖子、约 2000 万评论（默认 1）</li>
+ * <li>seed：数据集随机种子（默认 42）；压测脚本按种子推算 slug，复用已有数据时必须与生成时相同</li>
+ * <li>jdbc-url / db-username / db-password：使用已有的 MySQL，不启动容器；库中已有用户时跳过生成</li>
+ * <li>mysql-image：容器镜像（默认 mysql:8.0）；buffer-pool：容器的 InnoDB 缓冲池大小（默认 2G）</li>
+ * <li>base-url：压测已在运行的应用，不在本进程内启动（此时数据须已按相同的 scale/seed 生成）</li>
+ * <li>writer-threads：生成数据的写入线程数（默认 4）</li>
+ * <li>concurrency / warmup / duration：并发用户数、预热秒数、测量秒数（默认 32 / 30 / 120）</li>
+ * <li>mix：请求占比，如 FEED:50,EMOTION:50（默认帖子流 40、帖子详情 25、顶级评论 25、给我的评论 10）</li>
+ * <li>threads：应用的请求线程模型，platform / virtual / compare（默认 platform）；
+ * compare 依次以平台线程和虚拟线程启动应用各压测一轮（每轮前清空情绪分析结果），最后输出对比，
+ * 未指定时 mix 默认为 FEED:50,EMOTION:50、concurrency 默认为 400（超过 Tomcat 默认的 200 个请求线程）</li>
+ * <li>search：帖子搜索使用的查询，fulltext / like / compare（默认 fulltext）；
+ * compare 依次以全文索引和 LIKE 查询启动应用各压测一轮，最后输出对比，未指定时 mix 默认为 SEARCH:1；
+ * 与 threads=compare 同时使用时按两者的组合各压测一轮</li>
+ * <li>sentiment-latency-ms：进程内情绪分析服务替身的响应延迟（默认 100）</li>
+ * <li>generate-only：只生成数据，不压测</li>
+ * </ul>
+ * 应用与压测线程在同一进程内运行时会互相争用 CPU，需要精确结果时用 base-url 压测单独部署的应用
+ * （此时 threads、search 不起作用，由被测应用的 spring.threads.virtual.enabled、
+ * schoolwall.search.fulltext.enabled 决定）。
+ */
+public class LoadTestEnvironment {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        CampusDataset dataset = new CampusDataset(Double.parseDouble(options.getOrDefault("scale", "1")),
+                Long.parseLong(options.getOrDefault("seed", "42")));
+        String baseUrl = options.get("base-url");
+        String threads = options.getOrDefault("threads", "platform");
+        String search = options.getOrDefault("search", "fulltext");
+        boolean compareThreads = "compare".equals(threads);
+        boolean compareSearch = "compare".equals(search);
+        if ((compareThreads || compareSearch) && baseUrl != null) {
+            throw new IllegalArgumentException("threads=compare and search=compare start the application itself "
+                    + "and cannot use base-url");
+        }
+        Map<LoadTestRunner.Endpoint, Integer> mix = options.containsKey("mix")
+                ? LoadTestRunner.Endpoint.parseMix(options.get("mix"))
+                : compareSearch ? LoadTestRunner.Endpoint.parseMix("SEARCH:1")
+                        : compareThreads ? LoadTestRunner.Endpoint.parseMix("FEED:50,EMOTION:50")
+                                : LoadTestRunner.Endpoint.defaultMix();
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", compareThreads ? "400" : "32"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "30")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "120")));
+
+        MySQLContainer<?> container = null;
+        try {
+            String jdbcUrl = options.get("jdbc-url");
+            String username = options.getOrDefault("db-username", "root");
+            String password = options.getOrDefault("db-password", "password");
+            if (jdbcUrl == null && baseUrl == null) {
+                container = startMySql(options);
+                jdbcUrl = container.getJdbcUrl();
+                username = container.getUsername();
+                password = container.getPassword();
+            }
+
+            if (jdbcUrl != null) {
+                Flyway.configure()
+                        .dataSource(jdbcUrl, username, password)
+                        .locations("classpath:db/migration")
+                        .baselineOnMigrate(true)
+                        .load()
+                        .migrate();
+                if (hasUsers(jdbcUrl, username, password)) {
+                    System.out.println("Database already contains users; reusing existing data (seed and scale "
+                            + "must match the run that generated it)");
+                } else {
+                    new CampusDataGenerator(dataset, jdbcUrl, username, password,
+                            Integer.parseInt(options.getOrDefault("writer-threads", "4"))).generate();
+                }
+            }
+            if (options.containsKey("generate-only")) {
+                return;
+            }
+
+            if (baseUrl != null) {
+                new LoadTestRunner(dataset, baseUrl, concurrency, warmup, duration, mix).run();
+                return;
+            }
+
+            List<Boolean> threadModes = switch (threads) {
+                case "platform" -> List.of(false);
+                case "virtual" -> List.of(true);
+                case "compare" -> List.of(false, true);
+                default -> throw new IllegalArgumentException("Unknown threads mode: " + threads);
+            };
+            List<Boolean> searchModes = switch (search) {
+                case "fulltext" -> List.of(true);
+                case "like" -> List.of(false);
+                case "compare" -> List.of(true, false);
+                default -> throw new IllegalArgumentException("Unknown search mode: " + search);
+            };
+            Map<String, Map<String, LatencyRecorder>> results = new LinkedHashMap<>();
+            try (SentimentStub sentimentStub = new SentimentStub(
+                    Long.parseLong(options.getOrDefault("sentiment-latency-ms", "100")))) {
+                for (boolean virtualThreads : threadModes) {
+                    for (boolean fulltextSearch : searchModes) {
+                        String mode = runName(virtualThreads, fulltextSearch, compareSearch && !compareThreads);
+                        if (!results.isEmpty() && mix.containsKey(LoadTestRunner.Endpoint.EMOTION)) {
+                            // 各轮请求的帖子相同，清空上一轮保存的结果，情绪接口每轮都要调用分析服务
+                            resetEmotions(jdbcUrl, username, password);
+                        }
+                        System.out.println("=== " + mode + " ===");
+                        try (ConfigurableApplicationContext application = startApplication(jdbcUrl, username,
+                                password, virtualThreads, fulltextSearch, sentimentStub.getBaseUrl())) {
+                            int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+                            results.put(mode, new LoadTestRunner(dataset, "http://localhost:" + port, concurrency,
+                                    warmup, duration, mix).run());
+                        }
+                    }
+                }
+            }
+            if (results.size() > 1) {
+                printComparison(results, duration);
+            }
+        } finally {
+            if (container != null) {
+                container.stop();
+            }
+        }
+    }
+
+    private static MySQLContainer<?> startMySql(Map<String, String> options) {
+        MySQLContainer<?> container = new MySQLContainer<>(
+                DockerImageName.parse(options.getOrDefault("mysql-image", "mysql:8.0")))
+                .withDatabaseName("schoolwall")
+                .withUsername("schoolwall")
+                .withPassword("schoolwall")
+                // 批量写入期间不逐事务刷盘、不写 binlog
+                .withCommand("--character-set-server=utf8mb4",
+                        "--innodb-buffer-pool-size=" + options.getOrDefault("buffer-pool", "2G"),
+                        "--innodb-flush-log-at-trx-commit=2",
+                        "--skip-log-bin");
+        container.start();
+        System.out.println("MySQL container started: " + container.getJdbcUrl());
+        return container;
+    }
+
+    private static ConfigurableApplicationContext startApplication(String jdbcUrl, String username,
+            String password, boolean virtualThreads, boolean fulltextSearch, String sentimentUrl) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", jdbcUrl);
+        properties.put("spring.datasource.username", username);
+        properties.put("spring.datasource.password", password);
+        // 默认配置的 DEBUG 日志（SQL、Spring Security）会主导压测结果
+        properties.put("logging.level.com.fy.schoolwall", "INFO");
+        properties.put("logging.level.org.apache.ibatis", "WARN");
+        properties.put("logging.level.org.springframework.security", "WARN");
+        properties.put("logging.level.org.flywaydb", "INFO");
+        properties.put("spring.threads.virtual.enabled", String.valueOf(virtualThreads));
+        // 搜索只走数据库：全文索引或 LIKE 查询
+        properties.put("schoolwall.search.fulltext.enabled", String.valueOf(fulltextSearch));
+        properties.put("schoolwall.search.local-index.enabled", "false");
+        // 情绪接口调用进程内的替身；不做后台预计算，压测期间的分析都来自请求
+        properties.put("schoolwall.sentiment.base-url", sentimentUrl);
+        properties.put("schoolwall.sentiment.precompute.enabled", "false");
+        return new SpringApplicationBuilder(SchoolwallApplication.class)
+                .properties(properties)
+                .run();
+    }
+
+    private static boolean hasUsers(String jdbcUrl, String username, String password) throws Exception {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password);
+                Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT EXISTS (SELECT 1 FROM users)")) {
+            rs.next();
+            return rs.getBoolean(1);
+        }
+    }
+
+    private static void resetEmotions(String jdbcUrl, String username, String password) throws Exception {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password);
+                Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE emotion");
+            statement.execute("TRUNCATE TABLE user_sentiment_counters");
+        }
+    }
+
+    /**
+     * 一轮压测的名称：只对比搜索时为 fulltext / like，否则为线程模型（加上搜索查询，如 virtual/like）
+     */
+    private static String runName(boolean virtualThreads, boolean fulltextSearch, boolean searchOnly) {
+        String search = fulltextSearch ? "fulltext" : "like";
+        if (searchOnly) {
+            return search;
+        }
+        String threads = virtualThreads ? "virtual" : "platform";
+        return fulltextSearch ? threads : threads + "/" + search;
+    }
+
+    /**
+     * 并排输出各轮的吞吐量、p50、p99 和错误数
+     */
+    private static void printComparison(Map<String, Map<String, LatencyRecorder>> results, Duration duration) {
+        double seconds = duration.toNanos() / 1_000_000_000.0;
+        List<String> modes = new ArrayList<>(results.keySet());
+        System.out.println("=== comparison ===");
+        StringBuilder header = new StringBuilder(String.format("%-20s", "endpoint"));
+        for (String mode : modes) {
+            header.append(String.format(" %16s %16s %16s %10s", mode + " req/s", mode + " p50 ms", mode + " p99 ms",
+                    "errors"));
+        }
+        System.out.println(header);
+        for (String endpoint : results.get(modes.get(0)).keySet()) {
+            StringBuilder row = new StringBuilder(String.format("%-20s", endpoint));
+            for (String mode : modes) {
+                LatencyRecorder recorder = results.get(mode).get(endpoint);
+                row.append(String.format(" %16.1f %16.2f %16.2f %10d", recorder.count() / seconds,
+                        recorder.percentileMillis(50), recorder.percentileMillis(99), recorder.errors()));
+            }
+            System.out.println(row);
+        }
+    }
+
+    /**
+     * 解析 --名称=值 形式的参数；通过 Maven 传入时所有参数可能在同一个字符串中，按空白拆分
+     */
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        Arrays.stream(args)
+                .flatMap(arg -> Arrays.stream(arg.trim().split("\\s+")))
+                .filter(arg -> arg.startsWith("--"))
+                .forEach(arg -> {
+                    int equals = arg.indexOf('=');
+                    if (equals < 0) {
+                        options.put(arg.substring(2), "true");
+                    } else {
+                        options.put(arg.substring(2, equals), arg.substring(equals + 1));
+                    }
+                });
+        return options;
+    }
+}
@@ -0,0 +1,303 @@
+package com.fy.schoolwall.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 读接口压测：固定数量的并发用户按比例循环请求帖子流、帖子详情、顶级评论、"给我的评论"、帖子情绪和帖子搜索
+ *
+ * 意义：
+ * 1. 请求目标取自 {@link CampusDataset}：帖子详情和评论列表集中在最近的帖子上，帖子流大多只看前几页
+ * 2. 每个压测线程以一个生成用户的身份请求（登录后复用访问令牌，过期返回 401 时重新登录），
+ *    "给我的评论"覆盖发帖多的活跃用户
+ * 3. 预热阶段的请求不计入结果；每个接口输出请求数、错误数、吞吐量和 p50/p90/p99/p99.9/最大响应时间
+ * 4. 帖子情绪（EMOTION）默认不在混合中，通过 mix 参数加入；目标在全部帖子中均匀选取，大多尚未分析，
+ *    每次请求都会调用情绪分析服务并写入结果
+ * 5. 帖子搜索（SEARCH）默认也不在混合中；关键词取自合成数据的标题和正文用词，命中数从几十到数十万不等，
+ *    应用的 schoolwall.search.fulltext.enabled 决定走全文索引还是 LIKE 查询
+ *
+ * 这是闭环压测（每个线程收到响应后才发下一个请求），服务变慢时发送速率随之下降，
+ * 高分位数会比相同到达速率的开环压测偏低，对比不同提交时应保持并发数和时长一致。
+ */
+public class LoadTestRunner {
+
+    /**
+     * 压测的接口及其默认占比
+     */
+    enum Endpoint {
+        FEED(40), POST_BY_SLUG(25), TOP_LEVEL_COMMENTS(25), COMMENTS_FOR_ME(10), EMOTION(0), SEARCH(0);
+
+        final int weight;
+
+        Endpoint(int weight) {
+            this.weight = weight;
+        }
+
+        static Map<Endpoint, Integer> defaultMix() {
+            Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+            for (Endpoint endpoint : values()) {
+                if (endpoint.weight > 0) {
+                    mix.put(endpoint, endpoint.weight);
+                }
+            }
+            return mix;
+        }
+
+        /**
+         * 解析 "FEED:50,EMOTION:50" 形式的请求占比
+         */
+        static Map<Endpoint, Integer> parseMix(String spec) {
+            Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+            for (String part : spec.split(",")) {
+                String[] pair = part.trim().split(":");
+                int weight = pair.length > 1 ? Integer.parseInt(pair[1].trim()) : 1;
+                if (weight > 0) {
+                    mix.put(Endpoint.valueOf(pair[0].trim().toUpperCase()), weight);
+                }
+            }
+            if (mix.isEmpty()) {
+                throw new IllegalArgumentException("Request mix has no endpoints: " + spec);
+            }
+            return mix;
+        }
+    }
+
+    private static final int PAGE_SIZE = 10;
+
+    // 搜索关键词：单个词和两个词的组合，均出现在 CampusDataset 的标题或正文中
+    private static final String[] SEARCH_KEYWORDS = {
+            "高等数学", "数据结构", "图书馆", "食堂", "考研", "实习", "失物招领", "二手转让", "复习资料", "真题解析",
+            "麻辣烫", "校园卡", "快递", "体育馆", "组队招募", "图书馆 校园卡", "考研 真题", "食堂 排队"
+    };
+
+    private final CampusDataset dataset;
+    private final String baseUrl;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Map<Endpoint, Integer> mix;
+    private final int totalWeight;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // 每个压测线程使用的访问令牌
+    private final AtomicReferenceArray<String> tokens;
+
+    public LoadTestRunner(CampusDataset dataset, String baseUrl, int concurrency, Duration warmup,
+            Duration duration, Map<Endpoint, Integer> mix) {
+        this.dataset = dataset;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.mix = new EnumMap<>(mix);
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        this.tokens = new AtomicReferenceArray<>(concurrency);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * 执行压测并输出报告
+     *
+     * @return 各接口合并后的结果（按请求占比中的顺序，最后一项为 TOTAL）
+     */
+    public Map<String, LatencyRecorder> run() throws Exception {
+        for (int worker = 0; worker < concurrency; worker++) {
+            tokens.set(worker, login(userOf(worker)));
+        }
+        System.out.println("Load test: " + baseUrl + ", concurrency=" + concurrency + ", warmup="
+                + warmup.toSeconds() + " s, duration=" + duration.toSeconds() + " s");
+
+        long startNanos = System.nanoTime();
+        long measureFrom = startNanos + warmup.toNanos();
+        long stopAt = measureFrom + duration.toNanos();
+
+        List<Map<Endpoint, LatencyRecorder>> results = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        CountDownLatch started = new CountDownLatch(1);
+        for (int worker = 0; worker < concurrency; worker++) {
+            Map<Endpoint, LatencyRecorder> recorders = new EnumMap<>(Endpoint.class);
+            for (Endpoint endpoint : Endpoint.values()) {
+                recorders.put(endpoint, new LatencyRecorder());
+            }
+            results.add(recorders);
+            int workerIndex = worker;
+            Thread thread = new Thread(() -> {
+                try {
+                    started.await();
+                    runWorker(workerIndex, recorders, measureFrom, stopAt);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "load-test-" + worker);
+            thread.setDaemon(true);
+            workers.add(thread);
+            thread.start();
+        }
+        started.countDown();
+        for (Thread thread : workers) {
+            thread.join();
+        }
+
+        return report(results);
+    }
+
+    private void runWorker(int worker, Map<Endpoint, LatencyRecorder> recorders, long measureFrom, long stopAt) {
+        SplittableRandom random = new SplittableRandom(dataset.getSeed() + worker);
+        long now;
+        while ((now = System.nanoTime()) < stopAt) {
+            Endpoint endpoint = pickEndpoint(random);
+            boolean success;
+            long start = System.nanoTime();
+            try {
+                int status = send(worker, pathFor(endpoint, worker, random));
+                if (status == 401) {
+                    tokens.set(worker, login(userOf(worker)));
+                    start = System.nanoTime();
+                    status = send(worker, pathFor(endpoint, worker, random));
+                }
+                success = status < 400;
+            } catch (Exception e) {
+                success = false;
+            }
+            long elapsed = System.nanoTime() - start;
+            if (now >= measureFrom) {
+                recorders.get(endpoint).record(elapsed, success);
+            }
+        }
+    }
+
+    private Endpoint pickEndpoint(SplittableRandom random) {
+        int roll = random.nextInt(totalWeight);
+        for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+            if (roll < entry.getValue()) {
+                return entry.getKey();
+            }
+            roll -= entry.getValue();
+        }
+        return Endpoint.FEED;
+    }
+
+    private String pathFor(Endpoint endpoint, int worker, SplittableRandom random) {
+        return switch (endpoint) {
+            // 八成请求看前三页
+            case FEED -> "/api/posts/feed?page=" + (random.nextInt(100) < 80 ? random.nextInt(3) : random.nextInt(50))
+                    + "&size=" + PAGE_SIZE;
+            case POST_BY_SLUG -> "/api/posts/slug/" + dataset.slugOf(pickPublishedPost(random));
+            case TOP_LEVEL_COMMENTS -> "/api/comments/post/" + pickPublishedPost(random) + "/toplevel?page=0&size="
+                    + PAGE_SIZE;
+            case COMMENTS_FOR_ME -> "/api/comments/for-me?page=0&size=" + PAGE_SIZE;
+            case EMOTION -> "/api/emotion/post/" + pickAnyPublishedPost(random);
+            case SEARCH -> "/api/posts/search?keyword="
+                    + URLEncoder.encode(SEARCH_KEYWORDS[random.nextInt(SEARCH_KEYWORDS.length)], StandardCharsets.UTF_8)
+                    + "&page=0&size=" + PAGE_SIZE;
+        };
+    }
+
+    /**
+     * 访问集中在最近的帖子上：帖子ID越大越容易被选中
+     */
+    private long pickPublishedPost(SplittableRandom random) {
+        long postCount = dataset.getPostCount();
+        double u = random.nextDouble();
+        long postId = postCount - (long) (postCount * u * u * u);
+        for (int i = 0; i < 100 && !dataset.isPublished(postId); i++) {
+            postId = postId > 1 ? postId - 1 : postCount;
+        }
+        return postId;
+    }
+
+    /**
+     * 在全部帖子中均匀选取，命中已分析过的帖子的概率很低
+     */
+    private long pickAnyPublishedPost(SplittableRandom random) {
+        long postCount = dataset.getPostCount();
+        long postId = 1 + random.nextLong(postCount);
+        for (int i = 0; i < 100 && !dataset.isPublished(postId); i++) {
+            postId = postId > 1 ? postId - 1 : postCount;
+        }
+        return postId;
+    }
+
+    /**
+     * 压测线程使用的用户：发帖最多的前若干个用户，"给我的评论"有足够的数据
+     */
+    private long userOf(int worker) {
+        return 1 + worker % dataset.getUserCount();
+    }
+
+    private int send(int worker, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + tokens.get(worker))
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private String login(long userId) throws Exception {
+        String body = objectMapper.writeValueAsString(
+                Map.of("usernameOrEmail", dataset.usernameOf(userId), "password", CampusDataset.PASSWORD));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + dataset.usernameOf(userId) + ": HTTP "
+                    + response.statusCode() + " " + response.body());
+        }
+        JsonNode token = objectMapper.readTree(response.body()).get("accessToken");
+        if (token == null) {
+            throw new IllegalStateException("Login response has no access token: " + response.body());
+        }
+        return token.asText();
+    }
+
+    private Map<String, LatencyRecorder> report(List<Map<Endpoint, LatencyRecorder>> results) {
+        double seconds = duration.toNanos() / 1_000_000_000.0;
+        Map<String, LatencyRecorder> merged = new LinkedHashMap<>();
+        LatencyRecorder total = new LatencyRecorder();
+        System.out.printf("%-20s %10s %8s %10s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Endpoint endpoint : mix.keySet()) {
+            LatencyRecorder endpointResult = new LatencyRecorder();
+            for (Map<Endpoint, LatencyRecorder> recorders : results) {
+                endpointResult.mergeFrom(recorders.get(endpoint));
+            }
+            total.mergeFrom(endpointResult);
+            printRow(endpoint.name(), endpointResult, seconds);
+            merged.put(endpoint.name(), endpointResult);
+        }
+        printRow("TOTAL", total, seconds);
+        merged.put("TOTAL", total);
+        return merged;
+    }
+
+    private static void printRow(String name, LatencyRecorder recorder, double seconds) {
+        System.out.printf("%-20s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, recorder.count(),
+                recorder.errors(), recorder.count() / seconds, recorder.percentileMillis(50),
+                recorder.percentileMillis(90), recorder.percentileMillis(99), recorder.percentileMillis(99.9),
+                recorder.percentileMillis(100));
+    }
+}
@@ -0,0 +1,85 @@
+package com.fy.schoolwall.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 压测用的情绪分析服务替身：按固定延迟返回结果，模拟模型推理耗时
+ *
+ * 提供与真实服务相同的 /analyze_sentiment 和 /analyze_sentiment_batch 接口。
+ * 每个请求一个虚拟线程，替身本身不会成为瓶颈，应用侧的差异完全来自其线程模型。
+ */
+class SentimentStub implements AutoCloseable {
+
+    private static final Map<String, Object> RESULT = Map.of(
+            "success", true,
+            "sentiment", "positive",
+            "confidence", 0.87,
+            "probabilities", Map.of("positive", 0.87, "neutral", 0.1, "negative", 0.03));
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final long latencyMillis;
+
+    SentimentStub(long latencyMillis) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/analyze_sentiment", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            respond(exchange, RESULT);
+        });
+        server.createContext("/analyze_sentiment_batch", this::analyzeBatch);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void analyzeBatch(HttpExchange exchange) throws IOException {
+        JsonNode texts = objectMapper.readTree(exchange.getRequestBody().readAllBytes()).get("texts");
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (int i = 0; texts != null && i < texts.size(); i++) {
+            results.add(RESULT);
+        }
+        respond(exchange, Map.of("success", true, "results", results));
+    }
+
+    private void respond(HttpExchange exchange, Object payload) throws IOException {
+        try {
+            Thread.sleep(latencyMillis);
+            byte[] body = objectMapper.writeValueAsString(payload).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.sendResponseHeaders(503, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
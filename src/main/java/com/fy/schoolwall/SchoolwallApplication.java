@@ -4,10 +4,14 @@ import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @MapperScan("com.fy.schoolwall.*.repository") // 扫描所有模块的 Mapper 接口
 @Configuration // 确保配置类被 Spring 扫描
+@EnableScheduling // 启用定时任务（如浏览量批量写回）
+@EnableAsync // @Async 方法使用 Spring Boot 的 applicationTaskExecutor，开启虚拟线程时每个任务一个虚拟线程
 public class SchoolwallApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,52 @@
+package com.fy.schoolwall.admin.controller;
+
+import com.fy.schoolwall.common.metrics.PinnedThreadSite;
+import com.fy.schoolwall.common.metrics.StatementAudit;
+import com.fy.schoolwall.common.metrics.StatementFinding;
+import com.fy.schoolwall.common.metrics.VirtualThreadPinningMonitor;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/diagnostics")
+public class AdminDiagnosticsController {
+
+    private final StatementAudit statementAudit;
+    private final VirtualThreadPinningMonitor pinningMonitor;
+
+    public AdminDiagnosticsController(StatementAudit statementAudit, VirtualThreadPinningMonitor pinningMonitor) {
+        this.statementAudit = statementAudit;
+        this.pinningMonitor = pinningMonitor;
+    }
+
+    /**
+     * 查看语句审计最近发现的 N+1 查询和慢语句（最新的在前；审计关闭时为空）
+     * GET /api/admin/diagnostics/statement-findings
+     */
+    @GetMapping("/statement-findings")
+    public ResponseEntity<List<StatementFinding>> getStatementFindings() {
+        return ResponseEntity.ok(statementAudit.getRecentFindings());
+    }
+
+    /**
+     * 清空已保存的语句审计发现，便于修复后重新观察
+     * DELETE /api/admin/diagnostics/statement-findings
+     */
+    @DeleteMapping("/statement-findings")
+    public ResponseEntity<Void> clearStatementFindings() {
+        statementAudit.clearFindings();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * 查看虚拟线程钉住载体线程的位置（按次数从多到少；未开启虚拟线程时为空）
+     * GET /api/admin/diagnostics/pinned-threads
+     */
+    @GetMapping("/pinned-threads")
+    public ResponseEntity<List<PinnedThreadSite>> getPinnedThreads() {
+        return ResponseEntity.ok(pinningMonitor.getPinnedSites());
+    }
+}
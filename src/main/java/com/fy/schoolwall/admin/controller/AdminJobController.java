@@ -0,0 +1,27 @@
+package com.fy.schoolwall.admin.controller;
+
+import com.fy.schoolwall.admin.dto.BulkJobDto;
+import com.fy.schoolwall.admin.service.AdminBulkJobService;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/jobs")
+public class AdminJobController {
+
+    private final AdminBulkJobService adminBulkJobService;
+
+    public AdminJobController(AdminBulkJobService adminBulkJobService) {
+        this.adminBulkJobService = adminBulkJobService;
+    }
+
+    /**
+     * 查询后台批量任务的进度和结果
+     * GET /api/admin/jobs/{jobId}
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<BulkJobDto> getJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(adminBulkJobService.getJob(jobId));
+    }
+}
@@ -2,6 +2,8 @@ package com.fy.schoolwall.admin.controller;
 
 import com.fy.schoolwall.admin.dto.AdminPostActionRequest;
 import com.fy.schoolwall.admin.dto.BatchPostStatusRequest;
+import com.fy.schoolwall.admin.dto.BulkJobDto;
+import com.fy.schoolwall.admin.dto.BulkOperationResult;
 import com.fy.schoolwall.admin.service.AdminPostService;
 import com.fy.schoolwall.common.util.PaginationUtil;
 import com.fy.schoolwall.post.dto.PostDto;
@@ -200,19 +202,20 @@ public class AdminPostController {
     /**
      * 批量更新帖子状态
      * PUT /api/admin/posts/batch/status
+     * 返回每个帖子的处理结果；数量超过阈值时作为后台任务执行，返回 202 和任务状态，
+     * 通过 GET /api/admin/jobs/{jobId} 轮询进度
      */
     @PutMapping("/batch/status")
-    public ResponseEntity<Map<String, String>> batchUpdatePostStatus(
+    public ResponseEntity<?> batchUpdatePostStatus(
             @Valid @RequestBody BatchPostStatusRequest request) {
 
-        adminPostService.batchUpdatePostStatus(request.getPostIds(), request.getStatus());
+        if (adminPostService.shouldRunInBackground(request.getPostIds().size())) {
+            BulkJobDto job = adminPostService.submitBatchUpdatePostStatus(request.getPostIds(), request.getStatus());
+            return ResponseEntity.accepted().body(job);
+        }
 
-        Map<String, String> response = new HashMap<>();
-        response.put("message", "Batch status update (" + request.getStatus() + ") for " + request.getPostIds().size()
-                + " posts completed");
-        response.put("status", request.getStatus());
-        response.put("count", String.valueOf(request.getPostIds().size()));
-        return ResponseEntity.ok(response);
+        BulkOperationResult result = adminPostService.batchUpdatePostStatus(request.getPostIds(), request.getStatus());
+        return ResponseEntity.ok(result);
     }
 
     /**
@@ -1,7 +1,10 @@
 package com.fy.schoolwall.admin.controller;
 
 import com.fy.schoolwall.admin.dto.AdminUserDto;
+import com.fy.schoolwall.admin.dto.AdminUserFilter;
 import com.fy.schoolwall.admin.dto.BatchUserStatusRequest;
+import com.fy.schoolwall.admin.dto.BulkJobDto;
+import com.fy.schoolwall.admin.dto.BulkOperationResult;
 import com.fy.schoolwall.admin.service.AdminUserService;
 import com.fy.schoolwall.common.enums.UserRole;
 import com.fy.schoolwall.common.util.PaginationUtil;
@@ -11,7 +14,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
-import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -26,40 +28,52 @@ public class AdminUserController {
     }
 
     /**
-     * 获取所有用户列表（分页）
-     * GET /api/admin/users?page=0&size=10&sort=createdAt&direction=DESC
+     * 获取用户列表（分页，可按角色、状态、用户名前缀筛选）
+     * GET /api/admin/users?page=0&size=10&sort=createdAt&direction=DESC&role=USER&enabled=true&username=zh
      */
     @GetMapping
-    public ResponseEntity<?> getAllUsers(
+    public ResponseEntity<PaginationUtil.PageResponse<AdminUserDto>> getAllUsers(
             @RequestParam(defaultValue = "0") Integer page,
             @RequestParam(defaultValue = "10") Integer size,
             @RequestParam(required = false) String sort,
             @RequestParam(defaultValue = "ASC") String direction,
             @RequestParam(required = false) Boolean enabled,
-            @RequestParam(required = false) String role) {
+            @RequestParam(required = false) Boolean locked,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String username) {
 
-        // 如果没有分页参数，返回所有用户（保持向后兼容）
-        if (page == 0 && size == 10 && sort == null && enabled == null && role == null) {
-            List<AdminUserDto> users = adminUserService.getAllUsers();
-            return ResponseEntity.ok(users);
-        }
+        PaginationUtil.PageRequest pageRequest = PaginationUtil.validatePageRequest(page, size, sort, direction);
+        AdminUserFilter filter = buildFilter(enabled, locked, role, username);
+        return ResponseEntity.ok(adminUserService.getUsers(filter, pageRequest));
+    }
 
-        // 根据不同条件查询
-        if (enabled != null) {
-            List<AdminUserDto> users = adminUserService.getUsersByStatus(enabled);
-            return ResponseEntity.ok(users);
-        }
+    /**
+     * 获取用户列表（游标分页，按注册时间倒序，适合深翻页）
+     * GET /api/admin/users/cursor?cursor=xxx&size=10&role=USER
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<PaginationUtil.CursorPageResponse<AdminUserDto>> getUsersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(required = false) Boolean locked,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String username) {
 
-        if (role != null) {
-            UserRole userRole = UserRole.fromCode(role.toUpperCase());
-            List<AdminUserDto> users = adminUserService.getUsersByRole(userRole);
-            return ResponseEntity.ok(users);
-        }
+        int validSize = PaginationUtil.validateCursorPageSize(size);
+        AdminUserFilter filter = buildFilter(enabled, locked, role, username);
+        return ResponseEntity.ok(adminUserService.getUsersByCursor(filter, cursor, validSize));
+    }
 
-        // 分页查询
-        PaginationUtil.PageRequest pageRequest = PaginationUtil.validatePageRequest(page, size, sort, direction);
-        PaginationUtil.PageResponse<AdminUserDto> pagedUsers = adminUserService.getAllUsers(pageRequest);
-        return ResponseEntity.ok(pagedUsers);
+    private AdminUserFilter buildFilter(Boolean enabled, Boolean locked, String role, String username) {
+        AdminUserFilter filter = new AdminUserFilter();
+        filter.setEnabled(enabled);
+        filter.setLocked(locked);
+        if (role != null && !role.trim().isEmpty()) {
+            filter.setRole(UserRole.fromCode(role.trim().toUpperCase()).getCode());
+        }
+        filter.setUsernamePrefix(username);
+        return filter;
     }
 
     /**
@@ -104,18 +118,20 @@ public class AdminUserController {
     /**
      * 批量切换用户状态
      * PUT /api/admin/users/batch/status
+     * 返回每个用户的处理结果；数量超过阈值时作为后台任务执行，返回 202 和任务状态，
+     * 通过 GET /api/admin/jobs/{jobId} 轮询进度
      */
     @PutMapping("/batch/status")
-    public ResponseEntity<Map<String, String>> batchToggleUserStatus(
+    public ResponseEntity<?> batchToggleUserStatus(
             @Valid @RequestBody BatchUserStatusRequest request) {
-        adminUserService.batchToggleUserStatus(request.getUserIds(), request.getEnabled());
 
-        Map<String, String> response = new HashMap<>();
-        String action = request.getEnabled() ? "enabled" : "disabled";
-        response.put("message",
-                "Batch status update (" + action + ") for " + request.getUserIds().size() + " users completed");
-        response.put("status", action);
-        response.put("count", String.valueOf(request.getUserIds().size()));
-        return ResponseEntity.ok(response);
+        if (adminUserService.shouldRunInBackground(request.getUserIds().size())) {
+            BulkJobDto job = adminUserService.submitBatchToggleUserStatus(request.getUserIds(), request.getEnabled());
+            return ResponseEntity.accepted().body(job);
+        }
+
+        BulkOperationResult result = adminUserService.batchToggleUserStatus(request.getUserIds(),
+                request.getEnabled());
+        return ResponseEntity.ok(result);
     }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.fy.schoolwall.admin.dto;
+
+import com.fy.schoolwall.user.model.User;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 管理员用户列表的游标
+ *
+ * 对应排序键 (created_at, id) 降序，对客户端是不透明的 Base64 字符串。
+ */
+@Getter
+public class AdminUserCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createdAt;
+    private final long id;
+
+    public AdminUserCursor(LocalDateTime createdAt, long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    /**
+     * 以某一页的最后一个用户生成下一页游标
+     */
+    public static AdminUserCursor after(User user) {
+        return new AdminUserCursor(user.getCreatedAt(), user.getId());
+    }
+
+    /**
+     * 编码为不透明的游标字符串
+     */
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标字符串
+     *
+     * @param cursor 游标，为空时返回 null 表示第一页
+     */
+    public static AdminUserCursor decode(String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid user cursor: " + cursor);
+            }
+            return new AdminUserCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid user cursor: " + cursor, e);
+        }
+    }
+}
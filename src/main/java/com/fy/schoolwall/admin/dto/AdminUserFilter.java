@@ -0,0 +1,28 @@
+package com.fy.schoolwall.admin.dto;
+
+import lombok.Data;
+
+/**
+ * 管理员用户列表的筛选条件，字段为 null 表示不按该条件筛选
+ */
+@Data
+public class AdminUserFilter {
+    private String role; // 角色代码：USER, ADMIN
+    private Boolean enabled; // 是否启用
+    private Boolean locked; // 是否锁定
+    private String usernamePrefix; // 用户名前缀
+
+    /**
+     * 用户名前缀对应的 LIKE 模式（转义 %、_ 和 \），可以使用用户名索引做范围扫描
+     */
+    public String getUsernameLikePattern() {
+        if (usernamePrefix == null || usernamePrefix.trim().isEmpty()) {
+            return null;
+        }
+        String escaped = usernamePrefix.trim()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return escaped + "%";
+    }
+}
@@ -0,0 +1,21 @@
+package com.fy.schoolwall.admin.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 后台批量任务的状态
+ */
+@Data
+public class BulkJobDto {
+    private String jobId;
+    private String type; // 任务类型，如 POST_STATUS、USER_STATUS
+    private String state; // RUNNING, COMPLETED, FAILED
+    private int total; // 待处理的ID数
+    private int processed; // 已处理的ID数
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private String error; // 任务失败时的错误信息
+    private BulkOperationResult result; // 任务完成后的处理结果
+}
@@ -0,0 +1,53 @@
+package com.fy.schoolwall.admin.dto;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 批量操作结果：每个ID的处理结果及各结果的数量
+ */
+@Data
+public class BulkOperationResult {
+
+    public enum Outcome {
+        UPDATED, // 已更新
+        UNCHANGED, // 已经是目标状态，未修改
+        NOT_FOUND, // 不存在
+        SKIPPED, // 按规则跳过（如管理员自己的账户）
+        FAILED // 所在批次执行失败，未修改
+    }
+
+    private int requested;
+    private int updated;
+    private int unchanged;
+    private int notFound;
+    private int skipped;
+    private int failed;
+    private Map<Long, Outcome> outcomes = new LinkedHashMap<>();
+
+    /**
+     * 记录一个ID的处理结果
+     */
+    public void record(Long id, Outcome outcome) {
+        outcomes.put(id, outcome);
+        switch (outcome) {
+            case UPDATED:
+                updated++;
+                break;
+            case UNCHANGED:
+                unchanged++;
+                break;
+            case NOT_FOUND:
+                notFound++;
+                break;
+            case SKIPPED:
+                skipped++;
+                break;
+            default:
+                failed++;
+                break;
+        }
+    }
+}
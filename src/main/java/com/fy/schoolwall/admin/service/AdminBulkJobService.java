@@ -0,0 +1,195 @@
+package com.fy.schoolwall.admin.service;
+
+import com.fy.schoolwall.admin.dto.BulkJobDto;
+import com.fy.schoolwall.admin.dto.BulkOperationResult;
+import com.fy.schoolwall.common.enums.UserRole;
+import com.fy.schoolwall.common.exception.ResourceNotFoundException;
+import com.fy.schoolwall.user.model.User;
+import com.fy.schoolwall.user.service.UserService;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 管理员批量操作执行器
+ *
+ * 意义：
+ * 1. 把批量操作的ID按固定大小分块，每块在独立事务中用集合 SQL（WHERE id IN ...）处理，
+ *    往返次数与分块数成正比，不再与ID数成正比；单块失败只影响该块
+ * 2. 汇总每个ID的处理结果（{@link BulkOperationResult}）返回给调用方
+ * 3. ID数超过阈值时作为后台任务执行，调用方凭任务ID轮询进度和结果；已结束的任务保留一段时间后清理
+ */
+@Service
+public class AdminBulkJobService {
+
+    /**
+     * 处理一个分块（在事务中调用），返回该块中每个ID的结果
+     */
+    @FunctionalInterface
+    public interface ChunkHandler {
+        Map<Long, BulkOperationResult.Outcome> handle(List<Long> chunk);
+    }
+
+    private final TransactionTemplate transactionTemplate;
+    private final UserService userService;
+    private final int chunkSize;
+    private final int asyncThreshold;
+    private final long jobRetentionMillis;
+
+    private final ConcurrentHashMap<String, Job> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "admin-bulk-job");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AdminBulkJobService(PlatformTransactionManager transactionManager, UserService userService,
+            @Value("${schoolwall.admin.bulk.chunk-size:500}") int chunkSize,
+            @Value("${schoolwall.admin.bulk.async-threshold:1000}") int asyncThreshold,
+            @Value("${schoolwall.admin.bulk.job-retention-ms:3600000}") long jobRetentionMillis) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userService = userService;
+        this.chunkSize = chunkSize;
+        this.asyncThreshold = asyncThreshold;
+        this.jobRetentionMillis = jobRetentionMillis;
+    }
+
+    /**
+     * 是否应作为后台任务执行
+     */
+    public boolean shouldRunInBackground(int idCount) {
+        return idCount > asyncThreshold;
+    }
+
+    /**
+     * 在当前线程中分块执行
+     */
+    public BulkOperationResult run(List<Long> ids, ChunkHandler handler) {
+        return run(distinct(ids), handler, null);
+    }
+
+    /**
+     * 提交后台任务，立即返回任务状态
+     */
+    public BulkJobDto submit(String type, List<Long> ids, ChunkHandler handler) {
+        List<Long> distinctIds = distinct(ids);
+        Job job = new Job(UUID.randomUUID().toString(), type, distinctIds.size());
+        jobs.put(job.id, job);
+        executor.execute(() -> {
+            try {
+                job.result = run(distinctIds, handler, job);
+                job.state = "COMPLETED";
+            } catch (Exception e) {
+                job.error = e.getMessage();
+                job.state = "FAILED";
+                System.err.println("Bulk job " + job.id + " (" + type + ") failed: " + e.getMessage());
+            } finally {
+                job.finishedAt = LocalDateTime.now();
+            }
+        });
+        return job.toDto();
+    }
+
+    /**
+     * 查询后台任务状态
+     */
+    public BulkJobDto getJob(String jobId) {
+        User currentUser = userService.getCurrentAuthenticatedUser();
+        userService.validateUserRole(currentUser, UserRole.ADMIN);
+
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw ResourceNotFoundException.of("Bulk job", jobId);
+        }
+        return job.toDto();
+    }
+
+    /**
+     * 清理超过保留时间的已结束任务
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void purgeFinishedJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minus(Duration.ofMillis(jobRetentionMillis));
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(threshold));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private BulkOperationResult run(List<Long> ids, ChunkHandler handler, Job job) {
+        BulkOperationResult result = new BulkOperationResult();
+        result.setRequested(ids.size());
+
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            try {
+                Map<Long, BulkOperationResult.Outcome> outcomes = transactionTemplate.execute(status -> handler.handle(chunk));
+                for (Long id : chunk) {
+                    result.record(id, outcomes.getOrDefault(id, BulkOperationResult.Outcome.FAILED));
+                }
+            } catch (Exception e) {
+                // 该块的事务已回滚，整块记为失败，继续处理后续分块
+                System.err.println("Bulk chunk of " + chunk.size() + " ids failed: " + e.getMessage());
+                chunk.forEach(id -> result.record(id, BulkOperationResult.Outcome.FAILED));
+            }
+            if (job != null) {
+                job.processed = from + chunk.size();
+            }
+        }
+        return result;
+    }
+
+    private static List<Long> distinct(List<Long> ids) {
+        return new ArrayList<>(new LinkedHashSet<>(ids));
+    }
+
+    private static class Job {
+        private final String id;
+        private final String type;
+        private final int total;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private volatile int processed;
+        private volatile String state = "RUNNING";
+        private volatile String error;
+        private volatile BulkOperationResult result;
+        private volatile LocalDateTime finishedAt;
+
+        Job(String id, String type, int total) {
+            this.id = id;
+            this.type = type;
+            this.total = total;
+        }
+
+        BulkJobDto toDto() {
+            BulkJobDto dto = new BulkJobDto();
+            dto.setJobId(id);
+            dto.setType(type);
+            dto.setState(state);
+            dto.setTotal(total);
+            dto.setProcessed(processed);
+            dto.setCreatedAt(createdAt);
+            dto.setFinishedAt(finishedAt);
+            dto.setError(error);
+            dto.setResult(result);
+            return dto;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.fy.schoolwall.comment.model.Comment;
 import com.fy.schoolwall.comment.repository.CommentMapper;
 import com.fy.schoolwall.common.enums.UserRole;
 import com.fy.schoolwall.common.util.PaginationUtil;
+import com.fy.schoolwall.emotion.repository.EmotionMapper;
 import com.fy.schoolwall.user.model.User;
 import com.fy.schoolwall.user.service.UserService;
 
@@ -18,10 +19,12 @@ import java.util.stream.Collectors;
 public class AdminCommentService {
 
     private final CommentMapper commentMapper;
+    private final EmotionMapper emotionMapper;
     private final UserService userService;
 
-    public AdminCommentService(CommentMapper commentMapper, UserService userService) {
+    public AdminCommentService(CommentMapper commentMapper, EmotionMapper emotionMapper, UserService userService) {
         this.commentMapper = commentMapper;
+        this.emotionMapper = emotionMapper;
         this.userService = userService;
     }
 
@@ -125,6 +128,7 @@ public class AdminCommentService {
 
     /**
      * 管理员物理删除评论
+     * 情绪记录随评论级联删除，删除前先扣减评论者的评论情绪计数
      */
     @Transactional
     public void deleteComment(Long commentId) {
@@ -135,6 +139,7 @@ public class AdminCommentService {
             throw new RuntimeException("Comment not found with ID: " + commentId);
         }
 
+        emotionMapper.decrementUserSentimentCountersForComments(List.of(commentId));
         commentMapper.deleteById(commentId);
 
         User currentUser = userService.getCurrentAuthenticatedUser();
@@ -158,6 +163,7 @@ public class AdminCommentService {
 
     /**
      * 批量物理删除评论
+     * 与单条删除相同，删除前扣减评论者的评论情绪计数
      */
     @Transactional
     public void batchDeleteComments(List<Long> commentIds) {
@@ -165,6 +171,7 @@ public class AdminCommentService {
 
         User currentUser = userService.getCurrentAuthenticatedUser();
 
+        emotionMapper.decrementUserSentimentCountersForComments(commentIds);
         commentMapper.batchDelete(commentIds);
 
         System.out.println(
@@ -1,23 +1,30 @@
 package com.fy.schoolwall.admin.service;
 
 import com.fy.schoolwall.admin.dto.AdminPostActionRequest;
+import com.fy.schoolwall.admin.dto.BulkJobDto;
+import com.fy.schoolwall.admin.dto.BulkOperationResult;
 import com.fy.schoolwall.common.enums.UserRole;
 import com.fy.schoolwall.common.enums.PostCategory;
 import com.fy.schoolwall.common.exception.ResourceNotFoundException;
 import com.fy.schoolwall.common.util.PaginationUtil;
 import com.fy.schoolwall.post.dto.PostDto;
+import com.fy.schoolwall.post.event.PostChangedEvent;
 import com.fy.schoolwall.post.model.Post;
 import com.fy.schoolwall.post.repository.PostMapper;
-import com.fy.schoolwall.comment.model.Comment;
-import com.fy.schoolwall.comment.repository.CommentMapper;
+import com.fy.schoolwall.post.service.PostCounterService;
+import com.fy.schoolwall.post.service.PostPurgeService;
 import com.fy.schoolwall.user.model.User;
 import com.fy.schoolwall.user.service.UserService;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.Set;
 
@@ -25,16 +32,24 @@ import java.util.Set;
 public class AdminPostService {
 
     private final PostMapper postMapper;
-    private final CommentMapper commentMapper;
     private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PostPurgeService postPurgeService;
+    private final AdminBulkJobService bulkJobService;
+    private final PostCounterService postCounterService;
 
     private static final Set<String> ALLOWED_SORT_COLUMNS = Set.of(
             "created_at", "updated_at", "view_count", "comment_count");
 
-    public AdminPostService(PostMapper postMapper, CommentMapper commentMapper, UserService userService) {
+    public AdminPostService(PostMapper postMapper, UserService userService,
+            ApplicationEventPublisher eventPublisher, PostPurgeService postPurgeService,
+            AdminBulkJobService bulkJobService, PostCounterService postCounterService) {
         this.postMapper = postMapper;
-        this.commentMapper = commentMapper;
         this.userService = userService;
+        this.eventPublisher = eventPublisher;
+        this.postPurgeService = postPurgeService;
+        this.bulkJobService = bulkJobService;
+        this.postCounterService = postCounterService;
     }
 
     /**
@@ -193,6 +208,8 @@ public class AdminPostService {
             throw ResourceNotFoundException.of("Post", postId);
         }
 
+        postCounterService.recordUpdate(postId, status, null);
+
         // 如果状态改为发布，设置发布时间
         if ("PUBLISHED".equals(status) && !"PUBLISHED".equals(post.getStatus())) {
             post.setPublishedAt(LocalDateTime.now());
@@ -201,6 +218,7 @@ public class AdminPostService {
         }
 
         postMapper.updateStatus(postId, status);
+        eventPublisher.publishEvent(PostChangedEvent.of(PostChangedEvent.Type.STATUS_CHANGED, postId));
 
         User currentUser = userService.getCurrentAuthenticatedUser();
         System.out.println("Post status updated by admin. Post ID: " + postId +
@@ -220,6 +238,7 @@ public class AdminPostService {
         }
 
         postMapper.setTopStatus(postId, isTop);
+        eventPublisher.publishEvent(PostChangedEvent.of(PostChangedEvent.Type.TOP_CHANGED, postId));
 
         User currentUser = userService.getCurrentAuthenticatedUser();
         String action = isTop ? "set as top" : "removed from top";
@@ -240,6 +259,7 @@ public class AdminPostService {
         }
 
         postMapper.setRecommendedStatus(postId, isRecommended);
+        eventPublisher.publishEvent(PostChangedEvent.of(PostChangedEvent.Type.RECOMMENDED_CHANGED, postId));
 
         User currentUser = userService.getCurrentAuthenticatedUser();
         String action = isRecommended ? "set as recommended" : "removed from recommended";
@@ -259,15 +279,9 @@ public class AdminPostService {
             throw ResourceNotFoundException.of("Post", postId);
         }
 
-        // 先删除相关评论
-        List<Comment> comments = commentMapper.findByPostId(postId, 0, Integer.MAX_VALUE);
-        if (!comments.isEmpty()) {
-            List<Long> commentIds = comments.stream().map(Comment::getId).collect(Collectors.toList());
-            commentMapper.batchSoftDelete(commentIds);
-        }
-
-        // 再删除帖子
-        postMapper.deleteById(postId);
+        // 评论在 SQL 中整体软删除，评论、情绪记录和帖子由后台分块物理删除
+        postPurgeService.markDeleted(postId);
+        eventPublisher.publishEvent(PostChangedEvent.deleted(postId));
 
         User currentUser = userService.getCurrentAuthenticatedUser();
         System.out.println("Post and related comments deleted by admin. Post ID: " + postId +
@@ -276,40 +290,77 @@ public class AdminPostService {
 
     /**
      * 批量更新帖子状态
+     * 按块执行集合 UPDATE，返回每个帖子的处理结果
      */
-    @Transactional
-    public void batchUpdatePostStatus(List<Long> postIds, String status) {
+    public BulkOperationResult batchUpdatePostStatus(List<Long> postIds, String status) {
+        User currentUser = validateBatchStatusRequest(status);
+
+        BulkOperationResult result = bulkJobService.run(postIds, chunk -> updateStatusChunk(chunk, status));
+
+        System.out.println("Batch status update (" + status + ") completed. " + result.getUpdated() +
+                " out of " + result.getRequested() + " posts updated by admin ID: " + currentUser.getId());
+        return result;
+    }
+
+    /**
+     * 以后台任务批量更新帖子状态，返回任务状态供轮询
+     */
+    public BulkJobDto submitBatchUpdatePostStatus(List<Long> postIds, String status) {
+        User currentUser = validateBatchStatusRequest(status);
+
+        BulkJobDto job = bulkJobService.submit("POST_STATUS", postIds, chunk -> updateStatusChunk(chunk, status));
+
+        System.out.println("Batch status update (" + status + ") for " + postIds.size() +
+                " posts submitted as job " + job.getJobId() + " by admin ID: " + currentUser.getId());
+        return job;
+    }
+
+    /**
+     * 批量请求是否应作为后台任务执行
+     */
+    public boolean shouldRunInBackground(int postCount) {
+        return bulkJobService.shouldRunInBackground(postCount);
+    }
+
+    private User validateBatchStatusRequest(String status) {
         validateAdminAccess();
 
         if (!isValidPostStatus(status)) {
             throw new RuntimeException("Invalid post status: " + status);
         }
+        return userService.getCurrentAuthenticatedUser();
+    }
+
+    /**
+     * 处理一个分块：加锁读取当前状态，一条 UPDATE 修改需要变更的帖子
+     */
+    private Map<Long, BulkOperationResult.Outcome> updateStatusChunk(List<Long> chunk, String status) {
+        Map<Long, String> currentStatuses = new HashMap<>();
+        List<Map<String, Object>> rows = postMapper.findStatusesByIdsForUpdate(chunk);
+        for (Map<String, Object> row : rows) {
+            currentStatuses.put(((Number) row.get("id")).longValue(), (String) row.get("status"));
+        }
 
-        User currentUser = userService.getCurrentAuthenticatedUser();
-        int successCount = 0;
-
-        for (Long postId : postIds) {
-            try {
-                Post post = postMapper.findById(postId);
-                if (post != null) {
-                    // 如果状态改为发布，设置发布时间
-                    if ("PUBLISHED".equals(status) && !"PUBLISHED".equals(post.getStatus())) {
-                        post.setPublishedAt(LocalDateTime.now());
-                        post.setUpdatedAt(LocalDateTime.now());
-                        postMapper.update(post);
-                    }
-
-                    postMapper.updateStatus(postId, status);
-                    successCount++;
-                }
-            } catch (Exception e) {
-                System.err.println("Failed to update status for post ID: " + postId + ", Error: " + e.getMessage());
-                // 继续处理其他帖子
+        Map<Long, BulkOperationResult.Outcome> outcomes = new HashMap<>();
+        List<Long> toUpdate = new ArrayList<>();
+        for (Long postId : chunk) {
+            String current = currentStatuses.get(postId);
+            if (current == null) {
+                outcomes.put(postId, BulkOperationResult.Outcome.NOT_FOUND);
+            } else if (status.equals(current)) {
+                outcomes.put(postId, BulkOperationResult.Outcome.UNCHANGED);
+            } else {
+                outcomes.put(postId, BulkOperationResult.Outcome.UPDATED);
+                toUpdate.add(postId);
             }
         }
 
-        System.out.println("Batch status update (" + status + ") completed. " + successCount +
-                " out of " + postIds.size() + " posts updated by admin ID: " + currentUser.getId());
+        if (!toUpdate.isEmpty()) {
+            postCounterService.recordStatusChange(rows, toUpdate, status);
+            postMapper.bulkUpdateStatus(toUpdate, status);
+            eventPublisher.publishEvent(PostChangedEvent.bulkStatusChanged(toUpdate));
+        }
+        return outcomes;
     }
 
     /**
@@ -1,16 +1,25 @@
 package com.fy.schoolwall.admin.service;
 
+import com.fy.schoolwall.admin.dto.AdminUserCursor;
 import com.fy.schoolwall.admin.dto.AdminUserDto;
+import com.fy.schoolwall.admin.dto.AdminUserFilter;
+import com.fy.schoolwall.admin.dto.BulkJobDto;
+import com.fy.schoolwall.admin.dto.BulkOperationResult;
 import com.fy.schoolwall.common.enums.UserRole;
 import com.fy.schoolwall.common.util.PaginationUtil;
+import com.fy.schoolwall.user.event.UserAccountChangedEvent;
 import com.fy.schoolwall.user.model.User;
 import com.fy.schoolwall.user.repository.UserMapper;
 import com.fy.schoolwall.user.service.UserService;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,10 +27,21 @@ public class AdminUserService {
 
     private final UserMapper userMapper;
     private final UserService userService;
+    private final AdminBulkJobService bulkJobService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AdminUserService(UserMapper userMapper, UserService userService) {
+    // 允许的排序参数及对应的列名
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "createdAt", "created_at", "created_at", "created_at",
+            "updatedAt", "updated_at", "updated_at", "updated_at",
+            "username", "username", "id", "id");
+
+    public AdminUserService(UserMapper userMapper, UserService userService, AdminBulkJobService bulkJobService,
+            ApplicationEventPublisher eventPublisher) {
         this.userMapper = userMapper;
         this.userService = userService;
+        this.bulkJobService = bulkJobService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -36,46 +56,69 @@ public class AdminUserService {
      * 获取所有用户列表（分页）
      */
     public PaginationUtil.PageResponse<AdminUserDto> getAllUsers(PaginationUtil.PageRequest pageRequest) {
-        validateAdminAccess();
+        return getUsers(new AdminUserFilter(), pageRequest);
+    }
 
-        // 这里需要在UserMapper中添加分页查询方法
-        List<User> users = userMapper.findAllUsers(); // 临时使用现有方法
+    /**
+     * 按条件获取用户列表（数据库分页）
+     * 只查询当前页的用户，且不读取密码哈希
+     */
+    public PaginationUtil.PageResponse<AdminUserDto> getUsers(AdminUserFilter filter,
+            PaginationUtil.PageRequest pageRequest) {
+        validateAdminAccess();
 
-        // 手动分页（生产环境应该在数据库层面分页）
-        int totalElements = users.size();
-        int startIndex = pageRequest.getOffset();
-        int endIndex = Math.min(startIndex + pageRequest.getSize(), totalElements);
+        String sort = getValidatedSortColumn(pageRequest.getSort());
+        // 未指定排序字段时默认最新注册的用户在前
+        String direction = pageRequest.getSort() == null ? "DESC" : pageRequest.getDirection();
 
-        List<User> pagedUsers = users.subList(startIndex, endIndex);
-        List<AdminUserDto> userDtos = pagedUsers.stream()
+        List<User> users = userMapper.findUsersPage(filter, sort, direction, pageRequest.getOffset(),
+                pageRequest.getLimit());
+        List<AdminUserDto> userDtos = users.stream()
                 .map(this::convertToAdminUserDto)
                 .collect(Collectors.toList());
 
+        long totalElements = userMapper.countUsers(filter);
         return PaginationUtil.createPageResponse(userDtos, pageRequest, totalElements);
     }
 
     /**
-     * 获取所有用户列表（无分页，保持向后兼容）
+     * 按条件获取用户列表（游标分页，按注册时间倒序，不统计总数）
+     *
+     * @param cursor 上一页返回的 nextCursor，为空时返回第一页
+     * @param size   页面大小
      */
-    public List<AdminUserDto> getAllUsers() {
+    public PaginationUtil.CursorPageResponse<AdminUserDto> getUsersByCursor(AdminUserFilter filter, String cursor,
+            int size) {
         validateAdminAccess();
 
-        List<User> users = userMapper.findAllUsers();
-        return users.stream()
+        AdminUserCursor after = AdminUserCursor.decode(cursor);
+
+        // 多取一条用于判断是否还有下一页
+        List<User> users = after == null
+                ? userMapper.findUsersAfter(filter, null, null, size + 1)
+                : userMapper.findUsersAfter(filter, after.getCreatedAt(), after.getId(), size + 1);
+
+        boolean hasNext = users.size() > size;
+        if (hasNext) {
+            users = users.subList(0, size);
+        }
+
+        List<AdminUserDto> userDtos = users.stream()
                 .map(this::convertToAdminUserDto)
                 .collect(Collectors.toList());
+
+        String nextCursor = hasNext ? AdminUserCursor.after(users.get(users.size() - 1)).encode() : null;
+        return PaginationUtil.createCursorPageResponse(userDtos, size, nextCursor);
     }
 
     /**
-     * 根据状态获取用户列表
+     * 根据状态获取用户列表（分页）
      */
-    public List<AdminUserDto> getUsersByStatus(boolean enabled) {
-        validateAdminAccess();
-
-        List<User> users = userMapper.findUsersByStatus(enabled);
-        return users.stream()
-                .map(this::convertToAdminUserDto)
-                .collect(Collectors.toList());
+    public PaginationUtil.PageResponse<AdminUserDto> getUsersByStatus(boolean enabled,
+            PaginationUtil.PageRequest pageRequest) {
+        AdminUserFilter filter = new AdminUserFilter();
+        filter.setEnabled(enabled);
+        return getUsers(filter, pageRequest);
     }
 
     /**
@@ -93,6 +136,7 @@ public class AdminUserService {
 
         try {
             userMapper.softDeleteById1(userId);
+            eventPublisher.publishEvent(UserAccountChangedEvent.of(UserAccountChangedEvent.Type.DELETED, userId));
             System.out.println(
                     "User account soft deleted by admin. User ID: " + userId + ", Admin ID: " + currentUser.getId());
         } catch (Exception e) {
@@ -116,6 +160,7 @@ public class AdminUserService {
 
         try {
             userMapper.updateUserStatus(userId, enabled);
+            eventPublisher.publishEvent(UserAccountChangedEvent.statusChanged(List.of(userId), enabled));
             String action = enabled ? "enabled" : "disabled";
             System.out.println(
                     "User account " + action + " by admin. User ID: " + userId + ", Admin ID: " + currentUser.getId());
@@ -136,42 +181,102 @@ public class AdminUserService {
 
     /**
      * 批量操作用户状态
+     * 按块执行集合 UPDATE，返回每个用户的处理结果；管理员自己的账户会被跳过
      */
-    @Transactional
-    public void batchToggleUserStatus(List<Long> userIds, boolean enabled) {
+    public BulkOperationResult batchToggleUserStatus(List<Long> userIds, boolean enabled) {
         validateAdminAccess();
+        User currentUser = userService.getCurrentAuthenticatedUser();
+        Long adminId = currentUser.getId();
 
+        BulkOperationResult result = bulkJobService.run(userIds,
+                chunk -> updateUserStatusChunk(chunk, enabled, adminId));
+
+        String action = enabled ? "enabled" : "disabled";
+        System.out.println("Batch " + action + " " + result.getUpdated() + " out of " + result.getRequested()
+                + " users by admin ID: " + adminId);
+        return result;
+    }
+
+    /**
+     * 以后台任务批量操作用户状态，返回任务状态供轮询
+     */
+    public BulkJobDto submitBatchToggleUserStatus(List<Long> userIds, boolean enabled) {
+        validateAdminAccess();
         User currentUser = userService.getCurrentAuthenticatedUser();
+        Long adminId = currentUser.getId();
 
-        for (Long userId : userIds) {
-            // 跳过管理员自己
-            if (currentUser.getId().equals(userId)) {
-                continue;
-            }
+        BulkJobDto job = bulkJobService.submit("USER_STATUS", userIds,
+                chunk -> updateUserStatusChunk(chunk, enabled, adminId));
 
-            try {
-                userMapper.updateUserStatus(userId, enabled);
-            } catch (Exception e) {
-                System.err.println("Failed to update status for user ID: " + userId + ", Error: " + e.getMessage());
-                // 继续处理其他用户，不抛出异常
+        String action = enabled ? "enable" : "disable";
+        System.out.println("Batch " + action + " for " + userIds.size() + " users submitted as job "
+                + job.getJobId() + " by admin ID: " + adminId);
+        return job;
+    }
+
+    /**
+     * 批量请求是否应作为后台任务执行
+     */
+    public boolean shouldRunInBackground(int userCount) {
+        return bulkJobService.shouldRunInBackground(userCount);
+    }
+
+    /**
+     * 处理一个分块：加锁读取当前状态，一条 UPDATE 修改需要变更的用户
+     */
+    private Map<Long, BulkOperationResult.Outcome> updateUserStatusChunk(List<Long> chunk, boolean enabled,
+            Long adminId) {
+        Map<Long, Boolean> currentStatuses = new HashMap<>();
+        for (Map<String, Object> row : userMapper.findEnabledStatusesByIdsForUpdate(chunk)) {
+            Object value = row.get("is_enabled");
+            boolean current = value instanceof Boolean ? (Boolean) value : ((Number) value).intValue() != 0;
+            currentStatuses.put(((Number) row.get("id")).longValue(), current);
+        }
+
+        Map<Long, BulkOperationResult.Outcome> outcomes = new HashMap<>();
+        List<Long> toUpdate = new ArrayList<>();
+        for (Long userId : chunk) {
+            Boolean current = currentStatuses.get(userId);
+            if (adminId.equals(userId)) {
+                // 跳过管理员自己
+                outcomes.put(userId, BulkOperationResult.Outcome.SKIPPED);
+            } else if (current == null) {
+                outcomes.put(userId, BulkOperationResult.Outcome.NOT_FOUND);
+            } else if (current == enabled) {
+                outcomes.put(userId, BulkOperationResult.Outcome.UNCHANGED);
+            } else {
+                outcomes.put(userId, BulkOperationResult.Outcome.UPDATED);
+                toUpdate.add(userId);
             }
         }
 
-        String action = enabled ? "enabled" : "disabled";
-        System.out.println("Batch " + action + " " + userIds.size() + " users by admin ID: " + currentUser.getId());
+        if (!toUpdate.isEmpty()) {
+            userMapper.bulkUpdateUserStatus(toUpdate, enabled);
+            // 分块事务提交后失效这些用户的登录缓存
+            eventPublisher.publishEvent(UserAccountChangedEvent.statusChanged(toUpdate, enabled));
+        }
+        return outcomes;
     }
 
     /**
-     * 根据角色获取用户列表
+     * 根据角色获取用户列表（分页）
      */
-    public List<AdminUserDto> getUsersByRole(UserRole role) {
-        validateAdminAccess();
+    public PaginationUtil.PageResponse<AdminUserDto> getUsersByRole(UserRole role,
+            PaginationUtil.PageRequest pageRequest) {
+        AdminUserFilter filter = new AdminUserFilter();
+        filter.setRole(role.getCode());
+        return getUsers(filter, pageRequest);
+    }
 
-        List<User> allUsers = userMapper.findAllUsers();
-        return allUsers.stream()
-                .filter(user -> role.getCode().equals(user.getRole()))
-                .map(this::convertToAdminUserDto)
-                .collect(Collectors.toList());
+    private String getValidatedSortColumn(String sort) {
+        if (sort == null || sort.trim().isEmpty()) {
+            return "created_at"; // 默认排序字段
+        }
+        String column = SORT_COLUMNS.get(sort);
+        if (column == null) {
+            throw new IllegalArgumentException("Invalid sort parameter. Allowed values are: " + SORT_COLUMNS.keySet());
+        }
+        return column;
     }
 
     /**
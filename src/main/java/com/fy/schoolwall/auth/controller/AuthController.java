@@ -1,14 +1,15 @@
 package com.fy.schoolwall.auth.controller;
 
+import com.fy.schoolwall.auth.dto.LoginRequest;
+import com.fy.schoolwall.auth.dto.RefreshTokenRequest;
 import com.fy.schoolwall.auth.dto.RegisterRequest;
+import com.fy.schoolwall.auth.dto.TokenResponse;
 import com.fy.schoolwall.auth.service.AuthService;
 import com.fy.schoolwall.user.dto.UserProfileDto;
 import com.fy.schoolwall.user.model.User; // 引入User实体
+import com.fy.schoolwall.user.service.UserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid; // 确保使用 jakarta.validation
@@ -18,9 +19,11 @@ import jakarta.validation.Valid; // 确保使用 jakarta.validation
 public class AuthController {
 
     private final AuthService authService;
+    private final UserService userService;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, UserService userService) {
         this.authService = authService;
+        this.userService = userService;
     }
 
     @PostMapping("/register")
@@ -33,28 +36,46 @@ public class AuthController {
         }
     }
 
+    /**
+     * 登录，返回访问令牌和刷新令牌
+     * 之后的请求在 Authorization 请求头中携带 "Bearer 访问令牌"
+     */
+    @PostMapping("/login")
+    public ResponseEntity<TokenResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
+        return ResponseEntity.ok(authService.login(loginRequest));
+    }
+
+    /**
+     * 用刷新令牌换取新的令牌对
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.refresh(request.getRefreshToken()));
+    }
+
+    /**
+     * 注销，撤销刷新令牌
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest request) {
+        authService.logout(request.getRefreshToken());
+        return ResponseEntity.ok().build();
+    }
+
     @GetMapping("/whoami")
     public ResponseEntity<UserProfileDto> getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.isAuthenticated()
-                && !(authentication.getPrincipal() instanceof String
-                        && "anonymousUser".equals(authentication.getPrincipal()))) {
-            // principal 是 UserDetails 对象
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            // 在实际项目中，你可能需要从数据库重新获取完整的 User 对象，
-            // 或者 CustomUserDetailsService 返回包含更多信息的 UserDetails 实现
-            User user = authService.getUserByUsername(userDetails.getUsername());
-            if (user != null) {
-                UserProfileDto dto = new UserProfileDto();
-                dto.setId(user.getId());
-                dto.setUsername(user.getUsername());
-                dto.setEmail(user.getEmail());
-                dto.setAvatarUrl(user.getAvatarUrl());
-                dto.setBio(user.getBio());
-                dto.setRole(user.getRole());
-                return ResponseEntity.ok(dto);
-            }
+        if (userService.getCurrentAuthenticatedUser() == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED); // 未认证或匿名用户
         }
-        return new ResponseEntity<>(HttpStatus.UNAUTHORIZED); // 未认证或匿名用户
+        // 令牌中只有身份信息，个人资料从数据库读取
+        User user = userService.loadCurrentUser();
+        UserProfileDto dto = new UserProfileDto();
+        dto.setId(user.getId());
+        dto.setUsername(user.getUsername());
+        dto.setEmail(user.getEmail());
+        dto.setAvatarUrl(user.getAvatarUrl());
+        dto.setBio(user.getBio());
+        dto.setRole(user.getRole());
+        return ResponseEntity.ok(dto);
     }
-}
\ No newline at end of file
+}
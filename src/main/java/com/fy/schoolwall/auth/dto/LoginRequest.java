@@ -1,7 +1,12 @@
 package com.fy.schoolwall.auth.dto;
 
+import jakarta.validation.constraints.NotBlank;
+
 public class LoginRequest {
+    @NotBlank(message = "Username or email is required")
     private String usernameOrEmail;
+
+    @NotBlank(message = "Password is required")
     private String password;
 
     // Getters and Setters
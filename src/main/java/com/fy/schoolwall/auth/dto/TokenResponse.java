@@ -0,0 +1,11 @@
+package com.fy.schoolwall.auth.dto;
+
+import lombok.Data;
+
+@Data
+public class TokenResponse {
+    private String accessToken;
+    private String refreshToken;
+    private String tokenType = "Bearer";
+    private long expiresIn; // 访问令牌有效期（秒）
+}
@@ -0,0 +1,19 @@
+package com.fy.schoolwall.auth.model;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class RefreshToken {
+    private Long id;
+    private Long userId;
+    private String tokenHash; // 令牌的 SHA-256 十六进制摘要，数据库中不保存令牌原文
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime revokedAt; // 已使用（轮换）或已注销时设置
+
+    public boolean isRevoked() {
+        return revokedAt != null;
+    }
+}
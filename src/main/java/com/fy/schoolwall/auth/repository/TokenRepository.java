@@ -0,0 +1,29 @@
+package com.fy.schoolwall.auth.repository;
+
+import com.fy.schoolwall.auth.model.RefreshToken;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 刷新令牌存储
+ */
+@Mapper
+public interface TokenRepository {
+
+    void insert(RefreshToken refreshToken);
+
+    RefreshToken findByTokenHash(@Param("tokenHash") String tokenHash);
+
+    // 只撤销尚未撤销的令牌，返回受影响行数；并发使用同一令牌时只有一个请求返回 1
+    int revoke(@Param("id") Long id);
+
+    int revokeAllForUser(@Param("userId") Long userId);
+
+    int revokeAllForUsers(@Param("userIds") List<Long> userIds);
+
+    // 删除已过期的令牌（撤销但未过期的令牌保留，用于发现令牌被重复使用）
+    int deleteExpired(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,162 @@
+package com.fy.schoolwall.auth.security;
+
+import com.fy.schoolwall.common.exception.TooManyRequestsException;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 在专用线程池中执行的 BCrypt 密码编码器
+ *
+ * 意义：
+ * 1. 密码哈希和校验只在固定数量的专用线程上执行，集中登录时最多占用这些 CPU 核心，其余请求仍能被及时处理
+ * 2. 等待队列有上限，队列已满时立即拒绝（{@link TooManyRequestsException}，HTTP 429），
+ *    不让请求线程在无限增长的队列后面堆积
+ * 3. 哈希成本可配置；以较低成本存储的旧哈希在 {@link #upgradeEncoding(String)} 中返回 true，
+ *    登录成功后由 Spring Security 用当前成本重新哈希并保存（见 CustomUserDetailsService#updatePassword）
+ * 4. 记录哈希次数、执行耗时、排队耗时和拒绝次数，供监控读取
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final int cost;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong hashCount = new AtomicLong();
+    private final AtomicLong hashNanos = new AtomicLong();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final AtomicLong queueWaitNanos = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * @param cost          BCrypt 成本因子（4-31）
+     * @param threads       哈希线程数
+     * @param queueCapacity 等待队列容量
+     */
+    public BoundedPasswordEncoder(int cost, int threads, int queueCapacity) {
+        this(new BCryptPasswordEncoder(cost), cost, threads, queueCapacity);
+    }
+
+    BoundedPasswordEncoder(PasswordEncoder delegate, int cost, int threads, int queueCapacity) {
+        if (threads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Password hash threads and queue capacity must be positive");
+        }
+        this.delegate = delegate;
+        this.cost = cost;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 存储的哈希成本低于当前成本时需要升级（只比较哈希前缀，不占用哈希线程）
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T execute(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitNanos.addAndGet(startedAt - submittedAt);
+                try {
+                    return task.call();
+                } finally {
+                    long elapsed = System.nanoTime() - startedAt;
+                    hashCount.incrementAndGet();
+                    hashNanos.addAndGet(elapsed);
+                    maxHashNanos.accumulateAndGet(elapsed, Math::max);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCount.incrementAndGet();
+            throw new TooManyRequestsException("Password hashing queue is full", 1);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Password hashing failed", e.getCause());
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * 正在等待哈希线程的任务数
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getHashCount() {
+        return hashCount.get();
+    }
+
+    /**
+     * 累计哈希执行耗时（纳秒），除以 {@link #getHashCount()} 即平均耗时
+     */
+    public long getTotalHashNanos() {
+        return hashNanos.get();
+    }
+
+    public long getMaxHashNanos() {
+        return maxHashNanos.get();
+    }
+
+    /**
+     * 累计排队耗时（纳秒）
+     */
+    public long getTotalQueueWaitNanos() {
+        return queueWaitNanos.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+}
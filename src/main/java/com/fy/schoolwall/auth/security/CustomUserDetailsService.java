@@ -1,39 +1,110 @@
 package com.fy.schoolwall.auth.security;
 
+import com.fy.schoolwall.user.event.UserAccountChangedEvent;
 import com.fy.schoolwall.user.model.User;
 import com.fy.schoolwall.user.repository.UserMapper;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.util.Collections; // For simple role representation
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
 
+/**
+ * 登录用户加载
+ *
+ * 意义：
+ * 1. 按登录名缓存 {@link UserPrincipal}（有上限、写入后几秒过期），同一用户在短时间内重复登录、
+ *    连续输错密码或在多个设备上同时登录时不再每次查询 users 表
+ * 2. 同一登录名的并发加载合并为一次查询，其余请求等待同一个结果
+ * 3. 用户修改资料、修改密码、注销，或管理员禁用、删除账户的事务提交后立即失效本实例中该用户的缓存项
+ *    （见 {@link UserAccountChangedEvent}）
+ *
+ * 缓存在每个应用实例内独立，失效事件只在处理该请求的实例上生效：其他实例在过期前仍会接受旧密码、
+ * 已禁用或已删除的账户，过期时间就是这段窗口的上限，因此只设几秒，不应为提高命中率而调大。
+ * 不存在的登录名不缓存，注册后可以立即登录。
+ * 登录成功且存储的密码哈希成本低于当前配置时，Spring Security 调用 {@link #updatePassword} 保存重新计算的哈希。
+ */
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserMapper userMapper;
+    // 键为登录时输入的用户名或邮箱，同一用户可能对应多个键
+    private final Cache<String, UserPrincipal> cache;
 
-    public CustomUserDetailsService(UserMapper userMapper) {
+    public CustomUserDetailsService(UserMapper userMapper,
+            @Value("${schoolwall.auth.user-details-cache.max-size:10000}") long maxSize,
+            @Value("${schoolwall.auth.user-details-cache.ttl-seconds:5}") long ttlSeconds) {
         this.userMapper = userMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
     }
 
+    /**
+     * 按用户名加载用户；登录时也可以使用邮箱
+     */
     @Override
-    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userMapper.findByUsername(username);
-        if (user == null) {
-            throw new UsernameNotFoundException("User not found with username: " + username);
+    public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
+        // 加载函数返回 null 时不写入缓存
+        UserPrincipal principal = cache.get(usernameOrEmail, this::load);
+        if (principal == null) {
+            throw new UsernameNotFoundException("User not found with username: " + usernameOrEmail);
         }
-        // 构建 Spring Security 的 UserDetails 对象
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPasswordHash(),
-                user.getIsEnabled(), // enabled
-                !user.getIsLocked(), // accountNonLocked
-                true, // credentialsNonExpired
-                true, // accountNonExpired
-                Collections.singleton(new SimpleGrantedAuthority("ROLE_" + user.getRole().toUpperCase())) // 添加角色
-        );
+        return principal;
+    }
+
+    private UserPrincipal load(String usernameOrEmail) {
+        User user = userMapper.findByUsername(usernameOrEmail);
+        if (user == null && usernameOrEmail.contains("@")) {
+            user = userMapper.findByEmail(usernameOrEmail);
+        }
+        // 构建包含用户ID和角色的 UserDetails 对象
+        return user != null ? UserPrincipal.fromUser(user) : null;
+    }
+
+    /**
+     * 保存升级后的密码哈希
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserPrincipal principal = (UserPrincipal) user;
+        userMapper.updatePassword(principal.getId(), newPassword);
+        // 缓存中仍是旧哈希，不失效的话每次登录都会再次升级
+        evict(Set.of(principal.getId()));
+        System.out.println("Password hash upgraded for user ID: " + principal.getId());
+        return principal.withPasswordHash(newPassword);
+    }
+
+    /**
+     * 账户变更事务提交后失效相关用户的所有缓存项
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        evict(new HashSet<>(event.getUserIds()));
+    }
+
+    private void evict(Set<Long> userIds) {
+        cache.asMap().values().removeIf(principal -> userIds.contains(principal.getId()));
+    }
+
+    /**
+     * 缓存命中率等统计信息
+     */
+    public CacheStats getStats() {
+        return cache.stats();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,152 @@
+package com.fy.schoolwall.auth.security;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 访问令牌的签发与校验（JWT，HS256）
+ *
+ * 意义：
+ * 1. 令牌中携带用户ID、用户名和角色，并用服务端密钥签名；任何实例都可以独立校验，不需要会话存储和粘性会话
+ * 2. 校验只做一次 HMAC 计算和 JSON 解析，已认证的请求不再查询会话和 users 表
+ * 3. 访问令牌有效期短（默认15分钟），到期后用刷新令牌换取新令牌，账户被禁用或角色变化最多延迟一个有效期生效
+ *
+ * 只接受本类签发的固定头部（alg=HS256），不接受 alg=none 等其他算法。
+ */
+@Component
+public class JwtTokenProvider {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String HEADER = ENCODER.encodeToString(
+            "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+    // HS256 密钥至少 256 位
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private final ObjectMapper objectMapper;
+    private final SecretKeySpec key;
+    private final long accessTokenTtlSeconds;
+    private final Clock clock;
+
+    @Autowired
+    public JwtTokenProvider(ObjectMapper objectMapper,
+            @Value("${schoolwall.auth.token.secret:}") String secret,
+            @Value("${schoolwall.auth.token.access-ttl-seconds:900}") long accessTokenTtlSeconds) {
+        this(objectMapper, secret, accessTokenTtlSeconds, Clock.systemUTC());
+    }
+
+    JwtTokenProvider(ObjectMapper objectMapper, String secret, long accessTokenTtlSeconds, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.key = new SecretKeySpec(secretBytes(secret), ALGORITHM);
+        this.accessTokenTtlSeconds = accessTokenTtlSeconds;
+        this.clock = clock;
+    }
+
+    /**
+     * 签发访问令牌
+     */
+    public String createAccessToken(UserPrincipal principal) {
+        long now = clock.instant().getEpochSecond();
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", String.valueOf(principal.getId()));
+        claims.put("name", principal.getUsername());
+        claims.put("role", principal.getRole());
+        claims.put("iat", now);
+        claims.put("exp", now + accessTokenTtlSeconds);
+
+        try {
+            String payload = ENCODER.encodeToString(objectMapper.writeValueAsBytes(claims));
+            String signingInput = HEADER + "." + payload;
+            return signingInput + "." + ENCODER.encodeToString(sign(signingInput));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to create access token", e);
+        }
+    }
+
+    /**
+     * 校验访问令牌并还原用户主体
+     *
+     * @return 用户主体；令牌格式错误、签名不匹配或已过期时返回 null
+     */
+    public UserPrincipal parseAccessToken(String token) {
+        if (token == null) {
+            return null;
+        }
+        int firstDot = token.indexOf('.');
+        int secondDot = token.indexOf('.', firstDot + 1);
+        if (firstDot < 0 || secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0
+                || !HEADER.equals(token.substring(0, firstDot))) {
+            return null;
+        }
+
+        try {
+            byte[] expected = sign(token.substring(0, secondDot));
+            byte[] actual = DECODER.decode(token.substring(secondDot + 1));
+            if (!MessageDigest.isEqual(expected, actual)) {
+                return null;
+            }
+
+            Map<String, Object> claims = objectMapper.readValue(
+                    DECODER.decode(token.substring(firstDot + 1, secondDot)),
+                    new TypeReference<Map<String, Object>>() {
+                    });
+            Object exp = claims.get("exp");
+            if (!(exp instanceof Number) || ((Number) exp).longValue() <= clock.instant().getEpochSecond()) {
+                return null;
+            }
+            Object subject = claims.get("sub");
+            Object username = claims.get("name");
+            Object role = claims.get("role");
+            if (!(subject instanceof String) || !(username instanceof String) || !(role instanceof String)) {
+                return null;
+            }
+            return UserPrincipal.fromToken(Long.valueOf((String) subject), (String) username, (String) role);
+        } catch (Exception e) {
+            // Base64/JSON 格式错误或 sub 不是数字
+            return null;
+        }
+    }
+
+    public long getAccessTokenTtlSeconds() {
+        return accessTokenTtlSeconds;
+    }
+
+    private byte[] sign(String signingInput) throws GeneralSecurityException {
+        // Mac 实例不是线程安全的，每次签名单独创建
+        Mac mac = Mac.getInstance(ALGORITHM);
+        mac.init(key);
+        return mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] secretBytes(String secret) {
+        if (secret == null || secret.isBlank()) {
+            byte[] generated = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(generated);
+            System.err.println("schoolwall.auth.token.secret is not configured; using a random key. "
+                    + "Issued tokens become invalid on restart and are not accepted by other instances.");
+            return generated;
+        }
+        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < MIN_SECRET_BYTES) {
+            throw new IllegalArgumentException(
+                    "schoolwall.auth.token.secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        return bytes;
+    }
+}
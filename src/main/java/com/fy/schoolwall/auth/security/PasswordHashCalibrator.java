@@ -0,0 +1,73 @@
+package com.fy.schoolwall.auth.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt 成本校准
+ * <p>
+ * 在当前主机上从最低成本开始逐级测量一次哈希的耗时（成本每加 1 耗时约翻倍），
+ * 返回耗时不超过目标值的最高成本。成本不会低于 {@link #MIN_COST}（原先默认编码器的成本），
+ * 已有的哈希不会因为校准而降级。
+ * <p>
+ * 也可以单独运行查看各成本的耗时：
+ * java -cp target/classes:... com.fy.schoolwall.auth.security.PasswordHashCalibrator 250
+ */
+public final class PasswordHashCalibrator {
+
+    static final int MIN_COST = 10;
+    static final int MAX_COST = 16;
+
+    private static final String SAMPLE_PASSWORD = "calibration-Passw0rd!";
+    // 每个成本测量的次数，取最小值以排除 GC 和调度抖动
+    private static final int SAMPLES = 3;
+
+    private PasswordHashCalibrator() {
+    }
+
+    /**
+     * 计算耗时不超过目标值的最高成本
+     *
+     * @param targetMillis 单次哈希的目标耗时（毫秒）
+     */
+    public static int calibrate(long targetMillis) {
+        int chosen = MIN_COST;
+        for (int cost = MIN_COST; cost <= MAX_COST; cost++) {
+            long millis = measureMillis(cost);
+            if (cost > MIN_COST && millis > targetMillis) {
+                break;
+            }
+            chosen = cost;
+            // 下一级耗时约为本级的两倍，预计超出目标时不再测量
+            if (millis * 2 > targetMillis) {
+                break;
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * 测量指定成本下一次哈希的耗时（毫秒）
+     */
+    static long measureMillis(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1_000_000;
+    }
+
+    public static void main(String[] args) {
+        long targetMillis = args.length > 0 ? Long.parseLong(args[0]) : 250;
+        for (int cost = MIN_COST; cost <= MAX_COST; cost++) {
+            long millis = measureMillis(cost);
+            System.out.println("cost " + cost + ": " + millis + " ms");
+            if (millis > targetMillis * 4) {
+                break;
+            }
+        }
+        System.out.println("Recommended cost for " + targetMillis + " ms: " + calibrate(targetMillis));
+    }
+}
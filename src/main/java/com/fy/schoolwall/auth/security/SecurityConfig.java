@@ -1,93 +1,113 @@
 package com.fy.schoolwall.auth.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus; // 导入 HttpStatus
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.web.authentication.logout.HttpStatusReturningLogoutSuccessHandler; // 导入 HttpStatusReturningLogoutSuccessHandler
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity // 启用方法级别的安全注解，如 @PreAuthorize
 public class SecurityConfig {
 
-    // 在 Spring Security 6.x 中，AuthenticationManager 会自动配置
-    // 只要你的应用上下文中存在 UserDetailsService 和 PasswordEncoder 的 Bean
-    // 因此，不再需要在这里注入 CustomUserDetailsService 并手动构建 AuthenticationManager Bean
+    private final JwtTokenProvider tokenProvider;
 
+    public SecurityConfig(JwtTokenProvider tokenProvider) {
+        this.tokenProvider = tokenProvider;
+    }
+
+    /**
+     * 无状态认证：不创建 HttpSession，每个请求由 {@link JwtAuthenticationFilter} 根据访问令牌认证。
+     * 登录、刷新和注销由 AuthController 的 /api/auth/login、/api/auth/refresh、/api/auth/logout 处理。
+     */
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
-                .csrf(AbstractHttpConfigurer::disable) // 禁用 CSRF
+                .csrf(AbstractHttpConfigurer::disable) // 禁用 CSRF（不使用 Cookie 认证）
                 .cors(cors -> {
                 }) // 启用 CORS，使用默认配置
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .formLogin(AbstractHttpConfigurer::disable)
+                .httpBasic(AbstractHttpConfigurer::disable)
+                .logout(AbstractHttpConfigurer::disable)
+                .requestCache(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(authorize -> authorize
-                        // 允许对 /api/auth/**, /api/login, /api/logout 等公共端点的匿名访问
+                        // 允许对 /api/auth/** 等公共端点的匿名访问
                         .requestMatchers(
-                                "/api/auth/**", "/api/login", "/api/logout",
+                                "/api/auth/**",
                                 // 允许公开访问 Swagger UI 和 API 文档
                                 "/swagger-ui.html",
                                 "/swagger-ui/**",
                                 "/api-docs",
                                 "/api-docs/**",
-                                "/v3/api-docs/**")
+                                "/v3/api-docs/**",
+                                // 健康检查和 Prometheus 抓取（不携带令牌），部署时只对内网开放 /actuator
+                                "/actuator/health",
+                                "/actuator/health/**",
+                                "/actuator/prometheus")
                         .permitAll()
+                        // 其他监控端点（指标明细、环境信息等）只有 ADMIN 角色可以访问
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         // 只有 ADMIN 角色可以访问 /api/admin/** 路径下的资源
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         // 其他所有请求都需要认证
                         .anyRequest().authenticated())
-                .formLogin(formLogin -> formLogin // 启用基于表单的登录认证
-                        .loginProcessingUrl("/api/login") // 指定处理登录表单提交的 URL
-                        .usernameParameter("username") // 登录请求中用户名参数的名称
-                        .passwordParameter("password") // 登录请求中密码参数的名称
-                        // 登录成功时的处理，返回 200 OK 和 JSON 消 Messages
-                        .successHandler((request, response, authentication) -> {
-                            response.setStatus(HttpStatus.OK.value());
-                            response.getWriter().write("{\"message\": \"Login successful\"}");
-                            response.getWriter().flush();
-                        })
-                        // 登录失败时的处理，返回 401 Unauthorized 和 JSON 消息
-                        .failureHandler((request, response, exception) -> {
+                .exceptionHandling(exceptions -> exceptions
+                        // 未携带有效访问令牌时返回 401 和 JSON 消息
+                        .authenticationEntryPoint((request, response, exception) -> {
                             response.setStatus(HttpStatus.UNAUTHORIZED.value());
-                            response.getWriter().write("{\"message\": \"Invalid username or password\"}");
+                            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                            response.getWriter().write("{\"message\": \"Authentication required\"}");
                             response.getWriter().flush();
                         }))
-                .logout(logout -> logout // 启用注销功能
-                        .logoutUrl("/api/logout") // 指定注销的 URL
-                        .invalidateHttpSession(true) // 注销时使当前 HttpSession 失效
-                        .deleteCookies("JSESSIONID") // 注销时删除名为 JSESSIONID 的 Cookie
-                        // 注销成功时的处理，返回 200 OK
-                        .logoutSuccessHandler(new HttpStatusReturningLogoutSuccessHandler(HttpStatus.OK)));
-        // 默认的 SessionCreationPolicy 就是 IF_REQUIRED，
-        // 意味着 Spring Security 在需要时会创建会话。
-        // 通常不需要显式配置，除非有特殊需求。
-        // .sessionManagement(session -> session
-        // .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED)
-        // );
+                .addFilterBefore(new JwtAuthenticationFilter(tokenProvider),
+                        UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
 
+    /**
+     * 登录时使用的 AuthenticationManager（由 CustomUserDetailsService 和 PasswordEncoder 自动配置）
+     */
+    @Bean
+    public AuthenticationManager authenticationManager(AuthenticationConfiguration configuration) throws Exception {
+        return configuration.getAuthenticationManager();
+    }
+
     /**
      * 定义密码编码器 Bean。
      * Spring Security 会自动检测此 Bean 并用于密码验证。
+     * 哈希在专用线程池中执行；成本为 0 时启动时按目标耗时在本机校准。
      * 
-     * @return BCryptPasswordEncoder 实例
+     * @return BoundedPasswordEncoder 实例
      */
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${schoolwall.auth.password-hash.cost:0}") int cost,
+            @Value("${schoolwall.auth.password-hash.target-ms:100}") long targetMillis,
+            @Value("${schoolwall.auth.password-hash.threads:0}") int threads,
+            @Value("${schoolwall.auth.password-hash.queue-capacity:64}") int queueCapacity) {
+        if (cost <= 0) {
+            long start = System.currentTimeMillis();
+            cost = PasswordHashCalibrator.calibrate(targetMillis);
+            System.out.println("Password hash cost calibrated to " + cost + " for target " + targetMillis
+                    + " ms in " + (System.currentTimeMillis() - start) + " ms");
+        }
+        if (threads <= 0) {
+            // 默认最多占用一半的 CPU 核心
+            threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        return new BoundedPasswordEncoder(cost, threads, queueCapacity);
     }
-
-    // 在 Spring Security 6.x 中，AuthenticationManager 的配置更加自动化。
-    // 只要 CustomUserDetailsService 和 PasswordEncoder 作为 Bean 存在于 Spring 容器中，
-    // Spring Security 就会自动将它们注册到内部的 AuthenticationManagerBuilder 中，
-    // 从而形成一个可用的 AuthenticationManager。
-    // 因此，无需显式定义此 Bean 方法。
-}
\ No newline at end of file
+}
@@ -0,0 +1,108 @@
+package com.fy.schoolwall.auth.security;
+
+import com.fy.schoolwall.user.model.User;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 认证用户主体
+ *
+ * 意义：
+ * 1. 同时携带用户ID、用户名和角色，业务代码判断"是否本人"、"是否管理员"时不需要再查询 users 表
+ * 2. 登录时由 {@link CustomUserDetailsService} 从数据库构建（包含密码哈希和账户状态）；
+ *    之后的请求由 {@link JwtAuthenticationFilter} 从访问令牌中还原（不含密码哈希）
+ */
+public class UserPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final String passwordHash;
+    private final String role;
+    private final boolean enabled;
+    private final boolean locked;
+    private final List<GrantedAuthority> authorities;
+
+    private UserPrincipal(Long id, String username, String passwordHash, String role, boolean enabled,
+            boolean locked) {
+        this.id = id;
+        this.username = username;
+        this.passwordHash = passwordHash;
+        this.role = role;
+        this.enabled = enabled;
+        this.locked = locked;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()));
+    }
+
+    /**
+     * 从数据库中的用户构建（用于登录认证和刷新令牌）
+     */
+    public static UserPrincipal fromUser(User user) {
+        return new UserPrincipal(user.getId(), user.getUsername(), user.getPasswordHash(), user.getRole(),
+                Boolean.TRUE.equals(user.getIsEnabled()), Boolean.TRUE.equals(user.getIsLocked()));
+    }
+
+    /**
+     * 从已验证的访问令牌还原；签发令牌时账户是启用且未锁定的
+     */
+    public static UserPrincipal fromToken(Long id, String username, String role) {
+        return new UserPrincipal(id, username, null, role, true, false);
+    }
+
+    /**
+     * 返回密码哈希替换后的副本（登录时哈希升级后使用）
+     */
+    public UserPrincipal withPasswordHash(String newPasswordHash) {
+        return new UserPrincipal(id, username, newPasswordHash, role, enabled, locked);
+    }
+
+    /**
+     * 转换为只包含身份信息（ID、用户名、角色、账户状态）的用户对象
+     */
+    public User toUser() {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setRole(role);
+        user.setIsEnabled(enabled);
+        user.setIsLocked(locked);
+        return user;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return passwordHash;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return !locked;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
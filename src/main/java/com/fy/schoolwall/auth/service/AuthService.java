@@ -1,23 +1,60 @@
 package com.fy.schoolwall.auth.service;
 
+import com.fy.schoolwall.auth.dto.LoginRequest;
 import com.fy.schoolwall.auth.dto.RegisterRequest;
+import com.fy.schoolwall.auth.dto.TokenResponse;
+import com.fy.schoolwall.auth.model.RefreshToken;
+import com.fy.schoolwall.auth.repository.TokenRepository;
+import com.fy.schoolwall.auth.security.JwtTokenProvider;
+import com.fy.schoolwall.auth.security.UserPrincipal;
+import com.fy.schoolwall.user.event.UserAccountChangedEvent;
 import com.fy.schoolwall.user.model.User;
 import com.fy.schoolwall.user.repository.UserMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
 
 @Service
 public class AuthService {
 
+    private static final SecureRandom RANDOM = new SecureRandom();
+
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final AuthenticationManager authenticationManager;
+    private final JwtTokenProvider tokenProvider;
+    private final TokenRepository tokenRepository;
+    private final long refreshTokenTtlDays;
 
-    public AuthService(UserMapper userMapper, PasswordEncoder passwordEncoder) {
+    public AuthService(UserMapper userMapper, PasswordEncoder passwordEncoder,
+            AuthenticationManager authenticationManager, JwtTokenProvider tokenProvider,
+            TokenRepository tokenRepository,
+            @Value("${schoolwall.auth.token.refresh-ttl-days:30}") long refreshTokenTtlDays) {
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
+        this.authenticationManager = authenticationManager;
+        this.tokenProvider = tokenProvider;
+        this.tokenRepository = tokenRepository;
+        this.refreshTokenTtlDays = refreshTokenTtlDays;
     }
 
     @Transactional
@@ -45,4 +82,120 @@ public class AuthService {
     public User getUserByUsername(String username) {
         return userMapper.findByUsername(username);
     }
-}
\ No newline at end of file
+
+    /**
+     * 用户名（或邮箱）密码登录，签发访问令牌和刷新令牌
+     */
+    @Transactional
+    public TokenResponse login(LoginRequest loginRequest) {
+        Authentication authentication = authenticationManager.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(loginRequest.getUsernameOrEmail(),
+                        loginRequest.getPassword()));
+        return issueTokens((UserPrincipal) authentication.getPrincipal());
+    }
+
+    /**
+     * 用刷新令牌换取新的访问令牌和刷新令牌（旧刷新令牌随即失效）
+     * <p>
+     * 已撤销的刷新令牌再次出现说明令牌可能被盗用，撤销该用户的全部刷新令牌，要求重新登录。
+     * 认证异常不回滚事务，撤销操作在拒绝请求的同时生效。
+     */
+    @Transactional(noRollbackFor = AuthenticationException.class)
+    public TokenResponse refresh(String refreshToken) {
+        RefreshToken stored = tokenRepository.findByTokenHash(hash(refreshToken));
+        if (stored == null) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        if (stored.isRevoked() || tokenRepository.revoke(stored.getId()) == 0) {
+            tokenRepository.revokeAllForUser(stored.getUserId());
+            System.err.println("Reused refresh token detected, all refresh tokens revoked for user ID: "
+                    + stored.getUserId());
+            throw new BadCredentialsException("Refresh token has been revoked");
+        }
+        if (stored.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new BadCredentialsException("Refresh token has expired");
+        }
+
+        User user = userMapper.findById(stored.getUserId());
+        if (user == null) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        UserPrincipal principal = UserPrincipal.fromUser(user);
+        if (!principal.isEnabled()) {
+            throw new DisabledException("User account is disabled");
+        }
+        if (!principal.isAccountNonLocked()) {
+            throw new LockedException("User account is locked");
+        }
+        return issueTokens(principal);
+    }
+
+    /**
+     * 注销：撤销刷新令牌。访问令牌无状态，在其剩余有效期内仍然有效
+     */
+    @Transactional
+    public void logout(String refreshToken) {
+        RefreshToken stored = tokenRepository.findByTokenHash(hash(refreshToken));
+        if (stored != null) {
+            tokenRepository.revoke(stored.getId());
+        }
+    }
+
+    /**
+     * 修改密码、禁用或删除账户时撤销该用户的全部刷新令牌，已泄露的刷新令牌不能继续换取访问令牌
+     * <p>
+     * 在账户变更的事务提交前执行，撤销失败时账户变更一并回滚；已签发的访问令牌在剩余有效期内仍然有效。
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        switch (event.getType()) {
+            case PASSWORD_CHANGED, DISABLED, DELETED -> {
+                int revoked = tokenRepository.revokeAllForUsers(event.getUserIds());
+                if (revoked > 0) {
+                    System.out.println("Refresh tokens revoked after " + event.getType() + ": " + revoked);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * 每天清理已过期的刷新令牌
+     */
+    @Scheduled(fixedDelay = 24 * 60 * 60 * 1000L, initialDelay = 10 * 60 * 1000L)
+    public void purgeExpiredRefreshTokens() {
+        int deleted = tokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            System.out.println("Expired refresh tokens purged: " + deleted);
+        }
+    }
+
+    private TokenResponse issueTokens(UserPrincipal principal) {
+        byte[] random = new byte[32];
+        RANDOM.nextBytes(random);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+
+        RefreshToken stored = new RefreshToken();
+        stored.setUserId(principal.getId());
+        stored.setTokenHash(hash(refreshToken));
+        stored.setCreatedAt(LocalDateTime.now());
+        stored.setExpiresAt(stored.getCreatedAt().plusDays(refreshTokenTtlDays));
+        tokenRepository.insert(stored);
+
+        TokenResponse response = new TokenResponse();
+        response.setAccessToken(tokenProvider.createAccessToken(principal));
+        response.setRefreshToken(refreshToken);
+        response.setExpiresIn(tokenProvider.getAccessTokenTtlSeconds());
+        return response;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.fy.schoolwall.comment.event;
+
+/**
+ * 评论创建事件
+ *
+ * 评论插入后发布，供情绪分析等派生数据在事务提交后异步处理。
+ */
+public class CommentCreatedEvent {
+
+    private final Long commentId;
+    private final Long postId;
+    private final Long userId;
+    private final String content;
+
+    public CommentCreatedEvent(Long commentId, Long postId, Long userId, String content) {
+        this.commentId = commentId;
+        this.postId = postId;
+        this.userId = userId;
+        this.content = content;
+    }
+
+    public Long getCommentId() {
+        return commentId;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getContent() {
+        return content;
+    }
+}
@@ -5,6 +5,7 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
 import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface CommentMapper {
@@ -45,6 +46,13 @@ public interface CommentMapper {
     // 根据父评论ID统计回复数
     long countRepliesByParentCommentId(Long parentCommentId);
 
+    // 批量获取多个父评论各自的前 limit 条回复（一次查询）
+    List<Comment> findRecentRepliesByParentCommentIds(@Param("parentCommentIds") List<Long> parentCommentIds,
+            @Param("limit") int limit);
+
+    // 批量统计多个父评论的回复数，每行包含 parent_comment_id 和 reply_count
+    List<Map<String, Object>> countRepliesByParentCommentIds(@Param("parentCommentIds") List<Long> parentCommentIds);
+
     // 获取帖子的顶级评论
     List<Comment> findTopLevelCommentsByPostId(@Param("postId") Long postId,
             @Param("offset") int offset,
@@ -83,4 +91,23 @@ public interface CommentMapper {
 
     // 批量物理删除
     void batchDelete(@Param("commentIds") List<Long> commentIds);
-}
\ No newline at end of file
+
+    // 按帖子软删除全部评论（单条 UPDATE）
+    int softDeleteByPostId(@Param("postId") Long postId);
+
+    // 按帖子分块清空回复关系，返回本块更新的行数
+    int detachRepliesByPostId(@Param("postId") Long postId, @Param("limit") int limit);
+
+    // 按帖子分块获取评论ID
+    List<Long> findIdsByPostId(@Param("postId") Long postId, @Param("limit") int limit);
+
+    // 父评论内容修改后同步回复上的摘要
+    void updateParentExcerpt(@Param("parentCommentId") Long parentCommentId, @Param("content") String content);
+
+    // 分块同步评论者快照，返回本块更新的行数
+    int syncAuthorSnapshot(@Param("userId") Long userId, @Param("username") String username,
+            @Param("avatarUrl") String avatarUrl, @Param("limit") int limit);
+
+    // 分块同步帖子标题快照，返回本块更新的行数
+    int syncPostTitle(@Param("postId") Long postId, @Param("title") String title, @Param("limit") int limit);
+}
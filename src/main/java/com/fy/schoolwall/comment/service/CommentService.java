@@ -3,6 +3,7 @@ package com.fy.schoolwall.comment.service;
 import com.fy.schoolwall.comment.dto.CommentDto;
 import com.fy.schoolwall.comment.dto.CommentRequest;
 import com.fy.schoolwall.comment.dto.CommentUpdateRequest;
+import com.fy.schoolwall.comment.event.CommentCreatedEvent;
 import com.fy.schoolwall.comment.model.Comment;
 import com.fy.schoolwall.comment.repository.CommentMapper;
 import com.fy.schoolwall.common.exception.ResourceNotFoundException;
@@ -12,24 +13,34 @@ import com.fy.schoolwall.post.repository.PostMapper;
 import com.fy.schoolwall.user.model.User;
 import com.fy.schoolwall.user.service.UserService;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class CommentService {
 
+    // 帖子评论列表中每条顶级评论附带的回复预览条数
+    private static final int REPLY_PREVIEW_SIZE = 3;
+
     private final CommentMapper commentMapper;
     private final PostMapper postMapper;
     private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CommentService(CommentMapper commentMapper, PostMapper postMapper, UserService userService) {
+    public CommentService(CommentMapper commentMapper, PostMapper postMapper, UserService userService,
+            ApplicationEventPublisher eventPublisher) {
         this.commentMapper = commentMapper;
         this.postMapper = postMapper;
         this.userService = userService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -75,6 +86,7 @@ public class CommentService {
         comment.setContent(request.getContent());
         comment.setUserId(currentUser.getId());
         comment.setPostId(postId); // 使用最终确定的 postId
+        comment.setPostTitle(post.getTitle()); // 帖子标题快照
         comment.setParentCommentId(parentCommentId);
         comment.setCreatedAt(LocalDateTime.now());
         comment.setUpdatedAt(LocalDateTime.now());
@@ -85,6 +97,9 @@ public class CommentService {
         // 更新帖子评论计数
         postMapper.updateCommentCount(postId, true);
 
+        eventPublisher.publishEvent(new CommentCreatedEvent(comment.getId(), postId, currentUser.getId(),
+                comment.getContent()));
+
         return convertToCommentDto(commentMapper.findById(comment.getId()));
     }
 
@@ -113,6 +128,8 @@ public class CommentService {
         comment.setContent(request.getContent());
         comment.setUpdatedAt(LocalDateTime.now());
         commentMapper.update(comment);
+        // 同步回复上的父评论摘要
+        commentMapper.updateParentExcerpt(commentId, comment.getContent());
 
         return convertToCommentDto(commentMapper.findById(commentId));
     }
@@ -174,18 +191,12 @@ public class CommentService {
                 pageRequest.getLimit());
 
         List<CommentDto> commentDtos = topLevelComments.stream()
-                .map(comment -> {
-                    CommentDto dto = convertToCommentDto(comment);
-
-                    // 获取前几条回复
-                    List<Comment> replies = commentMapper.findRepliesByParentCommentId(comment.getId(), 0, 3);
-                    dto.setReplies(replies.stream().map(this::convertToCommentDto).collect(Collectors.toList()));
-                    dto.setReplyCount(commentMapper.countRepliesByParentCommentId(comment.getId()));
-
-                    return dto;
-                })
+                .map(this::convertToCommentDto)
                 .collect(Collectors.toList());
 
+        // 一次性加载整页顶级评论的回复预览和回复数，避免逐条查询
+        attachReplyPreviews(commentDtos);
+
         long totalElements = commentMapper.countTopLevelCommentsByPostId(postId);
         return PaginationUtil.createPageResponse(commentDtos, pageRequest, totalElements);
     }
@@ -301,10 +312,41 @@ public class CommentService {
         return PaginationUtil.createPageResponse(commentDtos, pageRequest, totalElements);
     }
 
+    /**
+     * 为一页顶级评论批量填充回复预览（前 REPLY_PREVIEW_SIZE 条）和回复总数。
+     * 无论页面大小如何，都只执行两条查询，然后在内存中组装。
+     */
+    private void attachReplyPreviews(List<CommentDto> parents) {
+        if (parents.isEmpty()) {
+            return;
+        }
+
+        List<Long> parentIds = parents.stream()
+                .map(CommentDto::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, List<CommentDto>> repliesByParent = new HashMap<>();
+        for (Comment reply : commentMapper.findRecentRepliesByParentCommentIds(parentIds, REPLY_PREVIEW_SIZE)) {
+            repliesByParent.computeIfAbsent(reply.getParentCommentId(), id -> new ArrayList<>())
+                    .add(convertToCommentDto(reply));
+        }
+
+        Map<Long, Long> replyCounts = new HashMap<>();
+        for (Map<String, Object> row : commentMapper.countRepliesByParentCommentIds(parentIds)) {
+            replyCounts.put(((Number) row.get("parent_comment_id")).longValue(),
+                    ((Number) row.get("reply_count")).longValue());
+        }
+
+        for (CommentDto parent : parents) {
+            parent.setReplies(repliesByParent.getOrDefault(parent.getId(), new ArrayList<>()));
+            parent.setReplyCount(replyCounts.getOrDefault(parent.getId(), 0L));
+        }
+    }
+
     /**
      * 转换为CommentDto
      */
-    private CommentDto convertToCommentDto(Comment comment) {
+    CommentDto convertToCommentDto(Comment comment) {
         CommentDto dto = new CommentDto();
         dto.setId(comment.getId());
         dto.setContent(comment.getDisplayContent());
@@ -0,0 +1,144 @@
+package com.fy.schoolwall.comment.service;
+
+import com.fy.schoolwall.comment.repository.CommentMapper;
+import com.fy.schoolwall.post.event.PostChangedEvent;
+import com.fy.schoolwall.post.model.Post;
+import com.fy.schoolwall.post.repository.PostMapper;
+import com.fy.schoolwall.user.event.UserAccountChangedEvent;
+import com.fy.schoolwall.user.model.User;
+import com.fy.schoolwall.user.repository.UserMapper;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 评论快照同步
+ *
+ * 意义：
+ * 1. 评论行上保存了评论者用户名/头像和帖子标题的快照，评论列表只查询 comments 一张表；
+ *    用户修改资料、帖子编辑的事务提交后，由后台线程把新值写回该用户/该帖子的全部评论
+ * 2. 同步按块执行（每块一条带 LIMIT 的 UPDATE，只修改快照与当前值不同的行），
+ *    评论很多的用户修改头像时不会长时间锁住大量评论，也不会拖慢修改资料的请求
+ * 3. 同步时重新读取用户和帖子的当前值，连续修改时以最后一次为准
+ *
+ * 父评论摘要在编辑评论的事务中同步（见 CommentService#updateComment）。
+ */
+@Component
+public class CommentSnapshotSync {
+
+    private final CommentMapper commentMapper;
+    private final UserMapper userMapper;
+    private final PostMapper postMapper;
+    private final int chunkSize;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "comment-snapshot-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong syncedRows = new AtomicLong();
+    private final AtomicLong failedSyncs = new AtomicLong();
+
+    public CommentSnapshotSync(CommentMapper commentMapper, UserMapper userMapper, PostMapper postMapper,
+            @Value("${schoolwall.comment-snapshot.chunk-size:1000}") int chunkSize) {
+        this.commentMapper = commentMapper;
+        this.userMapper = userMapper;
+        this.postMapper = postMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 用户资料修改提交后同步评论者快照
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        if (event.getType() != UserAccountChangedEvent.Type.PROFILE_UPDATED) {
+            return;
+        }
+        for (Long userId : event.getUserIds()) {
+            executor.execute(() -> syncAuthor(userId));
+        }
+    }
+
+    /**
+     * 帖子编辑提交后同步帖子标题快照（标题未变化时 UPDATE 不会修改任何行）
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.getType() != PostChangedEvent.Type.UPDATED || event.getPost() == null) {
+            return;
+        }
+        Long postId = event.getPost().getId();
+        executor.execute(() -> syncPostTitle(postId));
+    }
+
+    void syncAuthor(Long userId) {
+        try {
+            User user = userMapper.findById(userId);
+            if (user == null) {
+                return;
+            }
+            long updated = 0;
+            int chunk;
+            do {
+                chunk = commentMapper.syncAuthorSnapshot(userId, user.getUsername(), user.getAvatarUrl(),
+                        chunkSize);
+                updated += chunk;
+            } while (chunk >= chunkSize);
+            record(updated, "user ID: " + userId);
+        } catch (Exception e) {
+            failedSyncs.incrementAndGet();
+            System.err.println("Failed to sync comment author snapshot for user ID: " + userId + ": "
+                    + e.getMessage());
+        }
+    }
+
+    void syncPostTitle(Long postId) {
+        try {
+            Post post = postMapper.findById(postId);
+            if (post == null) {
+                return;
+            }
+            long updated = 0;
+            int chunk;
+            do {
+                chunk = commentMapper.syncPostTitle(postId, post.getTitle(), chunkSize);
+                updated += chunk;
+            } while (chunk >= chunkSize);
+            record(updated, "post ID: " + postId);
+        } catch (Exception e) {
+            failedSyncs.incrementAndGet();
+            System.err.println("Failed to sync comment post title snapshot for post ID: " + postId + ": "
+                    + e.getMessage());
+        }
+    }
+
+    private void record(long updated, String target) {
+        if (updated > 0) {
+            syncedRows.addAndGet(updated);
+            System.out.println("Comment snapshots synced for " + target + ", rows: " + updated);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public long getSyncedRowCount() {
+        return syncedRows.get();
+    }
+
+    public long getFailedSyncCount() {
+        return failedSyncs.get();
+    }
+}
@@ -0,0 +1,25 @@
+package com.fy.schoolwall.common.config;
+
+import com.fy.schoolwall.common.util.PinyinTable;
+import com.fy.schoolwall.common.util.SlugGenerator;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Slug生成配置类
+ *
+ * 意义：
+ * 1. 应用启动时构建拼音查找表和去变音表，第一次创建帖子时不再付出建表开销
+ */
+@Configuration
+public class SlugConfig {
+
+    @PostConstruct
+    public void warmUp() {
+        PinyinTable.load();
+        // 触发 SlugGenerator 的类初始化
+        SlugGenerator.generateSlug("schoolwall");
+    }
+}
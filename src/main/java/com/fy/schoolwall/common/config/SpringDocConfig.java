@@ -16,7 +16,7 @@ public class SpringDocConfig {
         @Bean
         public OpenAPI customOpenAPI() {
                 // 定义全局API信息。
-                // 同时，定义一个名为 "cookieAuth" 的安全方案来代表基于Session的认证。
+                // 同时，定义一个名为 "bearerAuth" 的安全方案来代表基于访问令牌（JWT）的无状态认证。
                 // springdoc会与Spring Security集成，自动为受保护的端点显示锁形图标。
                 return new OpenAPI()
                                 .info(new Info()
@@ -26,13 +26,12 @@ public class SpringDocConfig {
                                                 .contact(new Contact().name("API Support")
                                                                 .email("support@example.com")))
                                 .components(new Components()
-                                                .addSecuritySchemes("cookieAuth", new SecurityScheme()
-                                                                .type(SecurityScheme.Type.APIKEY)
-                                                                .in(SecurityScheme.In.COOKIE)
-                                                                .name("JSESSIONID"))) // Spring Security 默认的 session
-                                                                                      // cookie 名称
+                                                .addSecuritySchemes("bearerAuth", new SecurityScheme()
+                                                                .type(SecurityScheme.Type.HTTP)
+                                                                .scheme("bearer")
+                                                                .bearerFormat("JWT"))) // 由 /api/auth/login 签发
                                 // 添加一个全局的安全需求，这会提示UI大多数接口都需要认证
-                                .addSecurityItem(new SecurityRequirement().addList("cookieAuth"));
+                                .addSecurityItem(new SecurityRequirement().addList("bearerAuth"));
         }
 
         // @Bean
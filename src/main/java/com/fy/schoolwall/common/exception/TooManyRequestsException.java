@@ -0,0 +1,26 @@
+package com.fy.schoolwall.common.exception;
+
+/**
+ * 请求过多异常
+ * 
+ * 意义：
+ * 1. 表示服务端为保护自身而拒绝了请求（例如密码哈希队列已满），客户端稍后重试即可
+ * 2. 便于全局异常处理器返回 429 状态码和 Retry-After 响应头
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * @param message           错误消息
+     * @param retryAfterSeconds 建议客户端等待的秒数
+     */
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,187 @@
+package com.fy.schoolwall.common.metrics;
+
+import com.fy.schoolwall.auth.security.BoundedPasswordEncoder;
+import com.fy.schoolwall.auth.security.CustomUserDetailsService;
+import com.fy.schoolwall.comment.service.CommentSnapshotSync;
+import com.fy.schoolwall.emotion.client.SentimentClient;
+import com.fy.schoolwall.emotion.service.EmotionPrecomputePipeline;
+import com.fy.schoolwall.post.search.PostSearchIndex;
+import com.fy.schoolwall.post.service.PostCounterService;
+import com.fy.schoolwall.post.service.PostListCache;
+import com.fy.schoolwall.post.service.PostPurgeService;
+import com.fy.schoolwall.post.service.SlugAllocator;
+import com.fy.schoolwall.post.service.ViewCountBuffer;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 业务组件指标
+ *
+ * 意义：
+ * 1. 把各组件已有的统计（缓冲区积压、缓存命中、后台任务计数、密码哈希排队等）注册为 Micrometer 指标，
+ *    与 HTTP、MyBatis 语句、连接池指标一起通过 /actuator/prometheus 抓取
+ * 2. 指标在抓取时读取组件的 getter，不在业务代码路径上增加任何开销
+ * 3. 所有指标名集中在这里，便于对照配置仪表盘和告警
+ *
+ * 缓存指标沿用 Micrometer 缓存指标的命名（cache.gets、cache.evictions，按 cache 标签区分）。
+ */
+@Component
+public class ApplicationMetrics implements MeterBinder {
+
+    private static final String[] CIRCUIT_STATES = { "CLOSED", "OPEN", "HALF_OPEN" };
+
+    private final ViewCountBuffer viewCountBuffer;
+    private final PostSearchIndex postSearchIndex;
+    private final PostListCache postListCache;
+    private final PostPurgeService postPurgeService;
+    private final PostCounterService postCounterService;
+    private final SlugAllocator slugAllocator;
+    private final SentimentClient sentimentClient;
+    private final EmotionPrecomputePipeline emotionPrecomputePipeline;
+    private final CommentSnapshotSync commentSnapshotSync;
+    private final CustomUserDetailsService userDetailsService;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final StatementAudit statementAudit;
+    private final VirtualThreadPinningMonitor pinningMonitor;
+
+    public ApplicationMetrics(ViewCountBuffer viewCountBuffer, PostSearchIndex postSearchIndex,
+            PostListCache postListCache, PostPurgeService postPurgeService, PostCounterService postCounterService,
+            SlugAllocator slugAllocator, SentimentClient sentimentClient,
+            EmotionPrecomputePipeline emotionPrecomputePipeline, CommentSnapshotSync commentSnapshotSync,
+            CustomUserDetailsService userDetailsService, BoundedPasswordEncoder passwordEncoder,
+            StatementAudit statementAudit, VirtualThreadPinningMonitor pinningMonitor) {
+        this.viewCountBuffer = viewCountBuffer;
+        this.postSearchIndex = postSearchIndex;
+        this.postListCache = postListCache;
+        this.postPurgeService = postPurgeService;
+        this.postCounterService = postCounterService;
+        this.slugAllocator = slugAllocator;
+        this.sentimentClient = sentimentClient;
+        this.emotionPrecomputePipeline = emotionPrecomputePipeline;
+        this.commentSnapshotSync = commentSnapshotSync;
+        this.userDetailsService = userDetailsService;
+        this.passwordEncoder = passwordEncoder;
+        this.statementAudit = statementAudit;
+        this.pinningMonitor = pinningMonitor;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // 浏览量缓冲
+        gauge(registry, "schoolwall.view.buffer.pending.posts", viewCountBuffer, ViewCountBuffer::getPendingPostCount);
+        gauge(registry, "schoolwall.view.buffer.pending.views", viewCountBuffer, ViewCountBuffer::getPendingViewCount);
+        counter(registry, "schoolwall.view.buffer.flushed.views", viewCountBuffer,
+                ViewCountBuffer::getFlushedViewCount);
+        counter(registry, "schoolwall.view.buffer.flush.failures", viewCountBuffer,
+                ViewCountBuffer::getFailedFlushCount);
+        TimeGauge.builder("schoolwall.view.buffer.last.flush.duration", viewCountBuffer, TimeUnit.MILLISECONDS,
+                ViewCountBuffer::getLastFlushDurationMillis).register(registry);
+
+        // 本地搜索索引
+        gauge(registry, "schoolwall.search.index.documents", postSearchIndex, PostSearchIndex::getDocumentCount);
+        gauge(registry, "schoolwall.search.index.terms", postSearchIndex, PostSearchIndex::getTermCount);
+        TimeGauge.builder("schoolwall.search.index.last.rebuild.duration", postSearchIndex, TimeUnit.MILLISECONDS,
+                PostSearchIndex::getLastRebuildDurationMillis).register(registry);
+
+        // 缓存
+        cache(registry, "post-list", postListCache, PostListCache::getStats);
+        cache(registry, "user-details", userDetailsService, CustomUserDetailsService::getStats);
+
+        // 帖子后台任务
+        counter(registry, "schoolwall.post.purge.posts", postPurgeService, PostPurgeService::getPurgedPostCount);
+        counter(registry, "schoolwall.post.purge.comments", postPurgeService, PostPurgeService::getPurgedCommentCount);
+        counter(registry, "schoolwall.post.purge.failures", postPurgeService, PostPurgeService::getFailedPurgeCount);
+        counter(registry, "schoolwall.post.counters.reconcile.runs", postCounterService,
+                PostCounterService::getReconcileRunCount);
+        counter(registry, "schoolwall.post.counters.corrected", postCounterService,
+                PostCounterService::getCorrectedCounterCount);
+        counter(registry, "schoolwall.slug.allocated", slugAllocator, SlugAllocator::getAllocatedCount);
+        counter(registry, "schoolwall.slug.blocks.reserved", slugAllocator, SlugAllocator::getReservedBlockCount);
+        counter(registry, "schoolwall.comment.snapshot.synced.rows", commentSnapshotSync,
+                CommentSnapshotSync::getSyncedRowCount);
+        counter(registry, "schoolwall.comment.snapshot.failures", commentSnapshotSync,
+                CommentSnapshotSync::getFailedSyncCount);
+
+        // 情绪分析（HTTP 调用耗时见 SentimentClient 的 sentiment.client.requests）
+        counter(registry, "sentiment.client.failures", sentimentClient, SentimentClient::getFailureCount);
+        counter(registry, "sentiment.client.rejected", sentimentClient, SentimentClient::getRejectedCount);
+        counter(registry, "sentiment.client.coalesced", sentimentClient, SentimentClient::getCoalescedCount);
+        for (String state : CIRCUIT_STATES) {
+            Gauge.builder("sentiment.client.circuit.state", sentimentClient,
+                    client -> state.equals(client.getCircuitState()) ? 1 : 0)
+                    .description("1 for the current circuit breaker state")
+                    .tag("state", state)
+                    .register(registry);
+        }
+        gauge(registry, "schoolwall.emotion.precompute.queue.size", emotionPrecomputePipeline,
+                EmotionPrecomputePipeline::getQueueSize);
+        counter(registry, "schoolwall.emotion.precompute.enqueued", emotionPrecomputePipeline,
+                EmotionPrecomputePipeline::getEnqueuedCount);
+        counter(registry, "schoolwall.emotion.precompute.dropped", emotionPrecomputePipeline,
+                EmotionPrecomputePipeline::getDroppedCount);
+        counter(registry, "schoolwall.emotion.precompute.saved", emotionPrecomputePipeline,
+                EmotionPrecomputePipeline::getSavedCount);
+        counter(registry, "schoolwall.emotion.precompute.failed", emotionPrecomputePipeline,
+                EmotionPrecomputePipeline::getFailedCount);
+
+        // 密码哈希线程池
+        gauge(registry, "schoolwall.password.hash.cost", passwordEncoder, BoundedPasswordEncoder::getCost);
+        gauge(registry, "schoolwall.password.hash.queue.depth", passwordEncoder, BoundedPasswordEncoder::getQueueDepth);
+        gauge(registry, "schoolwall.password.hash.active", passwordEncoder, BoundedPasswordEncoder::getActiveCount);
+        counter(registry, "schoolwall.password.hash.rejected", passwordEncoder,
+                BoundedPasswordEncoder::getRejectedCount);
+        FunctionTimer.builder("schoolwall.password.hash", passwordEncoder, BoundedPasswordEncoder::getHashCount,
+                BoundedPasswordEncoder::getTotalHashNanos, TimeUnit.NANOSECONDS).register(registry);
+        FunctionTimer.builder("schoolwall.password.hash.queue.wait", passwordEncoder,
+                BoundedPasswordEncoder::getHashCount, BoundedPasswordEncoder::getTotalQueueWaitNanos,
+                TimeUnit.NANOSECONDS).register(registry);
+        TimeGauge.builder("schoolwall.password.hash.max", passwordEncoder, TimeUnit.NANOSECONDS,
+                BoundedPasswordEncoder::getMaxHashNanos).register(registry);
+
+        // 语句审计（仅在开启时有数据）
+        counter(registry, "schoolwall.statement.audit.requests", statementAudit,
+                StatementAudit::getAuditedRequestCount);
+        counter(registry, "schoolwall.statement.audit.findings", statementAudit, StatementAudit::getFindingCount);
+
+        // 虚拟线程钉住（仅在开启虚拟线程时有数据）
+        FunctionTimer.builder("schoolwall.virtual.threads.pinned", pinningMonitor,
+                VirtualThreadPinningMonitor::getPinnedCount, VirtualThreadPinningMonitor::getTotalPinnedNanos,
+                TimeUnit.NANOSECONDS).register(registry);
+        counter(registry, "schoolwall.virtual.threads.pinned.jdbc", pinningMonitor,
+                VirtualThreadPinningMonitor::getJdbcPinnedCount);
+    }
+
+    private static <T> void gauge(MeterRegistry registry, String name, T target, ToDoubleFunction<T> value) {
+        Gauge.builder(name, target, value).register(registry);
+    }
+
+    private static <T> void counter(MeterRegistry registry, String name, T target, ToDoubleFunction<T> value) {
+        FunctionCounter.builder(name, target, value).register(registry);
+    }
+
+    /**
+     * 指标只弱引用 target，必须传入容器持有的组件本身，不能传入临时创建的 lambda
+     */
+    private static <T> void cache(MeterRegistry registry, String cacheName, T target,
+            Function<T, CacheStats> stats) {
+        FunctionCounter.builder("cache.gets", target, t -> stats.apply(t).hitCount())
+                .tag("cache", cacheName).tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", target, t -> stats.apply(t).missCount())
+                .tag("cache", cacheName).tag("result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", target, t -> stats.apply(t).evictionCount())
+                .tag("cache", cacheName).register(registry);
+    }
+}
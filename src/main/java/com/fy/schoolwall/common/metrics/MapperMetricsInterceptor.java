@@ -0,0 +1,93 @@
+package com.fy.schoolwall.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MyBatis 语句耗时统计
+ *
+ * 意义：
+ * 1. 每条映射语句按 ID（如 PostMapper.findFeed）记录一个计时器 mybatis.statement，
+ *    可以直接看出哪条 PostMapper/CommentMapper 语句占用了最多的数据库时间
+ * 2. 计时包含 SQL 执行和结果映射，与调用方感受到的耗时一致；失败的调用单独按 outcome=error 记录
+ * 3. 计时器按语句缓存，每次调用只有一次 Map 查找和两次 nanoTime
+ *
+ * 直方图和 SLO 区间在 application.yml 的 management.metrics.distribution 中配置。
+ */
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = { MappedStatement.class, Object.class }),
+        @Signature(type = Executor.class, method = "query",
+                args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class }),
+        @Signature(type = Executor.class, method = "query",
+                args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class,
+                        BoundSql.class })
+})
+public class MapperMetricsInterceptor implements Interceptor {
+
+    static final String METRIC_NAME = "mybatis.statement";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Timer> successTimers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Timer> errorTimers = new ConcurrentHashMap<>();
+
+    public MapperMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Object result = invocation.proceed();
+            success = true;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timer(statement, success).record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(MappedStatement statement, boolean success) {
+        ConcurrentHashMap<String, Timer> timers = success ? successTimers : errorTimers;
+        Timer timer = timers.get(statement.getId());
+        if (timer == null) {
+            timer = timers.computeIfAbsent(statement.getId(), id -> Timer.builder(METRIC_NAME)
+                    .description("MyBatis mapped statement execution time")
+                    .tag("statement", shortId(id))
+                    .tag("command", statement.getSqlCommandType().name())
+                    .tag("outcome", success ? "success" : "error")
+                    .register(meterRegistry));
+        }
+        return timer;
+    }
+
+    /**
+     * 去掉包名：com.fy.schoolwall.post.repository.PostMapper.findById -> PostMapper.findById
+     */
+    static String shortId(String id) {
+        int methodDot = id.lastIndexOf('.');
+        if (methodDot <= 0) {
+            return id;
+        }
+        int classDot = id.lastIndexOf('.', methodDot - 1);
+        return classDot < 0 ? id : id.substring(classDot + 1);
+    }
+}
@@ -0,0 +1,21 @@
+package com.fy.schoolwall.common.metrics;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 虚拟线程钉住载体线程的一个位置（相同调用栈的事件归并在一起）
+ */
+@Data
+public class PinnedThreadSite {
+
+    private List<String> stackTrace; // 调用栈，栈顶在前
+    private boolean jdbc; // 调用栈中有 JDBC 驱动或连接池的帧
+    private long count;
+    private double totalMillis;
+    private double maxMillis;
+    private LocalDateTime firstSeen;
+    private LocalDateTime lastSeen;
+}
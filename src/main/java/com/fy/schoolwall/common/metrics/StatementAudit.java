@@ -0,0 +1,155 @@
+package com.fy.schoolwall.common.metrics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按请求审计 MyBatis 语句：发现 N+1 查询和慢语句
+ *
+ * 意义：
+ * 1. StatementAuditFilter 为每个请求开始记录，StatementAuditInterceptor 记录请求中执行的每条语句
+ * 2. 请求结束时检查：同一语句执行次数超过 repeat-threshold 的视为疑似 N+1，
+ *    单次耗时超过 slow-statement-ms 的视为慢语句
+ * 3. 每个发现输出一行 JSON 日志（前缀 "Statement audit finding: "），并保留最近的若干条，
+ *    管理员通过 GET /api/admin/diagnostics/statement-findings 查看
+ *
+ * 默认关闭（schoolwall.statement-audit.enabled），用于开发、测试环境；
+ * application.yml 中的 dev、test 配置文件会开启它。
+ */
+@Component
+public class StatementAudit {
+
+    private final boolean enabled;
+    private final int repeatThreshold;
+    private final long slowStatementNanos;
+    private final int maxFindings;
+    private final ObjectMapper objectMapper;
+
+    // 最近的发现，最新的在前
+    private final Deque<StatementFinding> recentFindings = new ArrayDeque<>();
+
+    private final AtomicLong auditedRequestCount = new AtomicLong();
+    private final AtomicLong findingCount = new AtomicLong();
+
+    public StatementAudit(@Value("${schoolwall.statement-audit.enabled:false}") boolean enabled,
+            @Value("${schoolwall.statement-audit.repeat-threshold:5}") int repeatThreshold,
+            @Value("${schoolwall.statement-audit.slow-statement-ms:200}") long slowStatementMs,
+            @Value("${schoolwall.statement-audit.max-findings:200}") int maxFindings,
+            ObjectMapper objectMapper) {
+        if (repeatThreshold < 1 || slowStatementMs < 1 || maxFindings < 1) {
+            throw new IllegalArgumentException(
+                    "Statement audit repeat-threshold, slow-statement-ms and max-findings must be positive");
+        }
+        this.enabled = enabled;
+        this.repeatThreshold = repeatThreshold;
+        this.slowStatementNanos = TimeUnit.MILLISECONDS.toNanos(slowStatementMs);
+        this.maxFindings = maxFindings;
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 检查一个请求执行的语句，输出并保存发现的问题
+     *
+     * @param endpoint 接口，如 GET /api/posts/{id}
+     * @param uri      实际请求路径
+     */
+    public List<StatementFinding> report(String endpoint, String uri, StatementLog log) {
+        auditedRequestCount.incrementAndGet();
+        List<StatementFinding> findings = evaluate(endpoint, uri, log);
+        if (findings.isEmpty()) {
+            return findings;
+        }
+        findingCount.addAndGet(findings.size());
+        for (StatementFinding finding : findings) {
+            System.out.println("Statement audit finding: " + toJson(finding));
+        }
+        synchronized (recentFindings) {
+            for (StatementFinding finding : findings) {
+                recentFindings.addFirst(finding);
+            }
+            while (recentFindings.size() > maxFindings) {
+                recentFindings.removeLast();
+            }
+        }
+        return findings;
+    }
+
+    List<StatementFinding> evaluate(String endpoint, String uri, StatementLog log) {
+        List<StatementFinding> findings = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<String, StatementLog.StatementStats> entry : log.getStatements().entrySet()) {
+            StatementLog.StatementStats stats = entry.getValue();
+            if (stats.getCount() > repeatThreshold) {
+                findings.add(finding(StatementFinding.Type.REPEATED_STATEMENT, endpoint, uri, entry.getKey(), stats,
+                        log, now));
+            }
+            if (stats.getMaxNanos() > slowStatementNanos) {
+                findings.add(finding(StatementFinding.Type.SLOW_STATEMENT, endpoint, uri, entry.getKey(), stats,
+                        log, now));
+            }
+        }
+        return findings;
+    }
+
+    private static StatementFinding finding(StatementFinding.Type type, String endpoint, String uri,
+            String statementId, StatementLog.StatementStats stats, StatementLog log, LocalDateTime occurredAt) {
+        StatementFinding finding = new StatementFinding();
+        finding.setType(type);
+        finding.setEndpoint(endpoint);
+        finding.setUri(uri);
+        finding.setStatementId(statementId);
+        finding.setExecutions(stats.getCount());
+        finding.setTotalMillis(stats.getTotalNanos() / 1_000_000.0);
+        finding.setMaxMillis(stats.getMaxNanos() / 1_000_000.0);
+        finding.setRequestStatements(log.getTotalCount());
+        finding.setOccurredAt(occurredAt);
+        return finding;
+    }
+
+    private String toJson(StatementFinding finding) {
+        try {
+            return objectMapper.writeValueAsString(finding);
+        } catch (JsonProcessingException e) {
+            return finding.toString();
+        }
+    }
+
+    /**
+     * 最近的发现，最新的在前
+     */
+    public List<StatementFinding> getRecentFindings() {
+        synchronized (recentFindings) {
+            return new ArrayList<>(recentFindings);
+        }
+    }
+
+    public void clearFindings() {
+        synchronized (recentFindings) {
+            recentFindings.clear();
+        }
+    }
+
+    public long getAuditedRequestCount() {
+        return auditedRequestCount.get();
+    }
+
+    public long getFindingCount() {
+        return findingCount.get();
+    }
+}
@@ -0,0 +1,52 @@
+package com.fy.schoolwall.common.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 为每个 HTTP 请求开始和结束语句记录，交给 {@link StatementAudit} 检查
+ *
+ * 排在 Spring Security 过滤器之前，认证过程中的查询也计入请求。
+ * 接口按 Spring MVC 匹配到的路径模板区分（如 GET /api/comments/post/{postId}），未匹配到时使用实际路径。
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StatementAuditFilter extends OncePerRequestFilter {
+
+    private final StatementAudit statementAudit;
+
+    public StatementAuditFilter(StatementAudit statementAudit) {
+        this.statementAudit = statementAudit;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !statementAudit.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        StatementLog.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            StatementLog log = StatementLog.end();
+            if (log != null && log.getTotalCount() > 0) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String path = pattern != null ? pattern.toString() : request.getRequestURI();
+                statementAudit.report(request.getMethod() + " " + path, request.getRequestURI(), log);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.fy.schoolwall.common.metrics;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.stereotype.Component;
+
+/**
+ * 把 MyBatis 语句记录到当前线程的 {@link StatementLog}
+ *
+ * 意义：
+ * 1. 为 StatementAudit 统计每个 HTTP 请求执行了哪些语句、各执行了几次、耗时多少
+ * 2. 当前线程没有开始记录时（审计关闭、后台任务）只多一次线程变量读取
+ *
+ * 语句 ID 去掉包名后记录，与 mybatis.statement 指标的 statement 标签一致。
+ */
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = { MappedStatement.class, Object.class }),
+        @Signature(type = Executor.class, method = "query",
+                args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class }),
+        @Signature(type = Executor.class, method = "query",
+                args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class,
+                        BoundSql.class })
+})
+public class StatementAuditInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        StatementLog log = StatementLog.current();
+        if (log == null) {
+            return invocation.proceed();
+        }
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            log.record(MapperMetricsInterceptor.shortId(statement.getId()), System.nanoTime() - start);
+        }
+    }
+}
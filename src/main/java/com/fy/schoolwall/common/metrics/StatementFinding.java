@@ -0,0 +1,26 @@
+package com.fy.schoolwall.common.metrics;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 语句审计发现的问题：同一请求中重复执行的语句（疑似 N+1）或超过耗时预算的语句
+ */
+@Data
+public class StatementFinding {
+
+    public enum Type {
+        REPEATED_STATEMENT, SLOW_STATEMENT
+    }
+
+    private Type type;
+    private String endpoint; // 接口，如 GET /api/comments/post/{postId}
+    private String uri; // 实际请求路径
+    private String statementId;
+    private int executions; // 该语句在请求中的执行次数
+    private double totalMillis; // 该语句在请求中的总耗时
+    private double maxMillis; // 该语句单次执行的最长耗时
+    private int requestStatements; // 请求执行的语句总数
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,111 @@
+package com.fy.schoolwall.common.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 一次请求（或测试中的一段代码）执行过的 MyBatis 语句
+ *
+ * 意义：
+ * 1. 按语句 ID 统计执行次数、总耗时和最长单次耗时，用于发现 N+1 查询和慢语句
+ * 2. 通过线程变量绑定到当前线程，StatementAuditInterceptor 只记录已开始记录的线程上的语句
+ * 3. 测试可以用 begin/end 包住一段调用，按接口断言语句数量（见 src/test 中的 StatementBudget）
+ *
+ * 只在创建它的线程上使用，不加锁；交给后台线程或 @Async 执行的语句不计入。
+ */
+public class StatementLog {
+
+    private static final ThreadLocal<StatementLog> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, StatementStats> statements = new LinkedHashMap<>();
+    private int totalCount;
+    private long totalNanos;
+
+    /**
+     * 在当前线程上开始记录；已有未结束的记录时替换它
+     */
+    public static StatementLog begin() {
+        StatementLog log = new StatementLog();
+        CURRENT.set(log);
+        return log;
+    }
+
+    /**
+     * 当前线程正在记录的语句，未开始记录时返回 null
+     */
+    public static StatementLog current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 结束当前线程的记录并返回它
+     */
+    public static StatementLog end() {
+        StatementLog log = CURRENT.get();
+        CURRENT.remove();
+        return log;
+    }
+
+    /**
+     * 记录一次语句执行
+     *
+     * @param statementId 语句 ID（如 CommentMapper.findTopLevelCommentsByPostId）
+     */
+    public void record(String statementId, long nanos) {
+        statements.computeIfAbsent(statementId, id -> new StatementStats()).add(nanos);
+        totalCount++;
+        totalNanos += nanos;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * 某条语句的执行次数
+     */
+    public int count(String statementId) {
+        StatementStats stats = statements.get(statementId);
+        return stats == null ? 0 : stats.count;
+    }
+
+    /**
+     * 按首次执行顺序排列的各语句统计
+     */
+    public Map<String, StatementStats> getStatements() {
+        return Collections.unmodifiableMap(statements);
+    }
+
+    /**
+     * 单条语句的统计
+     */
+    public static class StatementStats {
+
+        private int count;
+        private long totalNanos;
+        private long maxNanos;
+
+        void add(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+    }
+}
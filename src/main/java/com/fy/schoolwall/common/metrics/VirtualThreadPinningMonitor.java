@@ -0,0 +1,212 @@
+package com.fy.schoolwall.common.metrics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 虚拟线程钉住（pinning）检测
+ *
+ * 意义：
+ * 1. 虚拟线程在 synchronized 块或本地方法中阻塞时无法从载体线程卸载，会占住有限的载体线程（默认等于 CPU 核心数），
+ *    持锁期间做数据库或网络 IO 的代码在高并发下会让整个服务停顿
+ * 2. 通过进程内 JFR 流订阅 jdk.VirtualThreadPinned 事件，超过 threshold-ms 的钉住按调用栈归并计数，
+ *    每个新位置输出一次完整调用栈；调用栈中有 JDBC 驱动、连接池或 MyBatis 帧的标记为 jdbc
+ * 3. 归并结果通过 GET /api/admin/diagnostics/pinned-threads 查看，次数和时长同时导出为指标
+ *
+ * 只在开启虚拟线程（spring.threads.virtual.enabled）时运行；
+ * 不便开启 JFR 时也可以用 JVM 参数 -Djdk.tracePinnedThreads=short 把钉住的调用栈直接打印到标准输出。
+ */
+@Component
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final String[] JDBC_FRAME_PREFIXES = {
+            "com.mysql.", "com.zaxxer.hikari.", "java.sql.", "javax.sql.", "org.apache.ibatis.", "org.mybatis."
+    };
+
+    private final boolean enabled;
+    private final Duration threshold;
+    private final int maxSites;
+
+    // 按调用栈归并的钉住位置
+    private final ConcurrentHashMap<String, Site> sites = new ConcurrentHashMap<>();
+
+    private final AtomicLong pinnedCount = new AtomicLong();
+    private final AtomicLong jdbcPinnedCount = new AtomicLong();
+    private final AtomicLong totalPinnedNanos = new AtomicLong();
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${schoolwall.virtual-threads.pinning-monitor.enabled:true}") boolean monitorEnabled,
+            @Value("${schoolwall.virtual-threads.pinning-monitor.threshold-ms:20}") long thresholdMillis,
+            @Value("${schoolwall.virtual-threads.pinning-monitor.max-sites:100}") int maxSites) {
+        this.enabled = virtualThreads && monitorEnabled;
+        this.threshold = Duration.ofMillis(thresholdMillis);
+        this.maxSites = maxSites;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            RecordingStream recording = new RecordingStream();
+            recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            recording.onEvent(PINNED_EVENT, this::onPinned);
+            recording.startAsync();
+            stream = recording;
+            System.out.println("Virtual thread pinning monitor started (threshold " + threshold.toMillis() + " ms)");
+        } catch (RuntimeException e) {
+            // JFR 不可用（如被 JVM 参数禁用）时不影响启动
+            System.err.println("Failed to start virtual thread pinning monitor: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        record(event.getDuration(), frames(event.getStackTrace()));
+    }
+
+    /**
+     * 记录一次钉住
+     *
+     * @param stackTrace 调用栈，栈顶在前
+     */
+    void record(Duration duration, List<String> stackTrace) {
+        long nanos = duration.toNanos();
+        boolean jdbc = stackTrace.stream().anyMatch(VirtualThreadPinningMonitor::isJdbcFrame);
+        pinnedCount.incrementAndGet();
+        totalPinnedNanos.addAndGet(nanos);
+        if (jdbc) {
+            jdbcPinnedCount.incrementAndGet();
+        }
+
+        String key = String.join("\n", stackTrace);
+        Site site = sites.get(key);
+        if (site == null) {
+            if (sites.size() >= maxSites) {
+                return;
+            }
+            Site created = new Site(stackTrace, jdbc);
+            site = sites.putIfAbsent(key, created);
+            if (site == null) {
+                site = created;
+                System.err.println("Virtual thread pinned for " + duration.toMillis() + " ms"
+                        + (jdbc ? " in a JDBC path" : "") + " (further occurrences are only counted):\n\tat "
+                        + String.join("\n\tat ", stackTrace));
+            }
+        }
+        site.add(nanos);
+    }
+
+    private static List<String> frames(RecordedStackTrace stackTrace) {
+        List<String> frames = new ArrayList<>();
+        if (stackTrace == null) {
+            return frames;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.getMethod() == null) {
+                continue;
+            }
+            frames.add(frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                    + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : ""));
+        }
+        return frames;
+    }
+
+    private static boolean isJdbcFrame(String frame) {
+        for (String prefix : JDBC_FRAME_PREFIXES) {
+            if (frame.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 钉住的位置，按次数从多到少排列
+     */
+    public List<PinnedThreadSite> getPinnedSites() {
+        return sites.values().stream()
+                .map(Site::toDto)
+                .sorted(Comparator.comparingLong(PinnedThreadSite::getCount).reversed())
+                .toList();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getPinnedCount() {
+        return pinnedCount.get();
+    }
+
+    public long getJdbcPinnedCount() {
+        return jdbcPinnedCount.get();
+    }
+
+    public long getTotalPinnedNanos() {
+        return totalPinnedNanos.get();
+    }
+
+    private static class Site {
+
+        private final List<String> stackTrace;
+        private final boolean jdbc;
+        private final LocalDateTime firstSeen = LocalDateTime.now();
+        private LocalDateTime lastSeen;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        Site(List<String> stackTrace, boolean jdbc) {
+            this.stackTrace = List.copyOf(stackTrace);
+            this.jdbc = jdbc;
+        }
+
+        synchronized void add(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            lastSeen = LocalDateTime.now();
+        }
+
+        synchronized PinnedThreadSite toDto() {
+            PinnedThreadSite dto = new PinnedThreadSite();
+            dto.setStackTrace(stackTrace);
+            dto.setJdbc(jdbc);
+            dto.setCount(count);
+            dto.setTotalMillis(totalNanos / 1_000_000.0);
+            dto.setMaxMillis(maxNanos / 1_000_000.0);
+            dto.setFirstSeen(firstSeen);
+            dto.setLastSeen(lastSeen);
+            return dto;
+        }
+    }
+}
@@ -126,6 +126,62 @@ public class PaginationUtil {
         }
     }
 
+    /**
+     * 游标分页响应数据结构
+     *
+     * 与 PageResponse 不同，不包含总记录数和总页数，
+     * 避免每次翻页都执行 COUNT(*)，适用于无限滚动类的列表。
+     */
+    public static class CursorPageResponse<T> {
+        private List<T> content; // 当前页数据
+        private int size; // 页面大小
+        private String nextCursor; // 下一页游标，没有下一页时为 null
+        private boolean hasNext; // 是否有下一页
+
+        public CursorPageResponse() {
+        }
+
+        public CursorPageResponse(List<T> content, int size, String nextCursor) {
+            this.content = content;
+            this.size = size;
+            this.nextCursor = nextCursor;
+            this.hasNext = nextCursor != null;
+        }
+
+        // Getters and Setters
+        public List<T> getContent() {
+            return content;
+        }
+
+        public void setContent(List<T> content) {
+            this.content = content;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
+
+        public void setNextCursor(String nextCursor) {
+            this.nextCursor = nextCursor;
+        }
+
+        public boolean isHasNext() {
+            return hasNext;
+        }
+
+        public void setHasNext(boolean hasNext) {
+            this.hasNext = hasNext;
+        }
+    }
+
     /**
      * 分页请求参数
      */
@@ -204,6 +260,20 @@ public class PaginationUtil {
         return new PageResponse<>(content, pageRequest.getPage(), pageRequest.getSize(), totalElements);
     }
 
+    /**
+     * 创建游标分页响应（不含总数）
+     */
+    public static <T> CursorPageResponse<T> createCursorPageResponse(List<T> content, int size, String nextCursor) {
+        return new CursorPageResponse<>(content, size, nextCursor);
+    }
+
+    /**
+     * 标准化游标分页的页面大小
+     */
+    public static int validateCursorPageSize(Integer size) {
+        return size != null ? Math.min(Math.max(1, size), MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+    }
+
     /**
      * 验证并标准化分页参数
      */
@@ -0,0 +1,108 @@
+package com.fy.schoolwall.common.util;
+
+import net.sourceforge.pinyin4j.PinyinHelper;
+import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
+import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
+import net.sourceforge.pinyin4j.format.exception.BadHanyuPinyinOutputFormatCombination;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 汉字拼音查找表
+ * <p>
+ * 意义：
+ * 1. 类加载时用 pinyin4j 把 CJK 统一表意文字区（U+4E00–U+9FFF）的读音一次性转换成按字符下标访问的数组，
+ *    之后每次查询只是一次数组访问，不再为每个字符分配 String[]
+ * 2. 相同的拼音音节共享同一个 String 实例，整张表只有几百个不同的字符串
+ * 3. 区块以外的字符（扩展区等，极少出现）仍按需调用 pinyin4j，结果与查表一致
+ * <p>
+ * 读音统一为不带声调、小写、ü 写作 v，slug 生成与搜索分词共用。
+ */
+public final class PinyinTable {
+
+    // 查找表覆盖的字符范围：CJK 统一表意文字
+    static final char FIRST = '\u4E00';
+    static final char LAST = '\u9FFF';
+
+    private static final String[] NO_READINGS = new String[0];
+
+    // Pinyin4j 输出格式配置（只在建表和区块外的按需转换时使用）
+    private static final HanyuPinyinOutputFormat PINYIN_FORMAT = new HanyuPinyinOutputFormat();
+
+    // 下标为 c - FIRST；无读音的字符为空数组
+    private static final String[][] READINGS;
+
+    static {
+        PINYIN_FORMAT.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
+        PINYIN_FORMAT.setCaseType(HanyuPinyinCaseType.LOWERCASE);
+        PINYIN_FORMAT.setVCharType(HanyuPinyinVCharType.WITH_V);
+
+        long start = System.currentTimeMillis();
+        Map<String, String> syllables = new HashMap<>();
+        READINGS = new String[LAST - FIRST + 1][];
+        for (char c = FIRST; c <= LAST; c++) {
+            String[] readings = convert(c);
+            for (int i = 0; i < readings.length; i++) {
+                readings[i] = syllables.computeIfAbsent(readings[i], s -> s);
+            }
+            READINGS[c - FIRST] = readings.length == 0 ? NO_READINGS : readings;
+        }
+        System.out.println("Pinyin table built: " + READINGS.length + " characters, " + syllables.size()
+                + " syllables in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    private PinyinTable() {
+    }
+
+    /**
+     * 确保查找表已经建好（应用启动时调用，避免第一次创建帖子时付出建表开销）
+     */
+    public static void load() {
+        // 访问本类即触发静态初始化
+    }
+
+    /**
+     * 获取单个汉字的第一个读音（多音字取 pinyin4j 返回的第一个读音）
+     *
+     * @return 读音，非汉字或无法转换时返回 null
+     */
+    public static String firstReading(char c) {
+        String[] readings = readings(c);
+        return readings.length > 0 ? readings[0] : null;
+    }
+
+    /**
+     * 获取单个汉字的全部读音（已去重）
+     * <p>
+     * 返回的数组是共享的，调用方不得修改。
+     *
+     * @return 读音数组，非汉字或无法转换时返回空数组
+     */
+    public static String[] readings(char c) {
+        if (c >= FIRST && c <= LAST) {
+            return READINGS[c - FIRST];
+        }
+        if (Character.getType(c) != Character.OTHER_LETTER) {
+            return NO_READINGS;
+        }
+        return convert(c);
+    }
+
+    private static String[] convert(char c) {
+        try {
+            String[] pinyinArray = PinyinHelper.toHanyuPinyinStringArray(c, PINYIN_FORMAT);
+            if (pinyinArray == null) {
+                return NO_READINGS;
+            }
+            // 去掉声调后多音字可能出现重复读音
+            return Arrays.stream(pinyinArray).distinct().toArray(String[]::new);
+        } catch (BadHanyuPinyinOutputFormatCombination e) {
+            System.err.println("Pinyin4j format error for character '" + c + "': " + e.getMessage());
+            return NO_READINGS;
+        }
+    }
+}
@@ -1,19 +1,6 @@
 package com.fy.schoolwall.common.util;
 
-// 移除 tiny-pinyin 的导入
-// import com.github.promeg.pinyinhelper.Pinyin;
-// import com.github.promeg.pinyinhelper.PinyinFormat;
-
-// 导入 pinyin4j 的相关类
-import net.sourceforge.pinyin4j.PinyinHelper;
-import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
-import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
-import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
-import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
-import net.sourceforge.pinyin4j.format.exception.BadHanyuPinyinOutputFormatCombination;
-
 import java.text.Normalizer;
-import java.util.regex.Pattern;
 
 /**
  * Slug生成器工具类
@@ -28,6 +15,8 @@ import java.util.regex.Pattern;
  * - 集成 pinyin4j 库，提供更准确和全面的中文拼音转换。
  * - 引入常量，提高代码可读性和可维护性。
  * - 优化 slug 生成流程。
+ * - 汉字读音查 {@link PinyinTable}，非 ASCII 拉丁字母的去变音结果在类加载时预先算好，
+ *   生成 slug 只需一次遍历，不再经过多轮正则替换和整串 Unicode 标准化。
  */
 public class SlugGenerator {
 
@@ -36,136 +25,152 @@ public class SlugGenerator {
     // 生成slug的最大长度限制，避免过长的URL
     public static final int MAX_SLUG_LENGTH = 100;
 
-    // 匹配非字母数字字符的正则表达式，不包括连字符
-    private static final Pattern NON_LATIN = Pattern.compile("[^\\w-]");
-    // 匹配多个连续空白字符的正则表达式
-    private static final Pattern WHITESPACE = Pattern.compile("[\\s]");
-    // 匹配多个连续连字符的正则表达式
-    private static final Pattern MULTIPLE_HYPHENS = Pattern.compile("-{2,}");
-    // 匹配开头或结尾的连字符的正则表达式
-    private static final Pattern LEADING_TRAILING_HYPHENS = Pattern.compile("^-+|-+$");
+    // 预先计算去变音结果的字符范围（拉丁字母、标点、字母式符号等都在此范围内）
+    private static final char TRANSLITERATION_LIMIT = '\u3000';
 
-    // Pinyin4j 输出格式配置 (线程安全，可以作为静态常量)
-    private static final HanyuPinyinOutputFormat PINYIN_FORMAT = new HanyuPinyinOutputFormat();
+    // 下标为小写后的字符，值为该字符在 slug 中对应的 ASCII 文本；为 null 时该字符被丢弃
+    private static final String[] TRANSLITERATIONS = new String[TRANSLITERATION_LIMIT];
 
     static {
-        // 设置声调类型：不带声调
-        PINYIN_FORMAT.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
-        // 设置大小写类型：小写
-        PINYIN_FORMAT.setCaseType(HanyuPinyinCaseType.LOWERCASE);
-        // 设置'ü'的表示方式：'v' (兼容URL)
-        PINYIN_FORMAT.setVCharType(HanyuPinyinVCharType.WITH_V);
+        for (char c = 0x80; c < TRANSLITERATION_LIMIT; c++) {
+            TRANSLITERATIONS[c] = transliterateUncached(c);
+        }
     }
 
     /**
      * 根据标题生成slug
      * <p>
-     * 流程：
+     * 规则：
      * 1. 空值/空白检查，返回默认slug。
-     * 2. 转换为小写并去除首尾空格。
-     * 3. 中文转拼音（使用 pinyin4j）。
-     * 4. 标准化Unicode字符（处理变音符号等，例如 "résumé" -> "resume"）。
-     * 5. 将空白字符替换为连字符。
-     * 6. 移除非拉丁字母、数字和连字符的字符。
-     * 7. 替换多个连续连字符为单个。
-     * 8. 移除开头和结尾的连字符。
-     * 9. 再次检查是否为空，若为空则返回默认slug。
-     * 10. 限制slug长度，并在截断时确保不以连字符结尾。
+     * 2. 字母转换为小写。
+     * 3. 中文转拼音（查 {@link PinyinTable}，多音字取第一个读音）。
+     * 4. 去掉变音符号（例如 "résumé" -> "resume"）。
+     * 5. 空白字符和连字符作为分隔符，连续的分隔符合并为一个连字符，开头和结尾不保留连字符。
+     * 6. 移除其余非拉丁字母、数字和下划线的字符。
+     * 7. 若结果为空，返回默认slug。
+     * 8. 限制slug长度，并在截断时确保不以连字符结尾。
+     * <p>
+     * 以上规则在一次遍历中完成；结果超过最大长度后不再处理剩余字符。
      *
      * @param input 输入标题
      * @return 生成的slug
      */
     public static String generateSlug(String input) {
-        if (input == null || input.trim().isEmpty()) {
+        if (input == null) {
             return DEFAULT_SLUG;
         }
 
-        String slug = input.trim().toLowerCase();
-
-        // 1. 中文转拼音 (核心改进，现在使用 pinyin4j)
-        slug = handleChineseCharacters(slug);
-
-        // 2. 标准化Unicode字符 (例如: résumé -> resume)
-        // Normalizer.Form.NFD 将字符分解为基字符和组合字符，便于后续移除非拉丁字符。
-        slug = Normalizer.normalize(slug, Normalizer.Form.NFD);
-
-        // 3. 将所有空白字符（包括换行符、tab等）替换为单个连字符
-        slug = WHITESPACE.matcher(slug).replaceAll("-");
-
-        // 4. 移除非字母数字和连字符的字符
-        slug = NON_LATIN.matcher(slug).replaceAll("");
-
-        // 5. 替换多个连续连字符为单个连字符
-        slug = MULTIPLE_HYPHENS.matcher(slug).replaceAll("-");
+        StringBuilder slug = new StringBuilder(Math.min(input.length() * 2, MAX_SLUG_LENGTH) + 16);
+        boolean pendingHyphen = false;
+        for (int i = 0; i < input.length() && slug.length() <= MAX_SLUG_LENGTH; i++) {
+            char c = input.charAt(i);
+            if (c < 0x80) {
+                if (c >= 'A' && c <= 'Z') {
+                    c = (char) (c + ('a' - 'A'));
+                }
+                pendingHyphen = append(slug, c, pendingHyphen);
+                continue;
+            }
 
-        // 6. 移除开头和结尾的连字符
-        slug = LEADING_TRAILING_HYPHENS.matcher(slug).replaceAll("");
+            char lower = Character.toLowerCase(c);
+            if (lower < 0x80) {
+                pendingHyphen = append(slug, lower, pendingHyphen);
+                continue;
+            }
+            String replacement = transliterate(lower);
+            if (replacement != null) {
+                for (int j = 0; j < replacement.length(); j++) {
+                    pendingHyphen = append(slug, replacement.charAt(j), pendingHyphen);
+                }
+            }
+        }
 
-        // 7. 如果生成的slug为空，使用默认值
-        if (slug.isEmpty()) {
+        if (slug.length() == 0) {
             return DEFAULT_SLUG;
         }
 
-        // 8. 限制长度，并确保不会在单词中间截断或以连字符结尾
+        // 限制长度，并确保不会在单词中间截断或以连字符结尾
         if (slug.length() > MAX_SLUG_LENGTH) {
-            slug = slug.substring(0, MAX_SLUG_LENGTH);
-            // 确保截断后不会以连字符结尾，回退到最后一个连字符
-            if (slug.endsWith("-")) {
-                slug = slug.substring(0, slug.length() - 1);
-            } else if (slug.contains("-")) {
+            slug.setLength(MAX_SLUG_LENGTH);
+            if (slug.charAt(MAX_SLUG_LENGTH - 1) == '-') {
+                slug.setLength(MAX_SLUG_LENGTH - 1);
+            } else {
                 int lastHyphenIndex = slug.lastIndexOf("-");
-                // 如果最后一个连字符在靠近截断点的位置，回退到它，避免截断单词。
-                // 这里的启发式是：如果最后10个字符内有连字符，并且不是以连字符结尾，
-                // 则回退到该连字符。这是一种权衡，可以根据需求调整。
+                // 如果最后一个连字符在靠近截断点的位置（最后10个字符内），回退到它，避免截断单词。
+                // 这是一种权衡，可以根据需求调整。
                 if (lastHyphenIndex != -1 && (slug.length() - lastHyphenIndex) < 10) {
-                    slug = slug.substring(0, lastHyphenIndex);
+                    slug.setLength(lastHyphenIndex);
                 }
             }
         }
-        // 再次移除截断后可能产生的结尾连字符，以防万一
-        slug = LEADING_TRAILING_HYPHENS.matcher(slug).replaceAll("");
-        if (slug.isEmpty()) { // 极端情况，如"very-very-very-long-word"截断后变空
-            return DEFAULT_SLUG;
-        }
 
-        return slug;
+        return slug.toString();
     }
 
     /**
-     * 处理中文字符，将其转换为不带声调的小写拼音。
-     * 使用 pinyin4j 库。
+     * 追加一个 ASCII 字符：字母、数字、下划线直接保留；空白和连字符记为待输出的分隔符，
+     * 只有后面还有保留的字符时才输出；其余字符丢弃
+     *
+     * @return 追加后是否有待输出的分隔符
      */
-    private static String handleChineseCharacters(String input) {
-        StringBuilder pinyinBuilder = new StringBuilder();
-        for (int i = 0; i < input.length(); i++) {
-            char c = input.charAt(i);
-            try {
-                // 判断是否是汉字字符
-                if (Character.getType(c) == Character.OTHER_LETTER) { // 通常用于匹配中日韩字符
-                    String[] pinyinArray = PinyinHelper.toHanyuPinyinStringArray(c, PINYIN_FORMAT);
-                    if (pinyinArray != null && pinyinArray.length > 0) {
-                        // 对于多音字，pinyin4j会返回一个数组。通常我们取第一个拼音。
-                        pinyinBuilder.append(pinyinArray[0]);
-                    } else {
-                        // 对于无法转换的汉字（极少见）或非汉字字符，直接保留
-                        pinyinBuilder.append(c);
-                    }
-                } else {
-                    // 非汉字字符直接保留
-                    pinyinBuilder.append(c);
-                }
-            } catch (BadHanyuPinyinOutputFormatCombination e) {
-                // 这通常发生在格式化设置不兼容时，在我们的静态配置中不应该发生
-                // 但作为健壮性考虑，捕获并打印，然后保留原字符
-                System.err.println("Pinyin4j format error for character '" + c + "': " + e.getMessage());
-                pinyinBuilder.append(c);
+    private static boolean append(StringBuilder slug, char c, boolean pendingHyphen) {
+        if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z') || c == '_') {
+            if (pendingHyphen && slug.length() > 0) {
+                slug.append('-');
             }
+            slug.append(c);
+            return false;
+        }
+        if (c == '-' || c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r') {
+            return true;
+        }
+        return pendingHyphen;
+    }
+
+    /**
+     * 非 ASCII 字符（已转换为小写）在 slug 中对应的文本
+     */
+    private static String transliterate(char c) {
+        if (c < TRANSLITERATION_LIMIT) {
+            return TRANSLITERATIONS[c];
         }
-        return pinyinBuilder.toString();
+        if (Character.getType(c) == Character.OTHER_LETTER) {
+            return PinyinTable.firstReading(c);
+        }
+        // 其余字符（中文标点、全角符号、表情等）没有拉丁字母形式
+        return null;
+    }
+
+    private static String transliterateUncached(char c) {
+        if (Character.getType(c) == Character.OTHER_LETTER) {
+            return PinyinTable.firstReading(c);
+        }
+        // 分解为基字符和组合字符，只保留 ASCII 基字符 (例如: é -> e)
+        String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        StringBuilder ascii = new StringBuilder();
+        for (int i = 0; i < decomposed.length(); i++) {
+            char d = decomposed.charAt(i);
+            if (d < 0x80) {
+                ascii.append(d);
+            }
+        }
+        return ascii.length() == 0 ? null : ascii.toString();
+    }
+
+    /**
+     * 获取单个汉字的全部拼音读音（不带声调、小写、ü 写作 v，已去重）。
+     * 与生成slug使用同一张拼音表，供搜索分词等场景复用；返回的数组是共享的，调用方不得修改。
+     *
+     * @param c 字符
+     * @return 读音数组，非汉字或无法转换时返回空数组
+     */
+    public static String[] toPinyinReadings(char c) {
+        return PinyinTable.readings(c);
     }
 
     /**
      * 生成唯一slug（带时间戳）
+     * 帖子slug已改由 SlugAllocator 分配全局唯一的短后缀，本方法不保证并发下唯一
      *
      * @param input 输入标题
      * @return 带时间戳的唯一slug
@@ -0,0 +1,357 @@
+package com.fy.schoolwall.emotion.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 情绪分析服务客户端
+ *
+ * 意义：
+ * 1. 使用 JDK HttpClient 异步调用（连接复用，可配置连接和请求超时），不占用 Web 请求线程
+ * 2. 同一帖子/评论的并发分析请求合并为一次调用
+ * 3. 可选微批：短时间内的多条文本合并为一次批量调用（需要分析服务提供批量接口）
+ * 4. 熔断：连续失败后在一段时间内直接拒绝调用，避免分析服务变慢时拖垮本服务
+ * 5. 每次 HTTP 调用按接口（analyze / batch）和结果记录耗时（sentiment.client.requests）
+ *
+ * 开启虚拟线程（spring.threads.virtual.enabled）时，响应回调（包括随后保存分析结果的数据库写入）
+ * 在虚拟线程上执行，不再使用 HttpClient 默认的平台线程池。
+ *
+ * 调用失败时返回的 future 以 {@link SentimentUnavailableException} 异常完成。
+ */
+@Component
+public class SentimentClient {
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {
+    };
+
+    private final URI analyzeUri;
+    private final URI batchUri;
+    private final Duration requestTimeout;
+    private final boolean batchEnabled;
+    private final int batchMaxSize;
+    private final long batchMaxWaitMillis;
+
+    private final HttpClient httpClient;
+    private final ExecutorService callbackExecutor;
+    private final CircuitBreaker circuitBreaker;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // key 为 "post:ID" / "comment:ID"，正在进行中的分析
+    private final ConcurrentHashMap<String, CompletableFuture<SentimentResult>> inFlight = new ConcurrentHashMap<>();
+
+    // 微批：等待发送的文本
+    private final Queue<PendingText> batchQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger batchQueueSize = new AtomicInteger();
+    private final AtomicBoolean batchScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService batchScheduler;
+
+    private final Timer analyzeSuccessTimer;
+    private final Timer analyzeErrorTimer;
+    private final Timer batchSuccessTimer;
+    private final Timer batchErrorTimer;
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    public SentimentClient(
+            @Value("${schoolwall.sentiment.base-url:http://localhost:5000}") String baseUrl,
+            @Value("${schoolwall.sentiment.connect-timeout-ms:1000}") long connectTimeoutMillis,
+            @Value("${schoolwall.sentiment.request-timeout-ms:3000}") long requestTimeoutMillis,
+            @Value("${schoolwall.sentiment.batch.enabled:false}") boolean batchEnabled,
+            @Value("${schoolwall.sentiment.batch.max-size:16}") int batchMaxSize,
+            @Value("${schoolwall.sentiment.batch.max-wait-ms:20}") long batchMaxWaitMillis,
+            @Value("${schoolwall.sentiment.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${schoolwall.sentiment.circuit-breaker.open-duration-ms:30000}") long openDurationMillis,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            MeterRegistry meterRegistry) {
+        String base = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.analyzeUri = URI.create(base + "/analyze_sentiment");
+        this.batchUri = URI.create(base + "/analyze_sentiment_batch");
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        this.batchEnabled = batchEnabled;
+        this.batchMaxSize = batchMaxSize;
+        this.batchMaxWaitMillis = batchMaxWaitMillis;
+        this.callbackExecutor = virtualThreads ? Executors.newVirtualThreadPerTaskExecutor() : null;
+        HttpClient.Builder httpClientBuilder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis));
+        if (callbackExecutor != null) {
+            httpClientBuilder.executor(callbackExecutor);
+        }
+        this.httpClient = httpClientBuilder.build();
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDurationMillis, System::currentTimeMillis);
+        this.batchScheduler = batchEnabled ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sentiment-batcher");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        this.analyzeSuccessTimer = requestTimer(meterRegistry, "analyze", "success");
+        this.analyzeErrorTimer = requestTimer(meterRegistry, "analyze", "error");
+        this.batchSuccessTimer = requestTimer(meterRegistry, "batch", "success");
+        this.batchErrorTimer = requestTimer(meterRegistry, "batch", "error");
+    }
+
+    private static Timer requestTimer(MeterRegistry meterRegistry, String operation, String outcome) {
+        return Timer.builder("sentiment.client.requests")
+                .description("Sentiment service HTTP call time")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 分析文本情绪
+     *
+     * @param key  请求标识（如 "post:1"），相同 key 的并发请求共享同一次分析
+     * @param text 待分析文本
+     */
+    public CompletableFuture<SentimentResult> analyze(String key, String text) {
+        CompletableFuture<SentimentResult> created = new CompletableFuture<>();
+        CompletableFuture<SentimentResult> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalescedCount.incrementAndGet();
+            return existing;
+        }
+        created.whenComplete((result, error) -> inFlight.remove(key, created));
+
+        if (!circuitBreaker.tryAcquire()) {
+            created.completeExceptionally(new SentimentUnavailableException("Sentiment service circuit is open"));
+            return created;
+        }
+
+        if (batchEnabled) {
+            enqueue(new PendingText(text, created));
+        } else {
+            send(analyzeUri, Map.of("text", text))
+                    .thenApply(this::toResult)
+                    .whenComplete((result, error) -> complete(created, result, error));
+        }
+        return created;
+    }
+
+    private void enqueue(PendingText pending) {
+        batchQueue.add(pending);
+        if (batchQueueSize.incrementAndGet() >= batchMaxSize) {
+            batchScheduler.execute(this::flushBatch);
+        } else if (batchScheduled.compareAndSet(false, true)) {
+            batchScheduler.schedule(this::flushBatch, batchMaxWaitMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 取出最多 batchMaxSize 条文本发送一次批量请求，剩余的继续排队
+     */
+    private void flushBatch() {
+        batchScheduled.set(false);
+        List<PendingText> batch = new ArrayList<>(batchMaxSize);
+        PendingText pending;
+        while (batch.size() < batchMaxSize && (pending = batchQueue.poll()) != null) {
+            batchQueueSize.decrementAndGet();
+            batch.add(pending);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (!batchQueue.isEmpty() && batchScheduled.compareAndSet(false, true)) {
+            batchScheduler.schedule(this::flushBatch, batchMaxWaitMillis, TimeUnit.MILLISECONDS);
+        }
+
+        List<String> texts = new ArrayList<>(batch.size());
+        batch.forEach(item -> texts.add(item.text));
+        send(batchUri, Map.of("texts", texts)).whenComplete((body, error) -> {
+            List<SentimentResult> results = null;
+            Throwable failure = error;
+            if (failure == null) {
+                try {
+                    results = toBatchResults(body, batch.size());
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+            // 一次批量调用只计一次熔断成功/失败
+            if (failure != null) {
+                circuitBreaker.onFailure();
+                for (PendingText item : batch) {
+                    fail(item.future, failure);
+                }
+                return;
+            }
+            circuitBreaker.onSuccess();
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future.complete(results.get(i));
+            }
+        });
+    }
+
+    /**
+     * 发送 JSON 请求，返回解析后的响应体；网络错误、超时和非 2xx 响应都以异常完成
+     */
+    private CompletableFuture<Map<String, Object>> send(URI uri, Object payload) {
+        requestCount.incrementAndGet();
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(uri)
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(payload)))
+                    .build();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        boolean batch = uri.equals(batchUri);
+        long start = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    boolean success = error == null && response.statusCode() / 100 == 2;
+                    Timer timer = batch
+                            ? (success ? batchSuccessTimer : batchErrorTimer)
+                            : (success ? analyzeSuccessTimer : analyzeErrorTimer);
+                    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                })
+                .thenApply(response -> {
+                    if (response.statusCode() / 100 != 2) {
+                        throw new SentimentUnavailableException(
+                                "Sentiment service returned HTTP " + response.statusCode());
+                    }
+                    try {
+                        Map<String, Object> body = objectMapper.readValue(response.body(), JSON_OBJECT);
+                        if (!Boolean.TRUE.equals(body.get("success"))) {
+                            throw new SentimentUnavailableException("Sentiment service error: " + body.get("error"));
+                        }
+                        return body;
+                    } catch (SentimentUnavailableException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new SentimentUnavailableException("Invalid sentiment service response", e);
+                    }
+                });
+    }
+
+    private void complete(CompletableFuture<SentimentResult> future, SentimentResult result, Throwable error) {
+        if (error == null) {
+            circuitBreaker.onSuccess();
+            future.complete(result);
+        } else {
+            circuitBreaker.onFailure();
+            fail(future, error);
+        }
+    }
+
+    private void fail(CompletableFuture<SentimentResult> future, Throwable error) {
+        failureCount.incrementAndGet();
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        future.completeExceptionally(cause instanceof SentimentUnavailableException
+                ? cause
+                : new SentimentUnavailableException("Sentiment analysis failed: " + cause.getMessage(), cause));
+    }
+
+    private SentimentResult toResult(Map<String, Object> body) {
+        SentimentResult result = new SentimentResult();
+        result.setSentiment((String) body.get("sentiment"));
+        result.setConfidence(body.get("confidence") != null ? Double.valueOf(body.get("confidence").toString()) : null);
+        result.setProbabilities(objectMapper.convertValue(body.get("probabilities"),
+                new TypeReference<Map<String, Double>>() {
+                }));
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SentimentResult> toBatchResults(Map<String, Object> body, int expected) {
+        Object results = body.get("results");
+        if (!(results instanceof List) || ((List<?>) results).size() != expected) {
+            throw new SentimentUnavailableException("Batch response does not match request size " + expected);
+        }
+        List<SentimentResult> parsed = new ArrayList<>(expected);
+        for (Object item : (List<Object>) results) {
+            parsed.add(toResult((Map<String, Object>) item));
+        }
+        return parsed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (batchScheduler != null) {
+            batchScheduler.shutdown();
+        }
+        if (callbackExecutor != null) {
+            callbackExecutor.shutdown();
+        }
+    }
+
+    /**
+     * 熔断器状态：CLOSED / OPEN / HALF_OPEN
+     */
+    public String getCircuitState() {
+        return circuitBreaker.getState().name();
+    }
+
+    /**
+     * 启动以来发往分析服务的 HTTP 请求数（批量请求计一次）
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * 启动以来分析失败的次数
+     */
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    /**
+     * 启动以来被熔断直接拒绝的次数
+     */
+    public long getRejectedCount() {
+        return circuitBreaker.getRejectedCalls();
+    }
+
+    /**
+     * 启动以来被合并到进行中请求的次数
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    private static class PendingText {
+        private final String text;
+        private final CompletableFuture<SentimentResult> future;
+
+        PendingText(String text, CompletableFuture<SentimentResult> future) {
+            this.text = text;
+            this.future = future;
+        }
+    }
+}
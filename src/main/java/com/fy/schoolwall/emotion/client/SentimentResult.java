@@ -0,0 +1,15 @@
+package com.fy.schoolwall.emotion.client;
+
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * 情绪分析服务返回的单条结果
+ */
+@Data
+public class SentimentResult {
+    private String sentiment;
+    private Double confidence;
+    private Map<String, Double> probabilities;
+}
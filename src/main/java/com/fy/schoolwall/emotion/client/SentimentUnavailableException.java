@@ -0,0 +1,15 @@
+package com.fy.schoolwall.emotion.client;
+
+/**
+ * 情绪分析服务不可用（熔断、超时、请求失败或返回错误）
+ */
+public class SentimentUnavailableException extends RuntimeException {
+
+    public SentimentUnavailableException(String message) {
+        super(message);
+    }
+
+    public SentimentUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -5,6 +5,8 @@ import com.fy.schoolwall.emotion.service.EmotionService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/emotion")
 public class EmotionController {
@@ -16,17 +18,19 @@ public class EmotionController {
 
     /**
      * 获取或生成帖子的情绪分析
+     * 异步返回，等待分析服务期间不占用请求线程；分析服务不可用时 sentiment 为 PENDING
      */
     @GetMapping("/post/{postId}")
-    public ResponseEntity<EmotionDto> getPostEmotion(@PathVariable Long postId) {
-        return ResponseEntity.ok(emotionService.getOrAnalyzeByPostId(postId));
+    public CompletableFuture<ResponseEntity<EmotionDto>> getPostEmotion(@PathVariable Long postId) {
+        return emotionService.getOrAnalyzeByPostId(postId).thenApply(ResponseEntity::ok);
     }
 
     /**
      * 获取或生成评论的情绪分析
+     * 异步返回，等待分析服务期间不占用请求线程；分析服务不可用时 sentiment 为 PENDING
      */
     @GetMapping("/comment/{commentId}")
-    public ResponseEntity<EmotionDto> getCommentEmotion(@PathVariable Long commentId) {
-        return ResponseEntity.ok(emotionService.getOrAnalyzeByCommentId(commentId));
+    public CompletableFuture<ResponseEntity<EmotionDto>> getCommentEmotion(@PathVariable Long commentId) {
+        return emotionService.getOrAnalyzeByCommentId(commentId).thenApply(ResponseEntity::ok);
     }
 }
\ No newline at end of file
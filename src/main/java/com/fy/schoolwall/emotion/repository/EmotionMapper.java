@@ -4,12 +4,31 @@ import com.fy.schoolwall.emotion.model.Emotion;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface EmotionMapper {
     Emotion findByPostId(@Param("postId") Long postId);
     Emotion findByCommentId(@Param("commentId") Long commentId);
     void insert(Emotion emotion);
+
+    // 批量插入并回填主键；存在重复的帖子/评论时抛出 DuplicateKeyException
+    int batchInsert(@Param("emotions") List<Emotion> emotions);
+
+    // 用户情绪计数
+    void incrementUserSentimentCounters(@Param("emotionIds") List<Long> emotionIds);
+
+    void decrementUserSentimentCountersForPost(@Param("postId") Long postId);
+
+    void decrementUserSentimentCountersForComments(@Param("commentIds") List<Long> commentIds);
+
+    // 返回 source, sentiment, emotion_count
+    List<Map<String, Object>> findUserSentimentCounters(@Param("userId") Long userId);
+
+    // 返回 sentiment, emotion_count
+    List<Map<String, Object>> countUserPostEmotionsBySentiment(@Param("userId") Long userId);
+
+    List<Map<String, Object>> countUserCommentEmotionsBySentiment(@Param("userId") Long userId);
     List<Emotion> findEmotionsForUserPosts(@Param("userId") Long userId);
     List<Emotion> findEmotionsForUserComments(@Param("userId") Long userId);
 }
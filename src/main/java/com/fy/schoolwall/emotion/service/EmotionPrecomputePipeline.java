@@ -0,0 +1,252 @@
+package com.fy.schoolwall.emotion.service;
+
+import com.fy.schoolwall.comment.event.CommentCreatedEvent;
+import com.fy.schoolwall.emotion.client.SentimentClient;
+import com.fy.schoolwall.emotion.client.SentimentResult;
+import com.fy.schoolwall.emotion.model.Emotion;
+import com.fy.schoolwall.post.event.PostChangedEvent;
+import com.fy.schoolwall.post.model.Post;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 情绪分析预计算流水线
+ *
+ * 意义：
+ * 1. 帖子发布、评论创建的事务提交后把文本放入有界队列，由后台线程调用分析服务，
+ *    用户查看情绪时通常已经有结果，不再承担模型延迟
+ * 2. 固定数量的工作线程消费队列，每次取一批任务并行分析，结果用一条批量 INSERT 写入（同时累加用户情绪计数）
+ * 3. 队列满时直接丢弃新任务（背压），不阻塞业务请求；被丢弃或分析失败的目标在首次查看时按需分析
+ *
+ * 开启虚拟线程（spring.threads.virtual.enabled）时工作线程为虚拟线程，数量仍由 worker-count 限定，
+ * 即对分析服务的并发不变，等待分析和写库期间不占用平台线程。
+ */
+@Component
+public class EmotionPrecomputePipeline {
+
+    private final SentimentClient sentimentClient;
+    private final EmotionWriter emotionWriter;
+    private final EmotionService emotionService;
+
+    private final boolean enabled;
+    private final int workerCount;
+    private final int batchSize;
+    private final long analysisTimeoutMillis;
+    private final boolean virtualThreads;
+    private final BlockingQueue<Task> queue;
+
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong savedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    public EmotionPrecomputePipeline(SentimentClient sentimentClient, EmotionWriter emotionWriter,
+            EmotionService emotionService,
+            @Value("${schoolwall.sentiment.precompute.enabled:true}") boolean enabled,
+            @Value("${schoolwall.sentiment.precompute.queue-capacity:1000}") int queueCapacity,
+            @Value("${schoolwall.sentiment.precompute.worker-count:2}") int workerCount,
+            @Value("${schoolwall.sentiment.precompute.batch-size:20}") int batchSize,
+            @Value("${schoolwall.sentiment.precompute.analysis-timeout-ms:10000}") long analysisTimeoutMillis,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.sentimentClient = sentimentClient;
+        this.emotionWriter = emotionWriter;
+        this.emotionService = emotionService;
+        this.enabled = enabled;
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.analysisTimeoutMillis = analysisTimeoutMillis;
+        this.virtualThreads = virtualThreads;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * 分析任务：postId 和 commentId 只有一个不为空
+     */
+    static class Task {
+        private final Long postId;
+        private final Long commentId;
+        private final String text;
+
+        Task(Long postId, Long commentId, String text) {
+            this.postId = postId;
+            this.commentId = commentId;
+            this.text = text;
+        }
+
+        String key() {
+            return postId != null ? "post:" + postId : "comment:" + commentId;
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        if (virtualThreads) {
+            workers = Executors.newFixedThreadPool(workerCount,
+                    Thread.ofVirtual().name("emotion-precompute-", 1).factory());
+        } else {
+            AtomicInteger threadIndex = new AtomicInteger();
+            workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+                Thread thread = new Thread(runnable, "emotion-precompute-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::runWorker);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * 帖子发布后（直接以发布状态创建或草稿发布）预计算帖子情绪
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        Post post = event.getPost();
+        boolean published = event.getType() == PostChangedEvent.Type.PUBLISHED
+                || event.getType() == PostChangedEvent.Type.CREATED;
+        if (published && post != null && post.isPublished()) {
+            submit(new Task(post.getId(), null, post.getContent()));
+        }
+    }
+
+    /**
+     * 评论创建后预计算评论情绪
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        submit(new Task(null, event.getCommentId(), event.getContent()));
+    }
+
+    /**
+     * 放入队列，队列已满时丢弃（之后按需分析）
+     */
+    boolean submit(Task task) {
+        if (!enabled || task.text == null || task.text.isBlank()) {
+            return false;
+        }
+        if (queue.offer(task)) {
+            enqueuedCount.incrementAndGet();
+            return true;
+        }
+        droppedCount.incrementAndGet();
+        return false;
+    }
+
+    private void runWorker() {
+        List<Task> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Task first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                processBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.err.println("Emotion precompute batch failed: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 并行分析一批文本，成功的结果一次性批量写入
+     */
+    void processBatch(List<Task> batch) throws InterruptedException {
+        List<CompletableFuture<SentimentResult>> futures = new ArrayList<>(batch.size());
+        for (Task task : batch) {
+            futures.add(sentimentClient.analyze(task.key(), task.text));
+        }
+
+        long deadline = System.currentTimeMillis() + analysisTimeoutMillis;
+        List<Emotion> emotions = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Task task = batch.get(i);
+            try {
+                long remaining = Math.max(0, deadline - System.currentTimeMillis());
+                SentimentResult result = futures.get(i).get(remaining, TimeUnit.MILLISECONDS);
+                emotions.add(emotionService.toEmotion(result, task.text, task.postId, task.commentId));
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                failedCount.incrementAndGet();
+            }
+        }
+
+        if (!emotions.isEmpty()) {
+            savedCount.addAndGet(emotionWriter.insertAll(emotions).size());
+        }
+    }
+
+    /**
+     * 当前排队中的任务数
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * 启动以来入队的任务数
+     */
+    public long getEnqueuedCount() {
+        return enqueuedCount.get();
+    }
+
+    /**
+     * 启动以来因队列已满被丢弃的任务数
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * 启动以来写入的分析结果数（不包含因已存在而被跳过的）
+     */
+    public long getSavedCount() {
+        return savedCount.get();
+    }
+
+    /**
+     * 启动以来分析失败或超时的任务数
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+}
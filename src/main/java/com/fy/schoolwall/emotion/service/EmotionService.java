@@ -1,5 +1,7 @@
 package com.fy.schoolwall.emotion.service;
 
+import com.fy.schoolwall.emotion.client.SentimentClient;
+import com.fy.schoolwall.emotion.client.SentimentResult;
 import com.fy.schoolwall.emotion.model.Emotion;
 import com.fy.schoolwall.emotion.repository.EmotionMapper;
 import com.fy.schoolwall.emotion.dto.EmotionDto;
@@ -8,87 +10,129 @@ import com.fy.schoolwall.comment.repository.CommentMapper;
 import com.fy.schoolwall.post.model.Post;
 import com.fy.schoolwall.comment.model.Comment;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class EmotionService {
+
+    // 分析服务不可用时返回的情绪状态，该结果不会保存，之后的请求会重新分析
+    public static final String PENDING_SENTIMENT = "PENDING";
+
     private final EmotionMapper emotionMapper;
     private final PostMapper postMapper;
     private final CommentMapper commentMapper;
-    private final RestTemplate restTemplate;
+    private final SentimentClient sentimentClient;
+    private final EmotionWriter emotionWriter;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    public EmotionService(EmotionMapper emotionMapper, PostMapper postMapper, CommentMapper commentMapper) {
+    // 正在分析并保存的帖子/评论，同一目标的并发请求共享结果，避免重复插入
+    private final ConcurrentHashMap<String, CompletableFuture<EmotionDto>> analyses = new ConcurrentHashMap<>();
+
+    public EmotionService(EmotionMapper emotionMapper, PostMapper postMapper, CommentMapper commentMapper,
+            SentimentClient sentimentClient, EmotionWriter emotionWriter) {
         this.emotionMapper = emotionMapper;
         this.postMapper = postMapper;
         this.commentMapper = commentMapper;
-        this.restTemplate = new RestTemplate();
+        this.sentimentClient = sentimentClient;
+        this.emotionWriter = emotionWriter;
     }
 
-    public EmotionDto getOrAnalyzeByPostId(Long postId) {
+    public CompletableFuture<EmotionDto> getOrAnalyzeByPostId(Long postId) {
         Emotion emotion = emotionMapper.findByPostId(postId);
         if (emotion != null) {
-            return toDto(emotion);
+            return CompletableFuture.completedFuture(toDto(emotion));
         }
         Post post = postMapper.findById(postId);
         if (post == null)
             throw new RuntimeException("Post not found");
-        return analyzeAndSave(post.getContent(), postId, null);
+        return analyzeAndSave("post:" + postId, post.getContent(), postId, null);
     }
 
-    public EmotionDto getOrAnalyzeByCommentId(Long commentId) {
+    public CompletableFuture<EmotionDto> getOrAnalyzeByCommentId(Long commentId) {
         Emotion emotion = emotionMapper.findByCommentId(commentId);
         if (emotion != null) {
-            return toDto(emotion);
+            return CompletableFuture.completedFuture(toDto(emotion));
         }
         Comment comment = commentMapper.findById(commentId);
         if (comment == null)
             throw new RuntimeException("Comment not found");
-        return analyzeAndSave(comment.getContent(), null, commentId);
+        return analyzeAndSave("comment:" + commentId, comment.getContent(), null, commentId);
     }
 
-    private EmotionDto analyzeAndSave(String text, Long postId, Long commentId) {
-        // 调用外部API
-        String url = "http://localhost:5000/analyze_sentiment";
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        Map<String, String> req = Map.of("text", text);
-        HttpEntity<Map<String, String>> entity = new HttpEntity<>(req, headers);
+    /**
+     * 异步调用情绪分析服务并保存结果；服务不可用时降级为 PENDING（不保存）
+     */
+    private CompletableFuture<EmotionDto> analyzeAndSave(String key, String text, Long postId, Long commentId) {
+        CompletableFuture<EmotionDto> created = new CompletableFuture<>();
+        CompletableFuture<EmotionDto> existing = analyses.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        sentimentClient.analyze(key, text)
+                .thenApply(result -> save(result, text, postId, commentId))
+                .whenComplete((dto, error) -> {
+                    analyses.remove(key, created);
+                    if (error == null) {
+                        created.complete(dto);
+                    } else {
+                        System.err.println("Emotion analysis unavailable for " + key + ": " + error.getMessage());
+                        created.complete(pending(text, postId, commentId));
+                    }
+                });
+        return created;
+    }
 
-        ResponseEntity<String> response = restTemplate.postForEntity(url, entity, String.class);
-        try {
-            // 解析API返回
-            Map<String, Object> result = objectMapper.readValue(
-                    response.getBody(),
-                    new TypeReference<Map<String, Object>>() {
-                    });
-            if (!(Boolean) result.getOrDefault("success", false)) {
-                throw new RuntimeException("Emotion API error: " + result.get("error"));
+    private EmotionDto save(SentimentResult result, String text, Long postId, Long commentId) {
+        Emotion emotion = toEmotion(result, text, postId, commentId);
+        if (emotionWriter.insertAll(List.of(emotion)).isEmpty()) {
+            // 后台预计算已经写入了该目标的结果，以已保存的为准
+            Emotion saved = postId != null ? emotionMapper.findByPostId(postId) : emotionMapper.findByCommentId(commentId);
+            if (saved == null) {
+                throw new RuntimeException("Emotion analysis result could not be saved");
             }
-            Emotion emotion = new Emotion();
-            emotion.setPostId(postId);
-            emotion.setCommentId(commentId);
-            emotion.setText(text);
-            emotion.setSentiment((String) result.get("sentiment"));
-            emotion.setConfidence(
-                    result.get("confidence") != null ? Double.valueOf(result.get("confidence").toString()) : null);
-            emotion.setProbabilitiesJson(objectMapper.writeValueAsString(result.get("probabilities")));
-            emotion.setCreatedAt(LocalDateTime.now());
-            emotionMapper.insert(emotion);
-            return toDto(emotion);
-        } catch (Exception e) {
+            return toDto(saved);
+        }
+        return toDto(emotion);
+    }
+
+    /**
+     * 把分析结果转换为待保存的情绪记录
+     */
+    Emotion toEmotion(SentimentResult result, String text, Long postId, Long commentId) {
+        Emotion emotion = new Emotion();
+        emotion.setPostId(postId);
+        emotion.setCommentId(commentId);
+        emotion.setText(text);
+        emotion.setSentiment(result.getSentiment());
+        emotion.setConfidence(result.getConfidence());
+        try {
+            emotion.setProbabilitiesJson(objectMapper.writeValueAsString(result.getProbabilities()));
+        } catch (JsonProcessingException e) {
             throw new RuntimeException("Emotion analysis failed", e);
         }
+        emotion.setCreatedAt(LocalDateTime.now());
+        return emotion;
+    }
+
+    private EmotionDto pending(String text, Long postId, Long commentId) {
+        EmotionDto dto = new EmotionDto();
+        dto.setPostId(postId);
+        dto.setCommentId(commentId);
+        dto.setText(text);
+        dto.setSentiment(PENDING_SENTIMENT);
+        return dto;
     }
 
-    private EmotionDto toDto(Emotion emotion) {
+    EmotionDto toDto(Emotion emotion) {
         EmotionDto dto = new EmotionDto();
         dto.setId(emotion.getId());
         dto.setPostId(emotion.getPostId());
@@ -0,0 +1,69 @@
+package com.fy.schoolwall.emotion.service;
+
+import com.fy.schoolwall.emotion.model.Emotion;
+import com.fy.schoolwall.emotion.repository.EmotionMapper;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 情绪分析结果写入
+ *
+ * 意义：
+ * 1. 情绪记录和用户情绪计数（user_sentiment_counters）在同一事务中写入，计数与明细保持一致
+ * 2. 一批结果用一条多行 INSERT 写入，计数用一条聚合后的 INSERT ... ON DUPLICATE KEY UPDATE 累加
+ * 3. 某个帖子/评论已有结果时（唯一索引冲突）退化为逐条写入并跳过已存在的记录，已存在的记录不重复计数
+ */
+@Component
+public class EmotionWriter {
+
+    private final EmotionMapper emotionMapper;
+
+    public EmotionWriter(EmotionMapper emotionMapper) {
+        this.emotionMapper = emotionMapper;
+    }
+
+    /**
+     * 写入情绪记录并累加用户情绪计数
+     *
+     * @return 实际写入的记录（不包含因已存在而跳过的）
+     */
+    @Transactional
+    public List<Emotion> insertAll(List<Emotion> emotions) {
+        if (emotions.isEmpty()) {
+            return emotions;
+        }
+
+        List<Emotion> inserted;
+        try {
+            emotionMapper.batchInsert(emotions);
+            inserted = emotions;
+        } catch (DuplicateKeyException e) {
+            // 多行 INSERT 在 MySQL 中整条语句失败，不会留下部分数据
+            inserted = new ArrayList<>(emotions.size());
+            for (Emotion emotion : emotions) {
+                try {
+                    emotionMapper.insert(emotion);
+                    inserted.add(emotion);
+                } catch (DuplicateKeyException duplicate) {
+                    // 已有结果，跳过
+                }
+            }
+        }
+
+        List<Long> insertedIds = new ArrayList<>(inserted.size());
+        for (Emotion emotion : inserted) {
+            if (emotion.getId() != null) {
+                insertedIds.add(emotion.getId());
+            }
+        }
+        if (!insertedIds.isEmpty()) {
+            emotionMapper.incrementUserSentimentCounters(insertedIds);
+        }
+        return inserted;
+    }
+}
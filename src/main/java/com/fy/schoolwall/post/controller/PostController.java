@@ -106,6 +106,20 @@ public class PostController {
         return ResponseEntity.ok(feed);
     }
 
+    /**
+     * 获取帖子动态列表（游标分页，适合无限滚动）
+     * GET /api/posts/feed/cursor?cursor=xxx&size=10
+     */
+    @GetMapping("/feed/cursor")
+    public ResponseEntity<PaginationUtil.CursorPageResponse<PostFeedItemDto>> getPostFeedByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size) {
+
+        int validSize = PaginationUtil.validateCursorPageSize(size);
+        PaginationUtil.CursorPageResponse<PostFeedItemDto> feed = postService.getPostFeedByCursor(cursor, validSize);
+        return ResponseEntity.ok(feed);
+    }
+
     /**
      * 根据分类获取帖子 - 使用枚举验证
      * GET /api/posts/category/{category}
@@ -183,11 +197,13 @@ public class PostController {
      */
     @GetMapping("/categories")
     public ResponseEntity<Map<String, Object>> getPostCategories() {
-        List<Map<String, String>> categories = Arrays.stream(PostCategory.values())
+        Map<String, Long> postCounts = postService.getCategoryPostCounts();
+        List<Map<String, Object>> categories = Arrays.stream(PostCategory.values())
                 .map(category -> {
-                    Map<String, String> categoryMap = new HashMap<>();
+                    Map<String, Object> categoryMap = new HashMap<>();
                     categoryMap.put("code", category.getCode());
                     categoryMap.put("displayName", category.getDisplayName());
+                    categoryMap.put("postCount", postCounts.getOrDefault(category.getCode(), 0L));
                     return categoryMap;
                 })
                 .collect(Collectors.toList());
@@ -0,0 +1,67 @@
+package com.fy.schoolwall.post.dto;
+
+import com.fy.schoolwall.post.model.Post;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 帖子动态流的游标
+ *
+ * 对应排序键 (is_top, published_at, id)，对客户端是不透明的 Base64 字符串。
+ * 客户端只需把上一页返回的 nextCursor 原样带回即可。
+ */
+@Getter
+public class FeedCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final boolean top;
+    private final LocalDateTime publishedAt;
+    private final long id;
+
+    public FeedCursor(boolean top, LocalDateTime publishedAt, long id) {
+        this.top = top;
+        this.publishedAt = publishedAt;
+        this.id = id;
+    }
+
+    /**
+     * 以某一页的最后一条帖子生成下一页游标
+     */
+    public static FeedCursor after(Post post) {
+        return new FeedCursor(Boolean.TRUE.equals(post.getIsTop()), post.getPublishedAt(), post.getId());
+    }
+
+    /**
+     * 编码为不透明的游标字符串
+     */
+    public String encode() {
+        String raw = (top ? "1" : "0") + SEPARATOR + publishedAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标字符串
+     *
+     * @param cursor 游标，为空时返回 null 表示第一页
+     */
+    public static FeedCursor decode(String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid feed cursor: " + cursor);
+            }
+            return new FeedCursor("1".equals(parts[0]), LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid feed cursor: " + cursor, e);
+        }
+    }
+}
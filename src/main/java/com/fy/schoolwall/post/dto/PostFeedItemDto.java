@@ -2,7 +2,11 @@ package com.fy.schoolwall.post.dto;
 
 import com.fy.schoolwall.common.enums.PostCategory;
 import lombok.Data;
+import org.springframework.web.util.HtmlUtils;
+
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
 
 @Data
 public class PostFeedItemDto {
@@ -40,4 +44,64 @@ public class PostFeedItemDto {
             this.summary = content;
         }
     }
+
+    /**
+     * 生成搜索结果摘要：截取第一个命中词附近的内容，HTML 转义后用 <em> 标记命中词
+     */
+    public void generateHighlightedSummary(String content, List<String> terms) {
+        if (content == null || terms == null || terms.isEmpty()) {
+            generateSummary(content);
+            if (this.summary != null) {
+                this.summary = HtmlUtils.htmlEscape(this.summary);
+            }
+            return;
+        }
+
+        String lowerContent = content.toLowerCase(Locale.ROOT);
+        if (lowerContent.length() != content.length()) {
+            // 个别字符转小写后长度会变化，此时按原文匹配以保证下标一致
+            lowerContent = content;
+        }
+        int firstMatch = -1;
+        for (String term : terms) {
+            int index = lowerContent.indexOf(term.toLowerCase(Locale.ROOT));
+            if (index >= 0 && (firstMatch < 0 || index < firstMatch)) {
+                firstMatch = index;
+            }
+        }
+
+        // 命中词放在摘要前部，前面保留少量上下文
+        int start = firstMatch > 50 ? firstMatch - 50 : 0;
+        int end = Math.min(content.length(), start + 150);
+        String window = content.substring(start, end);
+        String lowerWindow = lowerContent.substring(start, end);
+
+        StringBuilder highlighted = new StringBuilder();
+        if (start > 0) {
+            highlighted.append("...");
+        }
+        int position = 0;
+        while (position < window.length()) {
+            int matchLength = 0;
+            for (String term : terms) {
+                if (term.length() > matchLength
+                        && lowerWindow.startsWith(term.toLowerCase(Locale.ROOT), position)) {
+                    matchLength = term.length();
+                }
+            }
+            if (matchLength > 0) {
+                highlighted.append("<em>")
+                        .append(HtmlUtils.htmlEscape(window.substring(position, position + matchLength)))
+                        .append("</em>");
+                position += matchLength;
+            } else {
+                highlighted.append(HtmlUtils.htmlEscape(String.valueOf(window.charAt(position))));
+                position++;
+            }
+        }
+        if (end < content.length()) {
+            highlighted.append("...");
+        }
+        this.summary = highlighted.toString();
+    }
 }
\ No newline at end of file
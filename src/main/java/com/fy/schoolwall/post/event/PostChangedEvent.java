@@ -0,0 +1,63 @@
+package com.fy.schoolwall.post.event;
+
+import com.fy.schoolwall.post.model.Post;
+
+import java.util.List;
+
+/**
+ * 帖子变更事件
+ *
+ * 帖子写操作（创建、编辑、发布、删除以及管理员的状态调整）完成后发布，
+ * 供搜索索引、缓存等派生数据在事务提交后同步更新。
+ */
+public class PostChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        PUBLISHED,
+        DELETED,
+        STATUS_CHANGED,
+        TOP_CHANGED,
+        RECOMMENDED_CHANGED
+    }
+
+    private final Type type;
+    private final List<Long> postIds;
+    // 变更后的帖子；批量操作或删除时为 null，监听方需要时自行按 ID 重新加载
+    private final Post post;
+
+    private PostChangedEvent(Type type, List<Long> postIds, Post post) {
+        this.type = type;
+        this.postIds = postIds;
+        this.post = post;
+    }
+
+    public static PostChangedEvent of(Type type, Post post) {
+        return new PostChangedEvent(type, List.of(post.getId()), post);
+    }
+
+    public static PostChangedEvent of(Type type, Long postId) {
+        return new PostChangedEvent(type, List.of(postId), null);
+    }
+
+    public static PostChangedEvent deleted(Long postId) {
+        return of(Type.DELETED, postId);
+    }
+
+    public static PostChangedEvent bulkStatusChanged(List<Long> postIds) {
+        return new PostChangedEvent(Type.STATUS_CHANGED, List.copyOf(postIds), null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public List<Long> getPostIds() {
+        return postIds;
+    }
+
+    public Post getPost() {
+        return post;
+    }
+}
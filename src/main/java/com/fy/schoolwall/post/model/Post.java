@@ -34,15 +34,6 @@ public class Post {
         }
     }
 
-    /**
-     * 生成唯一slug
-     */
-    public void generateUniqueSlug() {
-        if (this.title != null && !this.title.trim().isEmpty()) {
-            this.slug = SlugGenerator.generateUniqueSlug(this.title);
-        }
-    }
-
     /**
      * 检查是否已发布
      */
@@ -0,0 +1,13 @@
+package com.fy.schoolwall.post.model;
+
+import lombok.Data;
+
+/**
+ * 按 (状态, 分类) 统计的帖子数；增减计数时 postCount 为增量
+ */
+@Data
+public class PostCounter {
+    private String status;
+    private String category; // 分类代码，未分类为空字符串
+    private long postCount;
+}
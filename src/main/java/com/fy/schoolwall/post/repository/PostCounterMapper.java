@@ -0,0 +1,23 @@
+package com.fy.schoolwall.post.repository;
+
+import com.fy.schoolwall.post.model.PostCounter;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface PostCounterMapper {
+
+    // 按增量累加计数（postCount 为增量），计数项不存在时插入
+    void applyDeltas(@Param("deltas") List<PostCounter> deltas);
+
+    // 计数与 posts 实际数量不一致的计数项（postCount 为实际数量），一致性读，不加锁
+    List<PostCounter> findDrift();
+
+    // 统计 posts 中单个计数项的实际数量（共享锁读取，与并发的创建、修改串行化）
+    long countPostsForShare(@Param("status") String status, @Param("category") String category);
+
+    // 覆盖单个计数项
+    void setCount(PostCounter counter);
+}
@@ -4,6 +4,7 @@ import com.fy.schoolwall.post.model.Post;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -17,6 +18,13 @@ public interface PostMapper {
 
         List<Post> findByAuthorId(Long authorId);
 
+        List<Post> findByIds(@Param("ids") List<Long> ids);
+
+        // 本地搜索索引增量同步使用
+        List<Post> findPostsUpdatedSince(@Param("since") LocalDateTime since);
+
+        List<Long> findPublishedPostIds();
+
         void insert(Post post);
 
         void update(Post post);
@@ -28,11 +36,24 @@ public interface PostMapper {
 
         void updateViewCount(@Param("id") Long id);
 
+        // 批量审核：加锁读取当前状态（返回 id, status, category），再用一条语句更新
+        List<Map<String, Object>> findStatusesByIdsForUpdate(@Param("ids") List<Long> ids);
+
+        int bulkUpdateStatus(@Param("ids") List<Long> ids, @Param("status") String status);
+
+        // 批量累加浏览量，key 为帖子ID，value 为增量
+        void batchIncrementViewCount(@Param("deltas") Map<Long, Long> deltas);
+
         void updateCommentCount(@Param("id") Long id, @Param("increment") boolean increment);
 
         // 查询操作
         List<Post> findPublishedPosts(@Param("offset") int offset, @Param("limit") int limit);
 
+        // 游标分页：cursorId 为 null 时从第一条开始
+        List<Post> findPublishedPostsAfter(@Param("cursorTop") Boolean cursorTop,
+                        @Param("cursorPublishedAt") LocalDateTime cursorPublishedAt, @Param("cursorId") Long cursorId,
+                        @Param("limit") int limit);
+
         List<Post> findPostsByCategory(@Param("category") String category, @Param("offset") int offset,
                         @Param("limit") int limit);
 
@@ -50,7 +71,15 @@ public interface PostMapper {
         List<Post> searchPosts(@Param("keyword") String keyword, @Param("offset") int offset,
                         @Param("limit") int limit);
 
-        // 统计操作
+        long countSearchPosts(@Param("keyword") String keyword);
+
+        // 全文检索（BOOLEAN MODE），按相关度排序
+        List<Post> searchPostsFulltext(@Param("query") String query, @Param("offset") int offset,
+                        @Param("limit") int limit);
+
+        long countSearchPostsFulltext(@Param("query") String query);
+
+        // 统计操作（按状态、分类的总数读取 post_counters）
         long countByStatus(@Param("status") String status);
 
         long countByAuthorId(@Param("authorId") Long authorId);
@@ -79,4 +108,11 @@ public interface PostMapper {
         long countAllPosts();
 
         long countPostsForReview();
-}
\ No newline at end of file
+
+        // 物理删除队列
+        void insertPurgeRequest(@Param("postId") Long postId);
+
+        List<Long> findPurgeRequests(@Param("limit") int limit);
+
+        void deletePurgeRequest(@Param("postId") Long postId);
+}
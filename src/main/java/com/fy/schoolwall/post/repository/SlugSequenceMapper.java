@@ -0,0 +1,14 @@
+package com.fy.schoolwall.post.repository;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+@Mapper
+public interface SlugSequenceMapper {
+
+    // 把序列向前推进 blockSize，返回受影响行数（序列不存在时为 0）
+    int advance(@Param("name") String name, @Param("blockSize") int blockSize);
+
+    // 读取序列的下一个尚未领取的序号（与 advance 在同一事务中调用，读到的是本事务推进后的值）
+    Long findNextValue(@Param("name") String name);
+}
@@ -0,0 +1,709 @@
+package com.fy.schoolwall.post.search;
+
+import com.fy.schoolwall.post.event.PostChangedEvent;
+import com.fy.schoolwall.post.model.Post;
+import com.fy.schoolwall.post.repository.PostMapper;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 帖子本地搜索索引（进程内倒排索引）
+ *
+ * 意义：
+ * 1. 对已发布帖子的标题、标签和内容建立倒排索引，并保存列表展示所需的字段，搜索请求不再访问 MySQL
+ * 2. 使用与 slug 相同的 pinyin4j 分词（见 {@link SearchTokenizer}），拼音查询可以命中中文帖子
+ * 3. 帖子写操作提交后通过 {@link PostChangedEvent} 增量更新
+ * 4. 定期把索引快照写入内存映射文件，重启时直接加载快照，再从数据库补齐快照之后的变更
+ *
+ * 默认关闭（schoolwall.search.local-index.enabled），关闭或尚未加载完成时搜索回退到 MySQL 全文检索。
+ * 浏览量、评论数等计数不随事件更新，由定期全量重建刷新。
+ */
+@Component
+public class PostSearchIndex {
+
+    // 标题和标签命中的权重高于正文
+    private static final int TITLE_WEIGHT = 3;
+    private static final int TAGS_WEIGHT = 2;
+    private static final int CONTENT_WEIGHT = 1;
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final int RELOAD_BATCH_SIZE = 500;
+    // 按 updated_at 补齐变更时向前多取的时间，覆盖快照时仍未提交的事务
+    private static final long CATCH_UP_MARGIN_MINUTES = 5;
+
+    private static final int SNAPSHOT_MAGIC = 0x53575358;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int SNAPSHOT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private final PostMapper postMapper;
+    private final boolean enabled;
+    private final Path snapshotPath;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private IndexData data = new IndexData();
+
+    private volatile boolean ready;
+    private volatile boolean dirty;
+    // 全量重建期间收到的变更，重建完成后按 ID 重新加载
+    private Set<Long> changedDuringRebuild;
+    private volatile long lastRebuildDurationMillis;
+
+    public PostSearchIndex(PostMapper postMapper,
+            @Value("${schoolwall.search.local-index.enabled:false}") boolean enabled,
+            @Value("${schoolwall.search.local-index.snapshot-path:data/post-search-index.bin}") String snapshotPath) {
+        this.postMapper = postMapper;
+        this.enabled = enabled;
+        this.snapshotPath = Paths.get(snapshotPath);
+    }
+
+    /**
+     * 搜索结果
+     */
+    public static class SearchResult {
+        private final List<Post> posts;
+        private final long totalElements;
+
+        SearchResult(List<Post> posts, long totalElements) {
+            this.posts = posts;
+            this.totalElements = totalElements;
+        }
+
+        public List<Post> getPosts() {
+            return posts;
+        }
+
+        public long getTotalElements() {
+            return totalElements;
+        }
+    }
+
+    /**
+     * 索引是否可以提供搜索
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * 搜索已发布帖子，所有检索词都需要命中，按相关度、发布时间、ID 降序排列
+     *
+     * @param terms 检索词（已按空白拆分）
+     */
+    public SearchResult search(List<String> terms, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Map<Long, Integer>> postingLists = new ArrayList<>();
+            for (String term : terms) {
+                for (String token : SearchTokenizer.tokenizeForQuery(term, data.postings::containsKey)) {
+                    Map<Long, Integer> postings = data.postings.get(token);
+                    if (postings == null) {
+                        return new SearchResult(List.of(), 0);
+                    }
+                    postingLists.add(postings);
+                }
+            }
+            if (postingLists.isEmpty()) {
+                return new SearchResult(List.of(), 0);
+            }
+
+            // 从最短的倒排表开始求交集
+            postingLists.sort(Comparator.comparingInt(Map::size));
+            int documentCount = data.docs.size();
+            Map<Long, Double> scores = new HashMap<>();
+            candidates: for (Map.Entry<Long, Integer> entry : postingLists.get(0).entrySet()) {
+                double score = 0;
+                for (Map<Long, Integer> postings : postingLists) {
+                    Integer weight = postings.get(entry.getKey());
+                    if (weight == null) {
+                        continue candidates;
+                    }
+                    score += weight * Math.log(1 + (double) documentCount / postings.size());
+                }
+                scores.put(entry.getKey(), score);
+            }
+
+            List<Post> matches = new ArrayList<>(scores.size());
+            for (Long postId : scores.keySet()) {
+                matches.add(data.docs.get(postId));
+            }
+            matches.sort(Comparator.<Post>comparingDouble(post -> scores.get(post.getId())).reversed()
+                    .thenComparing(Post::getPublishedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(Post::getId, Comparator.reverseOrder()));
+
+            int from = Math.min(offset, matches.size());
+            int to = Math.min(from + limit, matches.size());
+            return new SearchResult(new ArrayList<>(matches.subList(from, to)), matches.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 帖子写操作提交后增量更新索引
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            lock.writeLock().lock();
+            try {
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.addAll(event.getPostIds());
+                }
+                if (event.getType() == PostChangedEvent.Type.DELETED) {
+                    event.getPostIds().forEach(data::remove);
+                    dirty = true;
+                    return;
+                }
+                if (event.getPost() != null) {
+                    data.apply(event.getPost());
+                    dirty = true;
+                    return;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            reload(event.getPostIds());
+        } catch (Exception e) {
+            // 索引更新失败不影响业务写操作，定期重建时会修正
+            System.err.println("Failed to update post search index for posts " + event.getPostIds() + ": "
+                    + e.getMessage());
+        }
+    }
+
+    /**
+     * 启动后在后台加载快照（或全量构建），完成前搜索回退到 MySQL
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!enabled) {
+            return;
+        }
+        Thread loader = new Thread(() -> {
+            try {
+                if (!loadSnapshot()) {
+                    rebuild();
+                }
+                ready = true;
+                System.out.println("Post search index ready: " + getDocumentCount() + " posts, "
+                        + getTermCount() + " terms");
+            } catch (Exception e) {
+                System.err.println("Failed to initialize post search index: " + e.getMessage());
+            }
+        }, "post-search-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * 定期全量重建，刷新计数字段并修正可能遗漏的增量更新
+     */
+    @Scheduled(fixedDelayString = "${schoolwall.search.local-index.rebuild-interval-ms:21600000}",
+            initialDelayString = "${schoolwall.search.local-index.rebuild-interval-ms:21600000}")
+    public void scheduledRebuild() {
+        if (!isReady()) {
+            return;
+        }
+        try {
+            rebuild();
+            saveSnapshot();
+        } catch (Exception e) {
+            System.err.println("Failed to rebuild post search index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 定期把有变更的索引写入快照
+     */
+    @Scheduled(fixedDelayString = "${schoolwall.search.local-index.snapshot-interval-ms:300000}")
+    public void scheduledSnapshot() {
+        if (!isReady() || !dirty) {
+            return;
+        }
+        try {
+            saveSnapshot();
+        } catch (IOException e) {
+            System.err.println("Failed to save post search index snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 应用关闭前保存快照
+     */
+    @PreDestroy
+    public void saveSnapshotOnShutdown() {
+        scheduledSnapshot();
+    }
+
+    /**
+     * 从数据库全量构建索引，构建期间旧索引继续提供搜索
+     */
+    void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Set<Long> changed;
+        try {
+            IndexData rebuilt = new IndexData();
+            List<Post> batch = postMapper.findPublishedPostsAfter(null, null, null, REBUILD_BATCH_SIZE);
+            while (!batch.isEmpty()) {
+                batch.forEach(rebuilt::apply);
+                Post last = batch.get(batch.size() - 1);
+                batch = batch.size() < REBUILD_BATCH_SIZE ? List.of()
+                        : postMapper.findPublishedPostsAfter(Boolean.TRUE.equals(last.getIsTop()),
+                                last.getPublishedAt(), last.getId(), REBUILD_BATCH_SIZE);
+            }
+
+            lock.writeLock().lock();
+            try {
+                data = rebuilt;
+                dirty = true;
+                changed = changedDuringRebuild;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // 重建过程中发生的变更可能没有反映在新索引中，重新加载一次
+        reload(new ArrayList<>(changed));
+        lastRebuildDurationMillis = System.currentTimeMillis() - start;
+    }
+
+    /**
+     * 按 ID 从数据库重新加载帖子，已不存在或未发布的从索引中移除
+     */
+    private void reload(List<Long> postIds) {
+        for (int from = 0; from < postIds.size(); from += RELOAD_BATCH_SIZE) {
+            List<Long> ids = postIds.subList(from, Math.min(from + RELOAD_BATCH_SIZE, postIds.size()));
+            List<Post> posts = postMapper.findByIds(ids);
+
+            lock.writeLock().lock();
+            try {
+                Set<Long> found = new HashSet<>();
+                for (Post post : posts) {
+                    data.apply(post);
+                    found.add(post.getId());
+                }
+                for (Long id : ids) {
+                    if (!found.contains(id)) {
+                        data.remove(id);
+                    }
+                }
+                dirty = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * 加载快照并补齐快照之后的变更
+     *
+     * @return 快照不存在或无法读取时返回 false
+     */
+    boolean loadSnapshot() throws IOException {
+        if (!Files.exists(snapshotPath)) {
+            return false;
+        }
+
+        IndexData loaded;
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                System.err.println("Post search index snapshot is too large, rebuilding: " + snapshotPath);
+                return false;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            loaded = readSnapshot(buffer);
+        } catch (RuntimeException e) {
+            System.err.println("Invalid post search index snapshot, rebuilding: " + e.getMessage());
+            return false;
+        }
+        if (loaded == null) {
+            return false;
+        }
+
+        lock.writeLock().lock();
+        try {
+            data = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        catchUp(loaded.latestUpdatedAt());
+        return true;
+    }
+
+    /**
+     * 补齐快照之后的变更：
+     * 1. 重新加载 updated_at 晚于快照的帖子
+     * 2. 与当前已发布帖子的 ID 对账，移除已删除/隐藏的帖子，补上遗漏的帖子
+     */
+    private void catchUp(LocalDateTime snapshotWatermark) {
+        if (snapshotWatermark != null) {
+            List<Post> updated = postMapper.findPostsUpdatedSince(snapshotWatermark.minusMinutes(CATCH_UP_MARGIN_MINUTES));
+            lock.writeLock().lock();
+            try {
+                updated.forEach(data::apply);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        Set<Long> publishedIds = new HashSet<>(postMapper.findPublishedPostIds());
+        List<Long> missing = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            List<Long> stale = new ArrayList<>();
+            for (Long id : data.docs.keySet()) {
+                if (!publishedIds.contains(id)) {
+                    stale.add(id);
+                }
+            }
+            stale.forEach(data::remove);
+            for (Long id : publishedIds) {
+                if (!data.docs.containsKey(id)) {
+                    missing.add(id);
+                }
+            }
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        reload(missing);
+    }
+
+    /**
+     * 把索引写入内存映射文件：先写临时文件，完成后原子替换
+     */
+    void saveSnapshot() throws IOException {
+        Path parent = snapshotPath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tempPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+
+        lock.readLock().lock();
+        try (SnapshotWriter writer = new SnapshotWriter(tempPath)) {
+            dirty = false;
+            writer.putInt(SNAPSHOT_MAGIC);
+            writer.putInt(SNAPSHOT_VERSION);
+
+            writer.putInt(data.docs.size());
+            for (Post post : data.docs.values()) {
+                writePost(writer, post);
+            }
+
+            writer.putInt(data.postings.size());
+            for (Map.Entry<String, Map<Long, Integer>> term : data.postings.entrySet()) {
+                writer.putString(term.getKey());
+                writer.putInt(term.getValue().size());
+                for (Map.Entry<Long, Integer> posting : term.getValue().entrySet()) {
+                    writer.putLong(posting.getKey());
+                    writer.putInt(posting.getValue());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            dirty = true;
+            throw e;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private IndexData readSnapshot(MappedByteBuffer buffer) {
+        if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_VERSION) {
+            System.err.println("Unsupported post search index snapshot format, rebuilding: " + snapshotPath);
+            return null;
+        }
+        IndexData loaded = new IndexData();
+
+        int documentCount = buffer.getInt();
+        for (int i = 0; i < documentCount; i++) {
+            Post post = readPost(buffer);
+            loaded.docs.put(post.getId(), post);
+        }
+
+        int termCount = buffer.getInt();
+        for (int i = 0; i < termCount; i++) {
+            String term = readString(buffer);
+            int size = buffer.getInt();
+            Map<Long, Integer> postings = new HashMap<>(size * 4 / 3 + 1);
+            for (int j = 0; j < size; j++) {
+                postings.put(buffer.getLong(), buffer.getInt());
+            }
+            loaded.postings.put(term, postings);
+        }
+        return loaded;
+    }
+
+    private static void writePost(SnapshotWriter writer, Post post) throws IOException {
+        writer.putLong(post.getId());
+        writer.putString(post.getTitle());
+        writer.putString(post.getContent());
+        writer.putString(post.getSlug());
+        writer.putLong(post.getAuthorId() != null ? post.getAuthorId() : -1L);
+        writer.putString(post.getAuthorUsername());
+        writer.putString(post.getCategory());
+        writer.putString(post.getTags());
+        writer.putString(post.getCoverImage());
+        writer.putInt(post.getViewCount() != null ? post.getViewCount() : 0);
+        writer.putInt(post.getCommentCount() != null ? post.getCommentCount() : 0);
+        writer.putInt((Boolean.TRUE.equals(post.getIsTop()) ? 1 : 0)
+                | (Boolean.TRUE.equals(post.getIsRecommended()) ? 2 : 0));
+        writer.putString(post.getCreatedAt() != null ? post.getCreatedAt().toString() : null);
+        writer.putString(post.getUpdatedAt() != null ? post.getUpdatedAt().toString() : null);
+        writer.putString(post.getPublishedAt() != null ? post.getPublishedAt().toString() : null);
+    }
+
+    private static Post readPost(MappedByteBuffer buffer) {
+        Post post = new Post();
+        post.setId(buffer.getLong());
+        post.setTitle(readString(buffer));
+        post.setContent(readString(buffer));
+        post.setSlug(readString(buffer));
+        long authorId = buffer.getLong();
+        post.setAuthorId(authorId >= 0 ? authorId : null);
+        post.setAuthorUsername(readString(buffer));
+        post.setCategory(readString(buffer));
+        post.setTags(readString(buffer));
+        post.setCoverImage(readString(buffer));
+        post.setStatus("PUBLISHED");
+        post.setViewCount(buffer.getInt());
+        post.setCommentCount(buffer.getInt());
+        int flags = buffer.getInt();
+        post.setIsTop((flags & 1) != 0);
+        post.setIsRecommended((flags & 2) != 0);
+        post.setCreatedAt(readDateTime(buffer));
+        post.setUpdatedAt(readDateTime(buffer));
+        post.setPublishedAt(readDateTime(buffer));
+        return post;
+    }
+
+    private static LocalDateTime readDateTime(MappedByteBuffer buffer) {
+        String value = readString(buffer);
+        return value != null ? LocalDateTime.parse(value) : null;
+    }
+
+    private static String readString(MappedByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 索引中的帖子数
+     */
+    public int getDocumentCount() {
+        lock.readLock().lock();
+        try {
+            return data.docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 索引中的词数
+     */
+    public int getTermCount() {
+        lock.readLock().lock();
+        try {
+            return data.postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 最近一次全量重建耗时（毫秒）
+     */
+    public long getLastRebuildDurationMillis() {
+        return lastRebuildDurationMillis;
+    }
+
+    /**
+     * 倒排表和文档存储，读写由外部的读写锁保护
+     */
+    private static class IndexData {
+        // 词 -> (帖子ID -> 权重)
+        private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+        // 帖子ID -> 列表展示和摘要所需的帖子字段
+        private final Map<Long, Post> docs = new HashMap<>();
+
+        /**
+         * 已发布的帖子写入索引，其他状态的帖子从索引中移除
+         */
+        void apply(Post post) {
+            remove(post.getId());
+            if (!post.isPublished()) {
+                return;
+            }
+            Post doc = copyOf(post);
+            docs.put(doc.getId(), doc);
+            for (Map.Entry<String, Integer> weight : weigh(doc).entrySet()) {
+                postings.computeIfAbsent(weight.getKey(), term -> new HashMap<>()).put(doc.getId(), weight.getValue());
+            }
+        }
+
+        void remove(Long postId) {
+            Post existing = docs.remove(postId);
+            if (existing == null) {
+                return;
+            }
+            for (String term : weigh(existing).keySet()) {
+                Map<Long, Integer> termPostings = postings.get(term);
+                if (termPostings != null) {
+                    termPostings.remove(postId);
+                    if (termPostings.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+
+        /**
+         * 文档存储中最新的 updated_at，作为快照补齐变更的起点
+         */
+        LocalDateTime latestUpdatedAt() {
+            return docs.values().stream()
+                    .map(Post::getUpdatedAt)
+                    .filter(Objects::nonNull)
+                    .max(Comparator.naturalOrder())
+                    .orElse(null);
+        }
+
+        private static Map<String, Integer> weigh(Post post) {
+            Map<String, Integer> weights = new HashMap<>();
+            SearchTokenizer.tokenizeForIndex(post.getTitle())
+                    .forEach((term, count) -> weights.merge(term, count * TITLE_WEIGHT, Integer::sum));
+            SearchTokenizer.tokenizeForIndex(post.getTags())
+                    .forEach((term, count) -> weights.merge(term, count * TAGS_WEIGHT, Integer::sum));
+            SearchTokenizer.tokenizeForIndex(post.getContent())
+                    .forEach((term, count) -> weights.merge(term, count * CONTENT_WEIGHT, Integer::sum));
+            return weights;
+        }
+
+        private static Post copyOf(Post post) {
+            Post copy = new Post();
+            copy.setId(post.getId());
+            copy.setTitle(post.getTitle());
+            copy.setContent(post.getContent());
+            copy.setSlug(post.getSlug());
+            copy.setAuthorId(post.getAuthorId());
+            copy.setAuthorUsername(post.getAuthorUsername());
+            copy.setStatus(post.getStatus());
+            copy.setCategory(post.getCategory());
+            copy.setTags(post.getTags());
+            copy.setCoverImage(post.getCoverImage());
+            copy.setViewCount(post.getViewCount());
+            copy.setCommentCount(post.getCommentCount());
+            copy.setIsTop(post.getIsTop());
+            copy.setIsRecommended(post.getIsRecommended());
+            copy.setCreatedAt(post.getCreatedAt());
+            copy.setUpdatedAt(post.getUpdatedAt());
+            copy.setPublishedAt(post.getPublishedAt());
+            return copy;
+        }
+    }
+
+    /**
+     * 分段映射写入快照文件，文件大小随写入增长，关闭时截断到实际长度
+     */
+    private static class SnapshotWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private MappedByteBuffer buffer;
+        private long regionStart;
+
+        SnapshotWriter(Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SNAPSHOT_CHUNK_SIZE);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES).putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(Long.BYTES).putLong(value);
+        }
+
+        /**
+         * 长度前缀的 UTF-8 字符串，null 写为长度 -1
+         */
+        void putString(String value) throws IOException {
+            if (value == null) {
+                putInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            ensure(bytes.length).put(bytes);
+        }
+
+        private MappedByteBuffer ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                buffer.force();
+                regionStart += buffer.position();
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, regionStart,
+                        Math.max(SNAPSHOT_CHUNK_SIZE, bytes));
+            }
+            return buffer;
+        }
+
+        @Override
+        public void close() throws IOException {
+            buffer.force();
+            channel.truncate(regionStart + buffer.position());
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.fy.schoolwall.post.search;
+
+import com.fy.schoolwall.common.util.SlugGenerator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * 本地搜索索引分词器
+ *
+ * 意义：
+ * 1. 中文按单字和相邻两字切分，任意两个以上汉字的查询都可以用二元词命中
+ * 2. 每个汉字额外生成拼音词（单字读音以及相邻两字的读音拼接），拼音查询也能命中中文帖子
+ * 3. 拉丁字母和数字按连续片段切分并转小写
+ *
+ * 拼音转换与 slug 生成使用同一套 pinyin4j 配置（见 {@link SlugGenerator#toPinyinReadings(char)}），
+ * 多音字的所有读音都会被索引。
+ */
+class SearchTokenizer {
+
+    // 多音字相邻组合最多生成的拼音二元词数，避免极端情况下词数膨胀
+    private static final int MAX_PINYIN_PAIRS = 4;
+
+    // 不带声调的标准拼音音节（ü 写作 v），用于切分连写的拼音查询，如 "xiaoyuan"
+    private static final Set<String> PINYIN_SYLLABLES = Set.of(
+            "a", "ai", "an", "ang", "ao",
+            "ba", "bai", "ban", "bang", "bao", "bei", "ben", "beng", "bi", "bian", "biao", "bie", "bin", "bing",
+            "bo", "bu",
+            "ca", "cai", "can", "cang", "cao", "ce", "cen", "ceng", "cha", "chai", "chan", "chang", "chao", "che",
+            "chen", "cheng", "chi", "chong", "chou", "chu", "chua", "chuai", "chuan", "chuang", "chui", "chun",
+            "chuo", "ci", "cong", "cou", "cu", "cuan", "cui", "cun", "cuo",
+            "da", "dai", "dan", "dang", "dao", "de", "dei", "den", "deng", "di", "dia", "dian", "diao", "die",
+            "ding", "diu", "dong", "dou", "du", "duan", "dui", "dun", "duo",
+            "e", "ei", "en", "eng", "er",
+            "fa", "fan", "fang", "fei", "fen", "feng", "fo", "fou", "fu",
+            "ga", "gai", "gan", "gang", "gao", "ge", "gei", "gen", "geng", "gong", "gou", "gu", "gua", "guai",
+            "guan", "guang", "gui", "gun", "guo",
+            "ha", "hai", "han", "hang", "hao", "he", "hei", "hen", "heng", "hong", "hou", "hu", "hua", "huai",
+            "huan", "huang", "hui", "hun", "huo",
+            "ji", "jia", "jian", "jiang", "jiao", "jie", "jin", "jing", "jiong", "jiu", "ju", "juan", "jue", "jun",
+            "ka", "kai", "kan", "kang", "kao", "ke", "kei", "ken", "keng", "kong", "kou", "ku", "kua", "kuai",
+            "kuan", "kuang", "kui", "kun", "kuo",
+            "la", "lai", "lan", "lang", "lao", "le", "lei", "leng", "li", "lia", "lian", "liang", "liao", "lie",
+            "lin", "ling", "liu", "lo", "long", "lou", "lu", "luan", "lun", "luo", "lv", "lve", "lue",
+            "ma", "mai", "man", "mang", "mao", "me", "mei", "men", "meng", "mi", "mian", "miao", "mie", "min",
+            "ming", "miu", "mo", "mou", "mu",
+            "na", "nai", "nan", "nang", "nao", "ne", "nei", "nen", "neng", "ni", "nian", "niang", "niao", "nie",
+            "nin", "ning", "niu", "nong", "nou", "nu", "nuan", "nun", "nuo", "nv", "nve", "nue",
+            "o", "ou",
+            "pa", "pai", "pan", "pang", "pao", "pei", "pen", "peng", "pi", "pian", "piao", "pie", "pin", "ping",
+            "po", "pou", "pu",
+            "qi", "qia", "qian", "qiang", "qiao", "qie", "qin", "qing", "qiong", "qiu", "qu", "quan", "que", "qun",
+            "ran", "rang", "rao", "re", "ren", "reng", "ri", "rong", "rou", "ru", "rua", "ruan", "rui", "run", "ruo",
+            "sa", "sai", "san", "sang", "sao", "se", "sen", "seng", "sha", "shai", "shan", "shang", "shao", "she",
+            "shei", "shen", "sheng", "shi", "shou", "shu", "shua", "shuai", "shuan", "shuang", "shui", "shun",
+            "shuo", "si", "song", "sou", "su", "suan", "sui", "sun", "suo",
+            "ta", "tai", "tan", "tang", "tao", "te", "teng", "ti", "tian", "tiao", "tie", "ting", "tong", "tou",
+            "tu", "tuan", "tui", "tun", "tuo",
+            "wa", "wai", "wan", "wang", "wei", "wen", "weng", "wo", "wu",
+            "xi", "xia", "xian", "xiang", "xiao", "xie", "xin", "xing", "xiong", "xiu", "xu", "xuan", "xue", "xun",
+            "ya", "yan", "yang", "yao", "ye", "yi", "yin", "ying", "yo", "yong", "you", "yu", "yuan", "yue", "yun",
+            "za", "zai", "zan", "zang", "zao", "ze", "zei", "zen", "zeng", "zha", "zhai", "zhan", "zhang", "zhao",
+            "zhe", "zhei", "zhen", "zheng", "zhi", "zhong", "zhou", "zhu", "zhua", "zhuai", "zhuan", "zhuang",
+            "zhui", "zhun", "zhuo", "zi", "zong", "zou", "zu", "zuan", "zui", "zun", "zuo");
+
+    private static final int MAX_SYLLABLE_LENGTH = 6;
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * 索引分词：返回每个词在文本中出现的次数
+     */
+    static Map<String, Integer> tokenizeForIndex(String text) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        if (text == null || text.isEmpty()) {
+            return counts;
+        }
+
+        StringBuilder word = new StringBuilder();
+        String[] previousReadings = null;
+        char previousHan = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isHan(c)) {
+                flushWord(word, counts);
+                String[] readings = SlugGenerator.toPinyinReadings(c);
+
+                add(counts, String.valueOf(c));
+                for (String reading : readings) {
+                    add(counts, reading);
+                }
+                if (previousHan != 0) {
+                    add(counts, new String(new char[] { previousHan, c }));
+                    addPinyinPairs(counts, previousReadings, readings);
+                }
+                previousHan = c;
+                previousReadings = readings;
+            } else {
+                previousHan = 0;
+                previousReadings = null;
+                if (Character.isLetterOrDigit(c)) {
+                    word.append(c);
+                } else {
+                    flushWord(word, counts);
+                }
+            }
+        }
+        flushWord(word, counts);
+        return counts;
+    }
+
+    /**
+     * 查询分词：返回查询中每个检索词对应的索引词，所有索引词都需要命中
+     *
+     * @param term       一个检索词（不含空白）
+     * @param vocabulary 判断某个词是否存在于索引中，用于决定是否把连写拼音拆分为音节
+     */
+    static List<String> tokenizeForQuery(String term, Predicate<String> vocabulary) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (term == null || term.isEmpty()) {
+            return new ArrayList<>(tokens);
+        }
+
+        StringBuilder word = new StringBuilder();
+        StringBuilder han = new StringBuilder();
+        for (int i = 0; i <= term.length(); i++) {
+            char c = i < term.length() ? term.charAt(i) : ' ';
+            if (isHan(c)) {
+                addQueryWord(word, tokens, vocabulary);
+                han.append(c);
+            } else {
+                addQueryHan(han, tokens);
+                if (Character.isLetterOrDigit(c)) {
+                    word.append(c);
+                } else {
+                    addQueryWord(word, tokens, vocabulary);
+                }
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    /**
+     * 汉字片段：单字直接查询，多字用相邻二元词
+     */
+    private static void addQueryHan(StringBuilder han, Set<String> tokens) {
+        if (han.length() == 1) {
+            tokens.add(han.toString());
+        }
+        for (int i = 0; i + 1 < han.length(); i++) {
+            tokens.add(han.substring(i, i + 2));
+        }
+        han.setLength(0);
+    }
+
+    /**
+     * 拉丁片段：索引中存在则直接使用，否则尝试按拼音音节切分后用相邻音节拼接的二元词
+     */
+    private static void addQueryWord(StringBuilder word, Set<String> tokens, Predicate<String> vocabulary) {
+        if (word.length() == 0) {
+            return;
+        }
+        String token = word.toString().toLowerCase(Locale.ROOT);
+        word.setLength(0);
+
+        if (!vocabulary.test(token)) {
+            List<String> syllables = splitPinyin(token);
+            if (syllables != null && syllables.size() > 1) {
+                for (int i = 0; i + 1 < syllables.size(); i++) {
+                    tokens.add(syllables.get(i) + syllables.get(i + 1));
+                }
+                return;
+            }
+        }
+        tokens.add(token);
+    }
+
+    /**
+     * 把连写拼音切分为音数最少的音节序列，无法完整切分时返回 null
+     */
+    static List<String> splitPinyin(String text) {
+        int n = text.length();
+        // best[i]：text[0, i) 的最少音节数，-1 表示无法切分
+        int[] best = new int[n + 1];
+        int[] previous = new int[n + 1];
+        Arrays.fill(best, -1);
+        best[0] = 0;
+        for (int end = 1; end <= n; end++) {
+            for (int start = Math.max(0, end - MAX_SYLLABLE_LENGTH); start < end; start++) {
+                if (best[start] >= 0 && PINYIN_SYLLABLES.contains(text.substring(start, end))
+                        && (best[end] < 0 || best[start] + 1 < best[end])) {
+                    best[end] = best[start] + 1;
+                    previous[end] = start;
+                }
+            }
+        }
+        if (best[n] < 0) {
+            return null;
+        }
+
+        List<String> syllables = new ArrayList<>();
+        for (int end = n; end > 0; end = previous[end]) {
+            syllables.add(0, text.substring(previous[end], end));
+        }
+        return syllables;
+    }
+
+    private static void addPinyinPairs(Map<String, Integer> counts, String[] left, String[] right) {
+        if (left == null) {
+            return;
+        }
+        int pairs = 0;
+        for (String l : left) {
+            for (String r : right) {
+                if (pairs++ >= MAX_PINYIN_PAIRS) {
+                    return;
+                }
+                add(counts, l + r);
+            }
+        }
+    }
+
+    private static void flushWord(StringBuilder word, Map<String, Integer> counts) {
+        if (word.length() > 0) {
+            add(counts, word.toString().toLowerCase(Locale.ROOT));
+            word.setLength(0);
+        }
+    }
+
+    private static void add(Map<String, Integer> counts, String token) {
+        counts.merge(token, 1, Integer::sum);
+    }
+
+    private static boolean isHan(char c) {
+        return Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN;
+    }
+}
@@ -0,0 +1,190 @@
+package com.fy.schoolwall.post.service;
+
+import com.fy.schoolwall.post.model.Post;
+import com.fy.schoolwall.post.model.PostCounter;
+import com.fy.schoolwall.post.repository.PostCounterMapper;
+import com.fy.schoolwall.post.repository.PostMapper;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 帖子计数维护
+ *
+ * 意义：
+ * 1. 创建帖子、修改状态或分类、物理删除帖子时，在同一事务中增减 post_counters 中对应的 (状态, 分类) 计数，
+ *    分类统计和各列表的分页总数直接读取计数（见 PostMapper 的 countBy* 和 getCategoryStats）
+ * 2. 修改前先加锁读取帖子当前的状态和分类，增量按数据库中的实际旧值计算，并发修改同一帖子不会重复计数
+ * 3. 一次修改涉及的计数项按主键顺序更新，多个事务同时修改多个计数项时不会互相死锁
+ * 4. 后台定期对账：发现计数与 posts 不一致时按 posts 重新统计该计数项
+ *    （例如硬删除用户时帖子被外键级联删除，不经过本类）
+ *
+ * 记录方法必须在修改 posts 的同一事务中、执行修改语句之前调用。
+ */
+@Component
+public class PostCounterService {
+
+    // 计数项按 (状态, 分类) 排序，与 post_counters 主键顺序一致
+    private static final Comparator<PostCounter> KEY_ORDER = Comparator
+            .comparing(PostCounter::getStatus)
+            .thenComparing(PostCounter::getCategory);
+
+    private final PostMapper postMapper;
+    private final PostCounterMapper postCounterMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong reconcileRuns = new AtomicLong();
+    private final AtomicLong correctedCounters = new AtomicLong();
+
+    public PostCounterService(PostMapper postMapper, PostCounterMapper postCounterMapper,
+            PlatformTransactionManager transactionManager) {
+        this.postMapper = postMapper;
+        this.postCounterMapper = postCounterMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 记录新建的帖子
+     */
+    public void recordCreated(Post post) {
+        Deltas deltas = new Deltas();
+        deltas.add(post.getStatus(), post.getCategory(), 1);
+        apply(deltas);
+    }
+
+    /**
+     * 记录单个帖子的状态或分类变更
+     *
+     * @param newStatus   修改后的状态，null 表示不变
+     * @param newCategory 修改后的分类代码，null 表示不变
+     */
+    public void recordUpdate(Long postId, String newStatus, String newCategory) {
+        recordChanges(postMapper.findStatusesByIdsForUpdate(List.of(postId)), Set.of(postId), newStatus,
+                newCategory);
+    }
+
+    /**
+     * 记录批量状态变更
+     *
+     * @param lockedRows 调用方已用 findStatusesByIdsForUpdate 加锁读取的 (id, status, category)
+     * @param updatedIds 实际会被修改的帖子
+     */
+    public void recordStatusChange(List<Map<String, Object>> lockedRows, Collection<Long> updatedIds,
+            String newStatus) {
+        recordChanges(lockedRows, new HashSet<>(updatedIds), newStatus, null);
+    }
+
+    /**
+     * 记录物理删除的帖子
+     */
+    public void recordRemoved(Long postId) {
+        Deltas deltas = new Deltas();
+        for (Map<String, Object> row : postMapper.findStatusesByIdsForUpdate(List.of(postId))) {
+            deltas.add((String) row.get("status"), (String) row.get("category"), -1);
+        }
+        apply(deltas);
+    }
+
+    private void recordChanges(List<Map<String, Object>> rows, Set<Long> changedIds, String newStatus,
+            String newCategory) {
+        Deltas deltas = new Deltas();
+        for (Map<String, Object> row : rows) {
+            if (!changedIds.contains(((Number) row.get("id")).longValue())) {
+                continue;
+            }
+            String status = (String) row.get("status");
+            String category = (String) row.get("category");
+            deltas.add(status, category, -1);
+            deltas.add(newStatus != null ? newStatus : status, newCategory != null ? newCategory : category, 1);
+        }
+        apply(deltas);
+    }
+
+    private void apply(Deltas deltas) {
+        List<PostCounter> changed = deltas.nonZero();
+        if (!changed.isEmpty()) {
+            postCounterMapper.applyDeltas(changed);
+        }
+    }
+
+    /**
+     * 定期核对计数，修正不一致的计数项
+     */
+    @Scheduled(fixedDelayString = "${schoolwall.post-counters.reconcile-interval-ms:3600000}",
+            initialDelayString = "${schoolwall.post-counters.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        reconcileRuns.incrementAndGet();
+        List<PostCounter> drift;
+        try {
+            drift = postCounterMapper.findDrift();
+        } catch (Exception e) {
+            System.err.println("Post counter reconciliation failed: " + e.getMessage());
+            return;
+        }
+
+        // 一致性读可能看到尚未提交的修改造成的假差异，逐项加锁重新统计后才写入
+        for (PostCounter counter : drift) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    counter.setPostCount(
+                            postCounterMapper.countPostsForShare(counter.getStatus(), counter.getCategory()));
+                    postCounterMapper.setCount(counter);
+                });
+                correctedCounters.incrementAndGet();
+                System.out.println("Post counter reconciled: status=" + counter.getStatus() + ", category="
+                        + counter.getCategory() + ", count=" + counter.getPostCount());
+            } catch (Exception e) {
+                System.err.println("Failed to reconcile post counter " + counter.getStatus() + "/"
+                        + counter.getCategory() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public long getReconcileRunCount() {
+        return reconcileRuns.get();
+    }
+
+    public long getCorrectedCounterCount() {
+        return correctedCounters.get();
+    }
+
+    /**
+     * 按 (状态, 分类) 累加的增量
+     */
+    private static class Deltas {
+        private final Map<PostCounter, Long> byKey = new TreeMap<>(KEY_ORDER);
+
+        void add(String status, String category, long delta) {
+            if (status == null) {
+                return;
+            }
+            PostCounter key = new PostCounter();
+            key.setStatus(status);
+            key.setCategory(category != null ? category : "");
+            byKey.merge(key, delta, Long::sum);
+        }
+
+        List<PostCounter> nonZero() {
+            List<PostCounter> result = new ArrayList<>();
+            byKey.forEach((key, delta) -> {
+                if (delta != 0) {
+                    key.setPostCount(delta);
+                    result.add(key);
+                }
+            });
+            return result;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.fy.schoolwall.post.service;
+
+import com.fy.schoolwall.post.event.PostChangedEvent;
+import com.fy.schoolwall.post.model.Post;
+import com.fy.schoolwall.post.repository.PostMapper;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 首页帖子列表本地缓存
+ *
+ * 意义：
+ * 1. 置顶、推荐帖子列表和各分类的帖子数只在管理员操作或帖子发布/删除时变化，首页渲染直接读内存
+ * 2. 帖子变更事务提交后按事件类型失效对应的缓存项（见 {@link PostChangedEvent}）
+ * 3. 缓存项写入一段时间后再次读取时在后台刷新（refresh-ahead），读请求不会等待数据库；
+ *    长时间未读取的缓存项过期后重新加载
+ *
+ * 列表中的浏览量、评论数最多滞后一个刷新周期。
+ */
+@Component
+public class PostListCache {
+
+    /**
+     * 缓存项
+     */
+    enum Key {
+        TOP_POSTS,
+        RECOMMENDED_POSTS,
+        CATEGORY_POST_COUNTS
+    }
+
+    private final PostMapper postMapper;
+    private final int maxListSize;
+    private final LoadingCache<Key, Object> cache;
+
+    public PostListCache(PostMapper postMapper,
+            @Value("${schoolwall.post-list-cache.max-list-size:50}") int maxListSize,
+            @Value("${schoolwall.post-list-cache.refresh-after-write-ms:60000}") long refreshAfterWriteMillis,
+            @Value("${schoolwall.post-list-cache.expire-after-write-ms:600000}") long expireAfterWriteMillis) {
+        this.postMapper = postMapper;
+        this.maxListSize = maxListSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(Key.values().length)
+                .refreshAfterWrite(Duration.ofMillis(refreshAfterWriteMillis))
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMillis))
+                .recordStats()
+                .build(this::load);
+    }
+
+    /**
+     * 缓存的列表长度上限，请求更多条目时调用方应直接查询数据库
+     */
+    public int getMaxListSize() {
+        return maxListSize;
+    }
+
+    /**
+     * 置顶帖子（按发布时间降序，最多 maxListSize 条）
+     */
+    @SuppressWarnings("unchecked")
+    public List<Post> getTopPosts() {
+        return (List<Post>) cache.get(Key.TOP_POSTS);
+    }
+
+    /**
+     * 推荐帖子（按发布时间降序，最多 maxListSize 条）
+     */
+    @SuppressWarnings("unchecked")
+    public List<Post> getRecommendedPosts() {
+        return (List<Post>) cache.get(Key.RECOMMENDED_POSTS);
+    }
+
+    /**
+     * 各分类已发布帖子数，key 为分类代码
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Long> getCategoryPostCounts() {
+        return (Map<String, Long>) cache.get(Key.CATEGORY_POST_COUNTS);
+    }
+
+    /**
+     * 帖子变更提交后失效受影响的缓存项
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        switch (event.getType()) {
+            case TOP_CHANGED:
+                cache.invalidate(Key.TOP_POSTS);
+                break;
+            case RECOMMENDED_CHANGED:
+                cache.invalidate(Key.RECOMMENDED_POSTS);
+                break;
+            case CREATED:
+                // 新建的草稿不会出现在任何列表中
+                if (event.getPost() != null && !event.getPost().isPublished()) {
+                    break;
+                }
+                cache.invalidateAll();
+                break;
+            default:
+                // 编辑、发布、删除、状态变更可能影响所有列表的内容和分类计数
+                cache.invalidateAll();
+                break;
+        }
+    }
+
+    /**
+     * 清空全部缓存
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * 命中、未命中、加载耗时等统计
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    private Object load(Key key) {
+        switch (key) {
+            case TOP_POSTS:
+                return List.copyOf(postMapper.findTopPosts(maxListSize));
+            case RECOMMENDED_POSTS:
+                return List.copyOf(postMapper.findRecommendedPosts(maxListSize));
+            case CATEGORY_POST_COUNTS:
+                Map<String, Long> counts = new HashMap<>();
+                for (Map<String, Object> row : postMapper.getCategoryStats()) {
+                    Object category = row.get("category");
+                    if (category != null) {
+                        counts.put(category.toString(), ((Number) row.get("post_count")).longValue());
+                    }
+                }
+                return Map.copyOf(counts);
+            default:
+                throw new IllegalArgumentException("Unknown cache key: " + key);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.fy.schoolwall.post.service;
+
+import com.fy.schoolwall.comment.repository.CommentMapper;
+import com.fy.schoolwall.emotion.repository.EmotionMapper;
+import com.fy.schoolwall.post.event.PostChangedEvent;
+import com.fy.schoolwall.post.repository.PostMapper;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 帖子删除与后台物理清理
+ *
+ * 意义：
+ * 1. 删除帖子的请求事务只执行固定条数的 SQL：按帖子软删除全部评论、把帖子标记为 DELETED、
+ *    登记到 post_purge_queue，不再把评论加载到内存，内存占用与评论数无关
+ * 2. 事务提交后由后台线程按块物理删除：先分块清空评论之间的回复关系，再分块扣减情绪计数并删除评论
+ *    （情绪记录随评论级联删除），最后删除帖子本身；每块一个事务，锁持有时间与块大小成正比
+ * 3. 清理队列持久化在数据库中，应用重启或清理失败后由定时任务继续处理
+ */
+@Component
+public class PostPurgeService {
+
+    // 每轮从队列中取出的帖子数
+    private static final int QUEUE_BATCH_SIZE = 20;
+
+    private final PostMapper postMapper;
+    private final CommentMapper commentMapper;
+    private final EmotionMapper emotionMapper;
+    private final PostCounterService postCounterService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "post-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // 已有一轮清理在排队或执行时，不再重复提交
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    private final AtomicLong purgedPosts = new AtomicLong();
+    private final AtomicLong purgedComments = new AtomicLong();
+    private final AtomicLong failedPurges = new AtomicLong();
+
+    public PostPurgeService(PostMapper postMapper, CommentMapper commentMapper, EmotionMapper emotionMapper,
+            PostCounterService postCounterService, PlatformTransactionManager transactionManager,
+            @Value("${schoolwall.post-purge.chunk-size:500}") int chunkSize) {
+        this.postMapper = postMapper;
+        this.postCounterService = postCounterService;
+        this.commentMapper = commentMapper;
+        this.emotionMapper = emotionMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 删除帖子（在调用方事务中执行）
+     * 评论软删除后立即不可见，物理删除在事务提交后由后台完成
+     */
+    @Transactional
+    public void markDeleted(Long postId) {
+        commentMapper.softDeleteByPostId(postId);
+        postCounterService.recordUpdate(postId, "DELETED", null);
+        postMapper.updateStatus(postId, "DELETED");
+        postMapper.insertPurgeRequest(postId);
+    }
+
+    /**
+     * 帖子删除事务提交后触发一轮清理
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.getType() == PostChangedEvent.Type.DELETED) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * 启动时继续处理上次未完成的清理
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleDrain();
+    }
+
+    /**
+     * 定时重试失败或遗留的清理
+     */
+    @Scheduled(fixedDelayString = "${schoolwall.post-purge.retry-interval-ms:300000}")
+    public void retryPending() {
+        scheduleDrain();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 处理队列中全部待清理的帖子，单个帖子失败时留在队列中等待下次重试
+     */
+    void drainQueue() {
+        List<Long> postIds = postMapper.findPurgeRequests(QUEUE_BATCH_SIZE);
+        while (!postIds.isEmpty()) {
+            int purged = 0;
+            for (Long postId : postIds) {
+                try {
+                    purge(postId);
+                    purged++;
+                } catch (Exception e) {
+                    failedPurges.incrementAndGet();
+                    System.err.println("Failed to purge post " + postId + ": " + e.getMessage());
+                }
+            }
+            if (purged == 0) {
+                // 本轮全部失败，等待定时任务重试，避免反复处理同一批帖子
+                return;
+            }
+            postIds = postMapper.findPurgeRequests(QUEUE_BATCH_SIZE);
+        }
+    }
+
+    /**
+     * 按块物理删除一个帖子及其评论、情绪记录
+     */
+    void purge(Long postId) {
+        // 1. 清空评论之间的回复关系，评论之后可以按任意顺序分块删除
+        int detached;
+        do {
+            detached = transactionTemplate.execute(status -> commentMapper.detachRepliesByPostId(postId, chunkSize));
+        } while (detached >= chunkSize);
+
+        // 2. 分块扣减评论者的情绪计数并删除评论（情绪记录随评论级联删除）
+        long commentCount = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> commentIds = commentMapper.findIdsByPostId(postId, chunkSize);
+                if (!commentIds.isEmpty()) {
+                    emotionMapper.decrementUserSentimentCountersForComments(commentIds);
+                    commentMapper.batchDelete(commentIds);
+                }
+                return commentIds.size();
+            });
+            commentCount += deleted;
+            if (deleted < chunkSize) {
+                break;
+            }
+        }
+
+        // 3. 扣减作者的帖子情绪计数，删除帖子（情绪记录随帖子级联删除）并移出队列
+        transactionTemplate.executeWithoutResult(status -> {
+            emotionMapper.decrementUserSentimentCountersForPost(postId);
+            postCounterService.recordRemoved(postId);
+            postMapper.deleteById(postId);
+            postMapper.deletePurgeRequest(postId);
+        });
+
+        purgedComments.addAndGet(commentCount);
+        purgedPosts.incrementAndGet();
+        System.out.println("Post purged. Post ID: " + postId + ", comments: " + commentCount);
+    }
+
+    private void scheduleDrain() {
+        if (!drainScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                drainScheduled.set(false);
+                try {
+                    drainQueue();
+                } catch (Exception e) {
+                    System.err.println("Post purge run failed: " + e.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            drainScheduled.set(false);
+            throw e;
+        }
+    }
+
+    public long getPurgedPostCount() {
+        return purgedPosts.get();
+    }
+
+    public long getPurgedCommentCount() {
+        return purgedComments.get();
+    }
+
+    public long getFailedPurgeCount() {
+        return failedPurges.get();
+    }
+}
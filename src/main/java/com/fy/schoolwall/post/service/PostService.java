@@ -4,16 +4,23 @@ import com.fy.schoolwall.common.exception.ResourceNotFoundException;
 import com.fy.schoolwall.common.util.PaginationUtil;
 import com.fy.schoolwall.common.enums.PostCategory;
 import com.fy.schoolwall.post.dto.*;
+import com.fy.schoolwall.post.event.PostChangedEvent;
 import com.fy.schoolwall.post.model.Post;
 import com.fy.schoolwall.post.repository.PostMapper;
+import com.fy.schoolwall.post.search.PostSearchIndex;
 import com.fy.schoolwall.user.model.User;
 import com.fy.schoolwall.user.service.UserService;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,16 +28,39 @@ public class PostService {
 
     private final PostMapper postMapper;
     private final UserService userService;
-
-    public PostService(PostMapper postMapper, UserService userService) {
+    private final ViewCountBuffer viewCountBuffer;
+    private final PostSearchIndex postSearchIndex;
+    private final PostListCache postListCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PostPurgeService postPurgeService;
+    private final SlugAllocator slugAllocator;
+    private final PostCounterService postCounterService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean fulltextSearchEnabled;
+
+    public PostService(PostMapper postMapper, UserService userService, ViewCountBuffer viewCountBuffer,
+            PostSearchIndex postSearchIndex, PostListCache postListCache, ApplicationEventPublisher eventPublisher,
+            PostPurgeService postPurgeService, SlugAllocator slugAllocator, PostCounterService postCounterService,
+            PlatformTransactionManager transactionManager,
+            @Value("${schoolwall.search.fulltext.enabled:true}") boolean fulltextSearchEnabled) {
         this.postMapper = postMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fulltextSearchEnabled = fulltextSearchEnabled;
+        this.postCounterService = postCounterService;
+        this.postPurgeService = postPurgeService;
+        this.slugAllocator = slugAllocator;
         this.userService = userService;
+        this.viewCountBuffer = viewCountBuffer;
+        this.postSearchIndex = postSearchIndex;
+        this.postListCache = postListCache;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * 创建帖子
+     * slug 在事务开始前分配：SlugAllocator 领取号段要用另一个数据库连接，
+     * 在事务中领取时请求同时占用两个连接，连接池耗尽后会互相等待直到超时
      */
-    @Transactional
     public PostDto createPost(CreatePostRequest request) {
         User currentUser = userService.getCurrentAuthenticatedUser();
 
@@ -56,22 +86,26 @@ public class PostService {
         post.setCreatedAt(LocalDateTime.now());
         post.setUpdatedAt(LocalDateTime.now());
 
-        // 生成slug
-        post.generateUniqueSlug();
+        // 生成slug（标题 + 全局唯一的短后缀）
+        post.setSlug(slugAllocator.allocate(post.getTitle()));
 
         // 如果是发布状态，设置发布时间
         if ("PUBLISHED".equals(post.getStatus())) {
             post.setPublishedAt(LocalDateTime.now());
         }
 
-        postMapper.insert(post);
+        transactionTemplate.executeWithoutResult(status -> {
+            postMapper.insert(post);
+            postCounterService.recordCreated(post);
+            eventPublisher.publishEvent(PostChangedEvent.of(PostChangedEvent.Type.CREATED, post));
+        });
         return convertToPostDto(post);
     }
 
     /**
      * 更新帖子
+     * 与创建帖子相同，标题变化时的新 slug 在事务开始前分配
      */
-    @Transactional
     public PostDto updatePost(Long postId, UpdatePostRequest request) {
         Post post = findPostById(postId);
         User currentUser = userService.getCurrentAuthenticatedUser();
@@ -109,22 +143,26 @@ public class PostService {
 
         // 处理状态变更
         if (request.getStatus() != null && !request.getStatus().equals(post.getStatus())) {
-            String oldStatus = post.getStatus();
             post.setStatus(request.getStatus());
 
-            // 如果从草稿变为发布状态，设置发布时间
-            if ("DRAFT".equals(oldStatus) && "PUBLISHED".equals(request.getStatus())) {
+            // 从任何状态变为发布状态都设置发布时间（与管理员修改状态一致），
+            // 动态流按 published_at 游标分页，已发布帖子的发布时间不能为空
+            if ("PUBLISHED".equals(request.getStatus())) {
                 post.setPublishedAt(LocalDateTime.now());
             }
         }
 
         // 如果标题有变化，重新生成slug
         if (needsNewSlug) {
-            post.generateUniqueSlug();
+            post.setSlug(slugAllocator.allocate(post.getTitle()));
         }
 
         post.setUpdatedAt(LocalDateTime.now());
-        postMapper.update(post);
+        transactionTemplate.executeWithoutResult(status -> {
+            postCounterService.recordUpdate(postId, post.getStatus(), post.getCategory());
+            postMapper.update(post);
+            eventPublisher.publishEvent(PostChangedEvent.of(PostChangedEvent.Type.UPDATED, post));
+        });
 
         return convertToPostDto(post);
     }
@@ -142,7 +180,9 @@ public class PostService {
             throw new RuntimeException("You can only delete your own posts");
         }
 
-        postMapper.deleteById(postId);
+        // 评论在 SQL 中整体软删除，评论、情绪记录和帖子由后台分块物理删除
+        postPurgeService.markDeleted(postId);
+        eventPublisher.publishEvent(PostChangedEvent.deleted(postId));
     }
 
     /**
@@ -155,8 +195,8 @@ public class PostService {
 
     /**
      * 根据slug获取帖子并增加浏览量
+     * 浏览量先记入内存缓冲，由 ViewCountBuffer 定时批量写回，本方法本身只读
      */
-    @Transactional
     public PostDto getPostBySlug(String slug) {
         Post post = postMapper.findBySlug(slug);
         if (post == null) {
@@ -165,8 +205,8 @@ public class PostService {
 
         // 只有已发布的帖子才能被访问并增加浏览量
         if ("PUBLISHED".equals(post.getStatus())) {
-            postMapper.updateViewCount(post.getId());
-            post.setViewCount(post.getViewCount() + 1);
+            long pendingViews = viewCountBuffer.increment(post.getId());
+            post.setViewCount(post.getViewCount() + (int) pendingViews);
         }
 
         return convertToPostDto(post);
@@ -196,6 +236,33 @@ public class PostService {
         return PaginationUtil.createPageResponse(feedItems, pageRequest, totalElements);
     }
 
+    /**
+     * 获取帖子动态列表（游标分页，不统计总数）
+     *
+     * @param cursor 上一页返回的 nextCursor，为空时返回第一页
+     * @param size   页面大小
+     */
+    public PaginationUtil.CursorPageResponse<PostFeedItemDto> getPostFeedByCursor(String cursor, int size) {
+        FeedCursor after = FeedCursor.decode(cursor);
+
+        // 多取一条用于判断是否还有下一页
+        List<Post> posts = after == null
+                ? postMapper.findPublishedPostsAfter(null, null, null, size + 1)
+                : postMapper.findPublishedPostsAfter(after.isTop(), after.getPublishedAt(), after.getId(), size + 1);
+
+        boolean hasNext = posts.size() > size;
+        if (hasNext) {
+            posts = posts.subList(0, size);
+        }
+
+        List<PostFeedItemDto> feedItems = posts.stream()
+                .map(this::convertToFeedItemDto)
+                .collect(Collectors.toList());
+
+        String nextCursor = hasNext ? FeedCursor.after(posts.get(posts.size() - 1)).encode() : null;
+        return PaginationUtil.createCursorPageResponse(feedItems, size, nextCursor);
+    }
+
     /**
      * 根据分类获取帖子 - 使用枚举
      */
@@ -210,7 +277,8 @@ public class PostService {
                 .map(this::convertToFeedItemDto)
                 .collect(Collectors.toList());
 
-        long totalElements = postMapper.countByCategory(category.getCode());
+        // 列表只包含已发布的帖子，总数也只统计已发布的帖子
+        long totalElements = postMapper.countByStatusAndCategory("PUBLISHED", category.getCode());
         return PaginationUtil.createPageResponse(feedItems, pageRequest, totalElements);
     }
 
@@ -228,24 +296,51 @@ public class PostService {
 
     /**
      * 搜索帖子
+     * 启用本地搜索索引且已加载完成时直接在进程内检索（支持拼音），不访问数据库；
+     * 否则优先使用全文索引按相关度排序，检索词过短（无法被 ngram 索引命中）或关闭全文检索时使用 LIKE 查询。
+     * 返回结果的摘要会截取到关键词附近并高亮。
      */
     public PaginationUtil.PageResponse<PostFeedItemDto> searchPosts(String keyword,
             PaginationUtil.PageRequest pageRequest) {
-        List<Post> posts = postMapper.searchPosts(keyword, pageRequest.getOffset(), pageRequest.getLimit());
+        SearchQuery query = SearchQuery.parse(keyword);
+
+        List<Post> posts;
+        long totalElements;
+        if (postSearchIndex.isReady()) {
+            List<String> terms = query.getTerms().isEmpty() ? List.of(query.getKeyword()) : query.getTerms();
+            PostSearchIndex.SearchResult result = postSearchIndex.search(terms, pageRequest.getOffset(),
+                    pageRequest.getLimit());
+            posts = result.getPosts();
+            totalElements = result.getTotalElements();
+        } else if (fulltextSearchEnabled && query.isFulltextSearchable()) {
+            String booleanQuery = query.toBooleanModeQuery();
+            posts = postMapper.searchPostsFulltext(booleanQuery, pageRequest.getOffset(), pageRequest.getLimit());
+            totalElements = postMapper.countSearchPostsFulltext(booleanQuery);
+        } else {
+            posts = postMapper.searchPosts(query.getKeyword(), pageRequest.getOffset(), pageRequest.getLimit());
+            totalElements = postMapper.countSearchPosts(query.getKeyword());
+        }
+
+        List<String> highlightTerms = query.getTerms().isEmpty() ? List.of(query.getKeyword()) : query.getTerms();
         List<PostFeedItemDto> feedItems = posts.stream()
-                .map(this::convertToFeedItemDto)
+                .map(post -> {
+                    PostFeedItemDto dto = convertToFeedItemDto(post);
+                    dto.generateHighlightedSummary(post.getContent(), highlightTerms);
+                    return dto;
+                })
                 .collect(Collectors.toList());
 
-        // 这里简化处理，实际应该有专门的搜索计数方法
-        long totalElements = posts.size();
         return PaginationUtil.createPageResponse(feedItems, pageRequest, totalElements);
     }
 
     /**
      * 获取置顶帖子
+     * 不超过缓存列表长度时从 PostListCache 读取，否则直接查询数据库
      */
     public List<PostFeedItemDto> getTopPosts(int limit) {
-        List<Post> posts = postMapper.findTopPosts(limit);
+        List<Post> posts = limit <= postListCache.getMaxListSize()
+                ? firstN(postListCache.getTopPosts(), limit)
+                : postMapper.findTopPosts(limit);
         return posts.stream()
                 .map(this::convertToFeedItemDto)
                 .collect(Collectors.toList());
@@ -253,14 +348,24 @@ public class PostService {
 
     /**
      * 获取推荐帖子
+     * 不超过缓存列表长度时从 PostListCache 读取，否则直接查询数据库
      */
     public List<PostFeedItemDto> getRecommendedPosts(int limit) {
-        List<Post> posts = postMapper.findRecommendedPosts(limit);
+        List<Post> posts = limit <= postListCache.getMaxListSize()
+                ? firstN(postListCache.getRecommendedPosts(), limit)
+                : postMapper.findRecommendedPosts(limit);
         return posts.stream()
                 .map(this::convertToFeedItemDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 获取各分类已发布帖子数（缓存）
+     */
+    public Map<String, Long> getCategoryPostCounts() {
+        return postListCache.getCategoryPostCounts();
+    }
+
     /**
      * 发布帖子
      */
@@ -281,12 +386,18 @@ public class PostService {
         post.setStatus("PUBLISHED");
         post.setPublishedAt(LocalDateTime.now());
         post.setUpdatedAt(LocalDateTime.now());
+        postCounterService.recordUpdate(postId, "PUBLISHED", null);
         postMapper.update(post);
+        eventPublisher.publishEvent(PostChangedEvent.of(PostChangedEvent.Type.PUBLISHED, post));
 
         return convertToPostDto(post);
     }
 
     // 私有辅助方法
+    private static List<Post> firstN(List<Post> posts, int limit) {
+        return posts.size() > limit ? posts.subList(0, Math.max(limit, 0)) : posts;
+    }
+
     /**
      * 内部使用的方法，返回Post对象，避免方法名冲突
      */
@@ -301,7 +412,7 @@ public class PostService {
     /**
      * 将Post对象转换为PostDto
      */
-    private PostDto convertToPostDto(Post post) {
+    PostDto convertToPostDto(Post post) {
         PostDto dto = new PostDto();
         dto.setId(post.getId());
         dto.setTitle(post.getTitle());
@@ -336,7 +447,7 @@ public class PostService {
     /**
      * 将Post对象转换为PostFeedItemDto
      */
-    private PostFeedItemDto convertToFeedItemDto(Post post) {
+    PostFeedItemDto convertToFeedItemDto(Post post) {
         PostFeedItemDto dto = new PostFeedItemDto();
         dto.setId(post.getId());
         dto.setTitle(post.getTitle());
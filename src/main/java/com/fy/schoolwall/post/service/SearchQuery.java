@@ -0,0 +1,82 @@
+package com.fy.schoolwall.post.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 帖子搜索关键词解析
+ *
+ * 把用户输入拆分为检索词，并生成 MySQL 全文检索的 BOOLEAN MODE 查询串。
+ * 用户输入中的全文检索运算符会被去掉，每个检索词都作为必须命中的短语（+"词"）。
+ */
+class SearchQuery {
+
+    // 与 MySQL ngram_token_size 默认值一致，短于该长度的词无法通过全文索引命中
+    static final int MIN_FULLTEXT_TERM_LENGTH = 2;
+
+    // BOOLEAN MODE 中有特殊含义的字符
+    private static final Pattern BOOLEAN_OPERATORS = Pattern.compile("[+\\-<>()~*\"@]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // 最多使用的检索词数量，避免构造过长的查询
+    private static final int MAX_TERMS = 8;
+
+    private final String keyword;
+    private final List<String> terms;
+
+    private SearchQuery(String keyword, List<String> terms) {
+        this.keyword = keyword;
+        this.terms = terms;
+    }
+
+    static SearchQuery parse(String keyword) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search keyword is required");
+        }
+        String trimmed = keyword.trim();
+        List<String> terms = new ArrayList<>();
+        for (String part : WHITESPACE.split(BOOLEAN_OPERATORS.matcher(trimmed).replaceAll(" "))) {
+            if (!part.isEmpty() && !terms.contains(part) && terms.size() < MAX_TERMS) {
+                terms.add(part);
+            }
+        }
+        return new SearchQuery(trimmed, Collections.unmodifiableList(terms));
+    }
+
+    /**
+     * 原始关键词（用于 LIKE 回退）
+     */
+    String getKeyword() {
+        return keyword;
+    }
+
+    /**
+     * 拆分后的检索词（用于高亮）
+     */
+    List<String> getTerms() {
+        return terms;
+    }
+
+    /**
+     * 是否可以走全文索引：所有检索词都不短于 ngram 长度
+     */
+    boolean isFulltextSearchable() {
+        return !terms.isEmpty() && terms.stream().allMatch(term -> term.length() >= MIN_FULLTEXT_TERM_LENGTH);
+    }
+
+    /**
+     * BOOLEAN MODE 查询串，例如：+"校园" +"二手"
+     */
+    String toBooleanModeQuery() {
+        StringBuilder query = new StringBuilder();
+        for (String term : terms) {
+            if (query.length() > 0) {
+                query.append(' ');
+            }
+            query.append("+\"").append(term).append('"');
+        }
+        return query.toString();
+    }
+}
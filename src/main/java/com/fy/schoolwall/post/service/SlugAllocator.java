@@ -0,0 +1,120 @@
+package com.fy.schoolwall.post.service;
+
+import com.fy.schoolwall.common.util.SlugGenerator;
+import com.fy.schoolwall.post.repository.SlugSequenceMapper;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 帖子 slug 分配器
+ *
+ * 意义：
+ * 1. slug 后缀由毫秒时间戳（13位）改为全局唯一序号的 base36 编码，前一百多万个帖子的后缀不超过4位
+ * 2. 序号按号段（hi/lo）从 slug_sequences 表领取：一次 UPDATE 领取 blockSize 个序号后在内存中逐个发放，
+ *    多个应用实例领到的号段互不重叠，创建帖子时不需要先查询 slug 是否已被占用
+ * 3. 后缀不含连字符，"标题部分-后缀" 可以按最后一个连字符唯一拆分，序号不同的 slug 一定不同
+ *
+ * 号段在独立事务中领取并立即提交：即使创建帖子的事务回滚，已领取的号段也不会被其他实例重复领取。
+ * 领取号段要从连接池再取一个连接，因此 allocate 必须在事务外调用：调用方在事务中持有连接时再去领取，
+ * 连接池耗尽后每个请求都持有一个连接并等待第二个，直到连接超时。在事务中调用会直接抛出异常。
+ * 应用重启时未发放完的号段会被跳过，序号可能不连续。
+ * 后缀只使用小写字母和数字：slug 列的排序规则不区分大小写，base62 会出现大小写不同但被视为重复的后缀。
+ */
+@Component
+public class SlugAllocator {
+
+    static final String POST_SEQUENCE = "post";
+
+    private static final char[] DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    private final SlugSequenceMapper slugSequenceMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+
+    // 领取号段时持有；使用 ReentrantLock 而不是 synchronized，数据库 IO 期间不会钉住虚拟线程的载体线程
+    private final ReentrantLock lock = new ReentrantLock();
+    // 当前号段 [next, end)，只在持有锁时修改
+    private long next;
+    private long end;
+
+    private final AtomicLong allocatedCount = new AtomicLong();
+    private final AtomicLong reservedBlocks = new AtomicLong();
+
+    public SlugAllocator(SlugSequenceMapper slugSequenceMapper, PlatformTransactionManager transactionManager,
+            @Value("${schoolwall.slug.block-size:100}") int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Slug block size must be positive");
+        }
+        this.slugSequenceMapper = slugSequenceMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * 根据标题分配唯一slug：标题部分 + "-" + base36 序号
+     */
+    public String allocate(String title) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Slugs must be allocated outside of a transaction");
+        }
+        return SlugGenerator.generateSlug(title) + "-" + toBase36(nextValue());
+    }
+
+    /**
+     * 发放下一个序号，当前号段用完时从数据库领取新的号段
+     */
+    long nextValue() {
+        lock.lock();
+        try {
+            if (next >= end) {
+                reserveBlock();
+            }
+            allocatedCount.incrementAndGet();
+            return next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reserveBlock() {
+        Long blockEnd = transactionTemplate.execute(status -> {
+            if (slugSequenceMapper.advance(POST_SEQUENCE, blockSize) == 0) {
+                throw new IllegalStateException("Slug sequence '" + POST_SEQUENCE + "' does not exist");
+            }
+            return slugSequenceMapper.findNextValue(POST_SEQUENCE);
+        });
+        end = blockEnd;
+        next = blockEnd - blockSize;
+        reservedBlocks.incrementAndGet();
+    }
+
+    static String toBase36(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Slug sequence value must not be negative: " + value);
+        }
+        char[] buffer = new char[13];
+        int position = buffer.length;
+        do {
+            buffer[--position] = DIGITS[(int) (value % 36)];
+            value /= 36;
+        } while (value > 0);
+        return new String(buffer, position, buffer.length - position);
+    }
+
+    public long getAllocatedCount() {
+        return allocatedCount.get();
+    }
+
+    public long getReservedBlockCount() {
+        return reservedBlocks.get();
+    }
+}
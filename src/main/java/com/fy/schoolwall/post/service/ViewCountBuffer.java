@@ -0,0 +1,155 @@
+package com.fy.schoolwall.post.service;
+
+import com.fy.schoolwall.post.repository.PostMapper;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 帖子浏览量写缓冲
+ *
+ * 意义：
+ * 1. 浏览帖子时只在内存中累加（每个帖子一个 LongAdder），读请求不再执行 UPDATE
+ * 2. 定时把累计的增量合并成一条 UPDATE ... CASE 语句批量写回，热门帖子不再成为行锁热点
+ * 3. 应用关闭时再刷新一次，尽量不丢失计数
+ *
+ * 浏览量本身是近似值：刷新失败的增量会放回缓冲等待下次重试，
+ * 进程崩溃时最多丢失一个刷新周期内的计数。
+ */
+@Component
+public class ViewCountBuffer {
+
+    // 单条 UPDATE 语句最多包含的帖子数
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private final PostMapper postMapper;
+
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    // 上一次刷新时已经没有增量的帖子，再空闲一个周期就从缓冲中移除
+    private final Set<Long> idle = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong flushedViews = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private volatile long lastFlushDurationMillis;
+
+    public ViewCountBuffer(PostMapper postMapper) {
+        this.postMapper = postMapper;
+    }
+
+    /**
+     * 记录一次浏览
+     *
+     * @return 该帖子尚未写回数据库的浏览增量（包含本次）
+     */
+    public long increment(Long postId) {
+        while (true) {
+            LongAdder adder = pending.computeIfAbsent(postId, id -> new LongAdder());
+            adder.increment();
+            // 如果计数器在累加期间被当作空闲项移除，则重新累加到新的计数器上
+            if (pending.get(postId) == adder) {
+                return adder.sum();
+            }
+        }
+    }
+
+    /**
+     * 定时把累计的增量写回数据库
+     */
+    @Scheduled(fixedDelayString = "${schoolwall.view-count.flush-interval-ms:5000}")
+    public void flush() {
+        long start = System.currentTimeMillis();
+
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            Long postId = entry.getKey();
+            long delta = entry.getValue().sumThenReset();
+            if (delta > 0) {
+                deltas.put(postId, delta);
+                idle.remove(postId);
+            } else if (!idle.add(postId)) {
+                // 连续两个周期没有浏览，释放内存
+                pending.computeIfPresent(postId, (id, adder) -> adder.sum() == 0 ? null : adder);
+                idle.remove(postId);
+            }
+        }
+
+        if (!deltas.isEmpty()) {
+            List<Long> postIds = new ArrayList<>(deltas.keySet());
+            for (int from = 0; from < postIds.size(); from += FLUSH_BATCH_SIZE) {
+                Map<Long, Long> batch = new HashMap<>();
+                for (Long postId : postIds.subList(from, Math.min(from + FLUSH_BATCH_SIZE, postIds.size()))) {
+                    batch.put(postId, deltas.get(postId));
+                }
+                writeBatch(batch);
+            }
+        }
+
+        lastFlushDurationMillis = System.currentTimeMillis() - start;
+    }
+
+    /**
+     * 应用关闭前把剩余的增量写回
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void writeBatch(Map<Long, Long> batch) {
+        try {
+            postMapper.batchIncrementViewCount(batch);
+            batch.values().forEach(flushedViews::addAndGet);
+        } catch (Exception e) {
+            failedFlushes.incrementAndGet();
+            System.err.println("Failed to flush view counts for " + batch.size() + " posts: " + e.getMessage());
+            // 放回缓冲，下次刷新时重试
+            batch.forEach((postId, delta) -> pending.computeIfAbsent(postId, id -> new LongAdder()).add(delta));
+        }
+    }
+
+    /**
+     * 当前缓冲中有待写回增量的帖子数
+     */
+    public int getPendingPostCount() {
+        return pending.size();
+    }
+
+    /**
+     * 当前缓冲中尚未写回的浏览总数
+     */
+    public long getPendingViewCount() {
+        return pending.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * 启动以来已写回数据库的浏览总数
+     */
+    public long getFlushedViewCount() {
+        return flushedViews.get();
+    }
+
+    /**
+     * 启动以来写回失败的批次数
+     */
+    public long getFailedFlushCount() {
+        return failedFlushes.get();
+    }
+
+    /**
+     * 最近一次刷新耗时（毫秒）
+     */
+    public long getLastFlushDurationMillis() {
+        return lastFlushDurationMillis;
+    }
+}
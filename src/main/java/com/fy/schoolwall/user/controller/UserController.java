@@ -35,7 +35,7 @@ public class UserController {
      */
     @GetMapping("/me")
     public ResponseEntity<UserProfileDto> getMyProfile() {
-        User user = userService.getCurrentAuthenticatedUser();
+        User user = userService.loadCurrentUser();
 
         UserProfileDto dto = new UserProfileDto();
         dto.setId(user.getId());
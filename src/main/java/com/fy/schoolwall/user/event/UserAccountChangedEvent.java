@@ -0,0 +1,44 @@
+package com.fy.schoolwall.user.event;
+
+import java.util.List;
+
+/**
+ * 用户账户变更事件
+ *
+ * 用户修改资料、修改密码、注销账户，或管理员启用/禁用、删除账户后发布，
+ * 供认证缓存、刷新令牌等在事务提交后同步更新。
+ */
+public class UserAccountChangedEvent {
+
+    public enum Type {
+        PROFILE_UPDATED,
+        PASSWORD_CHANGED,
+        ENABLED,
+        DISABLED,
+        DELETED
+    }
+
+    private final Type type;
+    private final List<Long> userIds;
+
+    private UserAccountChangedEvent(Type type, List<Long> userIds) {
+        this.type = type;
+        this.userIds = userIds;
+    }
+
+    public static UserAccountChangedEvent of(Type type, Long userId) {
+        return new UserAccountChangedEvent(type, List.of(userId));
+    }
+
+    public static UserAccountChangedEvent statusChanged(List<Long> userIds, boolean enabled) {
+        return new UserAccountChangedEvent(enabled ? Type.ENABLED : Type.DISABLED, List.copyOf(userIds));
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public List<Long> getUserIds() {
+        return userIds;
+    }
+}
@@ -1,10 +1,13 @@
 package com.fy.schoolwall.user.repository;
 
+import com.fy.schoolwall.admin.dto.AdminUserFilter;
 import com.fy.schoolwall.user.model.User;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface UserMapper {
@@ -31,4 +34,20 @@ public interface UserMapper {
     List<User> findAllUsers(); // 管理员查看所有用户
 
     List<User> findUsersByStatus(boolean enabled); // 根据状态查找用户
+
+    // 批量启用/禁用：加锁读取当前状态（返回 id, is_enabled），再用一条语句更新
+    List<Map<String, Object>> findEnabledStatusesByIdsForUpdate(@Param("ids") List<Long> ids);
+
+    int bulkUpdateUserStatus(@Param("ids") List<Long> ids, @Param("enabled") boolean enabled);
+
+    // 管理员用户列表：数据库分页和筛选，不查询 password_hash
+    List<User> findUsersPage(@Param("filter") AdminUserFilter filter, @Param("sort") String sort,
+            @Param("direction") String direction, @Param("offset") int offset, @Param("limit") int limit);
+
+    long countUsers(@Param("filter") AdminUserFilter filter);
+
+    // 游标分页，按 created_at DESC, id DESC；cursorId 为 null 时从第一条开始
+    List<User> findUsersAfter(@Param("filter") AdminUserFilter filter,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt, @Param("cursorId") Long cursorId,
+            @Param("limit") int limit);
 }
\ No newline at end of file
@@ -1,96 +1,155 @@
 package com.fy.schoolwall.user.service;
 
+import com.fy.schoolwall.auth.security.UserPrincipal;
 import com.fy.schoolwall.common.enums.UserRole;
 import com.fy.schoolwall.common.exception.ResourceNotFoundException;
-import com.fy.schoolwall.emotion.model.Emotion;
 import com.fy.schoolwall.emotion.repository.EmotionMapper;
 import com.fy.schoolwall.user.dto.PasswordChangeRequest;
 import com.fy.schoolwall.user.dto.UserEmotionStatsDto;
 import com.fy.schoolwall.user.dto.UserUpdateRequest;
+import com.fy.schoolwall.user.event.UserAccountChangedEvent;
 import com.fy.schoolwall.user.model.User;
 import com.fy.schoolwall.user.repository.UserMapper;
 
 import jakarta.validation.Valid;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 public class UserService {
 
+    // 当前请求内已解析的认证用户在请求属性中的键
+    private static final String CURRENT_USER_ATTRIBUTE = UserService.class.getName() + ".CURRENT_USER";
+
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final EmotionMapper emotionMapper;
+    private final boolean useSentimentCounters;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserService(UserMapper userMapper, PasswordEncoder passwordEncoder, EmotionMapper emotionMapper) {
+    public UserService(UserMapper userMapper, PasswordEncoder passwordEncoder, EmotionMapper emotionMapper,
+            @Value("${schoolwall.emotion-stats.use-counters:true}") boolean useSentimentCounters,
+            ApplicationEventPublisher eventPublisher) {
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
         this.emotionMapper = emotionMapper;
+        this.useSentimentCounters = useSentimentCounters;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
-     * 获取当前认证用户的完整信息。
+     * 获取当前认证用户的身份信息。
+     * <p>
+     * 通过访问令牌认证的请求直接使用令牌中的用户ID、用户名和角色，不查询 users 表；
+     * 返回对象中的邮箱、头像、密码哈希等字段为空，需要这些字段时使用 {@link #loadCurrentUser()}。
      * 
      * @return 当前认证的用户对象，如果未认证则返回 null。
      */
     public User getCurrentAuthenticatedUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()
-                || authentication.getPrincipal() instanceof String
-                        && "anonymousUser".equals(authentication.getPrincipal())) {
+        Authentication authentication = getAuthentication();
+        if (authentication == null) {
+            return null;
+        }
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.toUser();
+        }
+        return loadCurrentUser();
+    }
+
+    /**
+     * 从数据库获取当前认证用户的完整信息。
+     * <p>
+     * 在 HTTP 请求内，查询结果会缓存在请求属性中，同一请求多次调用只会查询一次 users 表。
+     *
+     * @return 当前认证的用户对象，如果未认证则返回 null。
+     */
+    public User loadCurrentUser() {
+        Authentication authentication = getAuthentication();
+        if (authentication == null) {
             return null;
         }
 
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        User user = userMapper.findByUsername(userDetails.getUsername());
+        String username = userDetails.getUsername();
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            Object cached = requestAttributes.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (cached instanceof User cachedUser && username.equals(cachedUser.getUsername())) {
+                return cachedUser;
+            }
+        }
+
+        User user = userDetails instanceof UserPrincipal principal
+                ? userMapper.findById(principal.getId())
+                : userMapper.findByUsername(username);
 
         // 使用ResourceNotFoundException替代返回null
         if (user == null) {
-            throw ResourceNotFoundException.of("User", "username", userDetails.getUsername());
+            throw ResourceNotFoundException.of("User", "username", username);
+        }
+
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(CURRENT_USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
         }
 
         return user;
     }
 
+    private Authentication getAuthentication() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication.getPrincipal() instanceof String
+                        && "anonymousUser".equals(authentication.getPrincipal())) {
+            return null;
+        }
+        return authentication;
+    }
+
     /**
      * 获取用户的情绪统计信息
+     * 默认读取写入情绪结果时同步累加的 user_sentiment_counters（每个来源/情绪一行）；
+     * 关闭计数表时在数据库中按情绪 GROUP BY 聚合，不再把全部情绪记录加载到内存。
      */
     public UserEmotionStatsDto getUserEmotionStats(Long userId) {
         // 1. 检查用户是否存在
         getUserById(userId);
 
-        // 2. 获取用户帖子的情绪
-        List<Emotion> postEmotions = emotionMapper.findEmotionsForUserPosts(userId);
+        Map<String, Long> postEmotionCounts = new HashMap<>();
+        Map<String, Long> commentEmotionCounts = new HashMap<>();
 
-        // 3. 获取用户评论的情绪
-        List<Emotion> commentEmotions = emotionMapper.findEmotionsForUserComments(userId);
-
-        // 4. 计算帖子情绪计数
-        Map<String, Long> postEmotionCounts = postEmotions.stream()
-                .filter(e -> e.getSentiment() != null && !e.getSentiment().isEmpty())
-                .collect(Collectors.groupingBy(Emotion::getSentiment, Collectors.counting()));
-
-        // 5. 计算评论情绪计数
-        Map<String, Long> commentEmotionCounts = commentEmotions.stream()
-                .filter(e -> e.getSentiment() != null && !e.getSentiment().isEmpty())
-                .collect(Collectors.groupingBy(Emotion::getSentiment, Collectors.counting()));
+        if (useSentimentCounters) {
+            // 2. 读取预先累加的计数
+            for (Map<String, Object> row : emotionMapper.findUserSentimentCounters(userId)) {
+                Map<String, Long> target = "POST".equals(row.get("source")) ? postEmotionCounts : commentEmotionCounts;
+                target.put((String) row.get("sentiment"), ((Number) row.get("emotion_count")).longValue());
+            }
+        } else {
+            // 2. 数据库实时聚合
+            putSentimentCounts(emotionMapper.countUserPostEmotionsBySentiment(userId), postEmotionCounts);
+            putSentimentCounts(emotionMapper.countUserCommentEmotionsBySentiment(userId), commentEmotionCounts);
+        }
 
-        // 6. 计算总情绪计数
+        // 3. 计算总情绪计数
         Map<String, Long> totalEmotionCounts = new HashMap<>(postEmotionCounts);
         commentEmotionCounts.forEach((sentiment, count) -> totalEmotionCounts.merge(sentiment, count, Long::sum));
 
-        // 7. 创建并返回DTO
+        // 4. 创建并返回DTO
         UserEmotionStatsDto statsDto = new UserEmotionStatsDto();
         statsDto.setUserId(userId);
         statsDto.setPostEmotionCounts(postEmotionCounts);
@@ -100,6 +159,12 @@ public class UserService {
         return statsDto;
     }
 
+    private void putSentimentCounts(List<Map<String, Object>> rows, Map<String, Long> counts) {
+        for (Map<String, Object> row : rows) {
+            counts.put((String) row.get("sentiment"), ((Number) row.get("emotion_count")).longValue());
+        }
+    }
+
     /**
      * 根据ID获取用户，如果不存在抛出异常
      */
@@ -143,7 +208,7 @@ public class UserService {
      */
     @Transactional
     public User updateUserProfile(@Valid UserUpdateRequest updateRequest) {
-        User currentUser = getCurrentAuthenticatedUser();
+        User currentUser = loadCurrentUser();
 
         // 改进邮箱检查逻辑
         if (updateRequest.getEmail() != null && !updateRequest.getEmail().trim().isEmpty()
@@ -185,6 +250,8 @@ public class UserService {
             currentUser.setUpdatedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
             try {
                 userMapper.update(currentUser);
+                eventPublisher.publishEvent(UserAccountChangedEvent.of(
+                        UserAccountChangedEvent.Type.PROFILE_UPDATED, currentUser.getId()));
                 System.out.println("User ID: " + currentUser.getId() + " updated successfully.");
             } catch (Exception e) {
                 System.err.println("Database update error: " + e.getMessage());
@@ -203,7 +270,7 @@ public class UserService {
      */
     @Transactional
     public void changePassword(@Valid PasswordChangeRequest passwordChangeRequest) {
-        User currentUser = getCurrentAuthenticatedUser();
+        User currentUser = loadCurrentUser();
 
         // 验证新密码和确认密码是否匹配
         if (!passwordChangeRequest.getNewPassword().equals(passwordChangeRequest.getConfirmPassword())) {
@@ -223,6 +290,10 @@ public class UserService {
         try {
             String newPasswordHash = passwordEncoder.encode(passwordChangeRequest.getNewPassword());
             userMapper.updatePassword(currentUser.getId(), newPasswordHash);
+            eventPublisher.publishEvent(UserAccountChangedEvent.of(
+                    UserAccountChangedEvent.Type.PASSWORD_CHANGED, currentUser.getId()));
+            // 同步请求内缓存的用户对象，避免同一请求后续读到旧的哈希
+            currentUser.setPasswordHash(newPasswordHash);
             System.out.println("Password updated successfully for user ID: " + currentUser.getId());
         } catch (Exception e) {
             System.err.println("Database update error while changing password: " + e.getMessage());
@@ -235,7 +306,7 @@ public class UserService {
      */
     @Transactional
     public void deleteCurrentUserAccount(String password) {
-        User currentUser = getCurrentAuthenticatedUser();
+        User currentUser = loadCurrentUser();
 
         // 验证密码
         if (!passwordEncoder.matches(password, currentUser.getPasswordHash())) {
@@ -244,6 +315,8 @@ public class UserService {
 
         try {
             userMapper.softDeleteById(currentUser.getId());
+            eventPublisher.publishEvent(UserAccountChangedEvent.of(
+                    UserAccountChangedEvent.Type.DELETED, currentUser.getId()));
             System.out.println("User account soft deleted successfully for user ID: " + currentUser.getId());
         } catch (Exception e) {
             System.err.println("Database error while deleting user account: " + e.getMessage());
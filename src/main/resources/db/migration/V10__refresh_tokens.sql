@@ -0,0 +1,17 @@
+-- V10__refresh_tokens.sql
+-- 刷新令牌
+-- 访问令牌（JWT）无状态、短有效期；刷新令牌为随机串，只保存其 SHA-256 摘要。
+-- 每次刷新都撤销旧令牌并签发新令牌（轮换），已撤销的令牌再次出现时撤销该用户的全部刷新令牌。
+
+CREATE TABLE refresh_tokens (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '令牌ID',
+    user_id BIGINT NOT NULL COMMENT '用户ID',
+    token_hash CHAR(64) NOT NULL COMMENT '令牌的 SHA-256 十六进制摘要',
+    expires_at DATETIME NOT NULL COMMENT '过期时间',
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '签发时间',
+    revoked_at DATETIME NULL COMMENT '撤销时间（已轮换或已注销）',
+    UNIQUE KEY uk_refresh_tokens_hash (token_hash),
+    INDEX idx_refresh_tokens_user (user_id),
+    INDEX idx_refresh_tokens_expires_at (expires_at),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
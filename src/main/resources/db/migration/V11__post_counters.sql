@@ -0,0 +1,21 @@
+-- V11__post_counters.sql
+-- 帖子计数
+-- 1. post_counters：按 (状态, 分类) 物化的帖子数，创建、状态/分类变更、物理删除帖子时在同一事务中增减，
+--    分类统计和分页总数只读取该表的几行数据，不再对 posts 执行 COUNT(*)
+-- 2. (status, category) 索引：后台对账按单个计数项重新统计时只扫描索引
+
+CREATE TABLE post_counters (
+    status VARCHAR(16) NOT NULL COMMENT '帖子状态',
+    category VARCHAR(50) NOT NULL DEFAULT '' COMMENT '分类代码，未分类为空字符串',
+    post_count BIGINT NOT NULL DEFAULT 0 COMMENT '帖子数',
+    PRIMARY KEY (status, category)
+);
+
+CREATE INDEX idx_posts_status_category ON posts (status, category);
+
+-- 回填已有数据
+INSERT INTO post_counters (status, category, post_count)
+SELECT status, COALESCE(category, ''), COUNT(*)
+FROM posts
+WHERE status IS NOT NULL
+GROUP BY status, COALESCE(category, '');
@@ -0,0 +1,38 @@
+-- V12__comment_read_model.sql
+-- 评论读模型
+-- 1. comments 增加评论者用户名/头像、帖子标题、父评论摘要的快照列，评论查询只读 comments 一张表，
+--    不再关联 users、posts 和父评论
+-- 2. 快照在写评论时一并写入；用户修改资料、帖子改标题、父评论被编辑后由应用同步
+--    （见 CommentSnapshotSync 和 CommentService#updateComment）
+-- 3. 按各列表的过滤和排序条件建立复合索引，评论列表是单表索引范围扫描，不需要额外排序
+
+ALTER TABLE comments
+    ADD COLUMN author_username VARCHAR(50) NULL COMMENT '评论者用户名（快照）',
+    ADD COLUMN author_avatar_url VARCHAR(255) NULL COMMENT '评论者头像URL（快照）',
+    ADD COLUMN post_title VARCHAR(200) NULL COMMENT '所属帖子标题（快照）',
+    ADD COLUMN parent_excerpt VARCHAR(200) NULL COMMENT '父评论内容摘要（前200个字符，快照）';
+
+-- 回填已有评论；显式保留 updated_at，避免被 ON UPDATE 改写后显示为"已编辑"
+UPDATE comments c
+    JOIN users u ON u.id = c.user_id
+    JOIN posts p ON p.id = c.post_id
+    LEFT JOIN comments pc ON pc.id = c.parent_comment_id
+SET c.author_username = u.username,
+    c.author_avatar_url = u.avatar_url,
+    c.post_title = p.title,
+    c.parent_excerpt = LEFT(pc.content, 200),
+    c.updated_at = c.updated_at;
+
+-- 帖子评论列表（按时间倒序）、顶级评论列表
+CREATE INDEX idx_comments_post_created ON comments (post_id, created_at);
+CREATE INDEX idx_comments_post_parent_visible ON comments (post_id, parent_comment_id, is_deleted, created_at);
+-- 用户评论列表
+CREATE INDEX idx_comments_user_created ON comments (user_id, created_at);
+-- 回复列表、批量回复预览
+CREATE INDEX idx_comments_parent_visible ON comments (parent_comment_id, is_deleted, created_at);
+-- 管理员按删除状态查看评论
+CREATE INDEX idx_comments_deleted_created ON comments (is_deleted, created_at);
+
+-- 以上复合索引的前缀已覆盖以下索引
+DROP INDEX idx_comments_post_parent ON comments;
+DROP INDEX idx_comments_post_id ON comments;
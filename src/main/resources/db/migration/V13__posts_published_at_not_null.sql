@@ -0,0 +1,10 @@
+-- V13__posts_published_at_not_null.sql
+-- 已发布帖子的发布时间不能为空
+-- 动态流按 (is_top, published_at, id) 游标分页（见 V2），published_at 为空的已发布帖子无法编码到游标中，
+-- 且 published_at < ? 永远不会命中这些行。作者把隐藏的帖子重新发布时曾不设置发布时间，
+-- 这里用创建时间补齐，并用 CHECK 约束防止今后再写入这样的行（MySQL 8.0.16 起生效）。
+
+UPDATE posts SET published_at = created_at WHERE status = 'PUBLISHED' AND published_at IS NULL;
+
+ALTER TABLE posts ADD CONSTRAINT chk_posts_published_at
+    CHECK (status <> 'PUBLISHED' OR published_at IS NOT NULL);
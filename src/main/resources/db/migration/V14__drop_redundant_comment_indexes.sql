@@ -0,0 +1,11 @@
+-- V14__drop_redundant_comment_indexes.sql
+-- 删除 comments 上重复的索引，减少评论表的写入开销
+-- 1. V12 的 idx_comments_post_created (post_id, created_at) 与 V1 的
+--    idx_comments_post_created_at (post_id, created_at DESC) 列相同，InnoDB 可以反向扫描索引，
+--    帖子评论列表继续使用 V1 的索引
+-- 2. idx_comments_parent_comment_id (parent_comment_id) 是 V12 的
+--    idx_comments_parent_visible (parent_comment_id, is_deleted, created_at) 的前缀，
+--    parent_comment_id 外键改由后者支持
+
+DROP INDEX idx_comments_post_created ON comments;
+DROP INDEX idx_comments_parent_comment_id ON comments;
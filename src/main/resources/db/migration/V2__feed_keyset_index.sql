@@ -0,0 +1,7 @@
+-- V2__feed_keyset_index.sql
+-- 帖子动态流的游标分页索引
+-- 与 findPublishedPosts / findPublishedPostsAfter 的 WHERE status = 'PUBLISHED'
+-- ORDER BY is_top DESC, published_at DESC, id DESC 完全对应，
+-- 深翻页时可以直接从游标位置开始范围扫描，而不是扫描并丢弃 OFFSET 行。
+
+CREATE INDEX idx_posts_feed_keyset ON posts (status, is_top DESC, published_at DESC, id DESC);
@@ -0,0 +1,9 @@
+-- V3__posts_fulltext_ngram.sql
+-- 使用 ngram 分词器重建帖子全文索引
+-- 默认的全文分词器按空格和标点切词，中文标题和内容几乎无法命中。
+-- ngram 分词器按 ngram_token_size（MySQL 默认 2）切分连续字符，中英文都可以使用 MATCH ... AGAINST 检索。
+
+ALTER TABLE posts DROP INDEX idx_posts_fulltext;
+
+ALTER TABLE posts
+ADD FULLTEXT INDEX idx_posts_fulltext (title, content) WITH PARSER ngram;
@@ -0,0 +1,5 @@
+-- V4__posts_updated_at_index.sql
+-- 本地搜索索引启动时按 updated_at 拉取快照之后变更的帖子（findPostsUpdatedSince），
+-- 为该范围查询增加索引，避免全表扫描。
+
+CREATE INDEX idx_posts_updated_at ON posts (updated_at);
@@ -0,0 +1,20 @@
+-- V5__emotion_unique_targets.sql
+-- 每个帖子/评论只保留一条情绪分析结果
+-- 后台预计算和按需分析可能同时写入同一目标，唯一索引保证不会重复，
+-- 批量插入使用 ON DUPLICATE KEY UPDATE 跳过已存在的记录。
+
+-- 1. 清理历史重复数据，保留最早的一条
+DELETE e FROM emotion e
+JOIN emotion kept ON kept.post_id = e.post_id AND kept.id < e.id
+WHERE e.post_id IS NOT NULL;
+
+DELETE e FROM emotion e
+JOIN emotion kept ON kept.comment_id = e.comment_id AND kept.id < e.id
+WHERE e.comment_id IS NOT NULL;
+
+-- 2. 唯一索引（NULL 不参与唯一性比较），替换原来的普通索引
+CREATE UNIQUE INDEX uk_emotion_post_id ON emotion (post_id);
+CREATE UNIQUE INDEX uk_emotion_comment_id ON emotion (comment_id);
+
+DROP INDEX idx_emotion_post_id ON emotion;
+DROP INDEX idx_emotion_comment_id ON emotion;
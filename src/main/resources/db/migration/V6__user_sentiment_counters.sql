@@ -0,0 +1,32 @@
+-- V6__user_sentiment_counters.sql
+-- 用户情绪统计
+-- 1. user_sentiment_counters：按 (用户, 来源, 情绪) 累计的计数，写入情绪分析结果时同步累加，
+--    用户情绪统计接口只读取该表的几行数据
+-- 2. 覆盖索引：按 GROUP BY sentiment 实时聚合时只扫描索引，不读取 text / probabilities_json
+
+CREATE TABLE user_sentiment_counters (
+    user_id BIGINT NOT NULL COMMENT '用户ID（帖子作者或评论者）',
+    source VARCHAR(16) NOT NULL COMMENT '来源：POST / COMMENT',
+    sentiment VARCHAR(16) NOT NULL COMMENT '情绪类型',
+    emotion_count BIGINT NOT NULL DEFAULT 0 COMMENT '情绪分析结果数',
+    PRIMARY KEY (user_id, source, sentiment),
+    CONSTRAINT fk_user_sentiment_counters_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_emotion_post_sentiment ON emotion (post_id, sentiment);
+CREATE INDEX idx_emotion_comment_sentiment ON emotion (comment_id, sentiment);
+
+-- 回填已有数据
+INSERT INTO user_sentiment_counters (user_id, source, sentiment, emotion_count)
+SELECT p.author_id, 'POST', e.sentiment, COUNT(*)
+FROM emotion e
+JOIN posts p ON p.id = e.post_id
+WHERE e.sentiment <> ''
+GROUP BY p.author_id, e.sentiment;
+
+INSERT INTO user_sentiment_counters (user_id, source, sentiment, emotion_count)
+SELECT c.user_id, 'COMMENT', e.sentiment, COUNT(*)
+FROM emotion e
+JOIN comments c ON c.id = e.comment_id
+WHERE e.sentiment <> ''
+GROUP BY c.user_id, e.sentiment;
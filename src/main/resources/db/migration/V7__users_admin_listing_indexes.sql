@@ -0,0 +1,8 @@
+-- V7__users_admin_listing_indexes.sql
+-- 管理员用户列表的分页索引
+-- 默认按 created_at DESC, id DESC 排序；按角色或启用状态筛选时使用对应的组合索引，
+-- 分页（OFFSET 或游标）都只扫描当前页附近的索引项。用户名前缀筛选使用已有的 idx_users_username。
+
+CREATE INDEX idx_users_created_at ON users (created_at DESC, id DESC);
+CREATE INDEX idx_users_role_created_at ON users (role, created_at DESC, id DESC);
+CREATE INDEX idx_users_enabled_created_at ON users (is_enabled, created_at DESC, id DESC);
@@ -0,0 +1,13 @@
+-- V8__post_purge_queue.sql
+-- 帖子物理删除队列
+-- 删除帖子时只在请求事务中软删除评论、把帖子标记为 DELETED 并登记到本表，
+-- 评论、情绪记录和帖子本身由后台按块物理删除；应用重启后未完成的清理会从本表继续。
+-- 不对 posts 建外键：帖子行与队列行在最后一个事务中一起删除。
+
+CREATE TABLE post_purge_queue (
+    post_id BIGINT PRIMARY KEY COMMENT '待物理删除的帖子ID',
+    requested_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '登记时间'
+);
+
+-- 按帖子分块查找评论ID、清空回复关系时使用
+CREATE INDEX idx_comments_post_parent ON comments (post_id, parent_comment_id);
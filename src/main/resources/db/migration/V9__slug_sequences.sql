@@ -0,0 +1,12 @@
+-- V9__slug_sequences.sql
+-- slug 后缀序列
+-- 各应用实例每次从本表原子地领取一段连续的序号（hi/lo），在内存中逐个发放，
+-- 序号转换为 base36 作为 slug 后缀，取代原来的毫秒时间戳。不同实例领到的号段互不重叠，
+-- 创建帖子时不需要先查询 slug 是否已被占用。
+
+CREATE TABLE slug_sequences (
+    name VARCHAR(32) PRIMARY KEY COMMENT '序列名称',
+    next_value BIGINT NOT NULL COMMENT '下一个尚未领取的序号'
+);
+
+INSERT INTO slug_sequences (name, next_value) VALUES ('post', 1);
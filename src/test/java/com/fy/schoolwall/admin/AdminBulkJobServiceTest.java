@@ -0,0 +1,93 @@
+package com.fy.schoolwall.admin;
+
+import com.fy.schoolwall.admin.dto.BulkJobDto;
+import com.fy.schoolwall.admin.dto.BulkOperationResult;
+import com.fy.schoolwall.admin.service.AdminBulkJobService;
+import com.fy.schoolwall.user.model.User;
+import com.fy.schoolwall.user.service.UserService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 批量操作执行器测试：分块、单块失败隔离、去重以及后台任务进度
+ */
+public class AdminBulkJobServiceTest {
+
+    private final UserService userService = mock(UserService.class);
+    private final AdminBulkJobService bulkJobService = new AdminBulkJobService(
+            mock(PlatformTransactionManager.class), userService, 100, 250, 60000);
+
+    @AfterEach
+    void shutdown() {
+        bulkJobService.shutdown();
+    }
+
+    @Test
+    void runsOneHandlerCallPerChunkAndIsolatesFailedChunks() {
+        List<Long> ids = LongStream.rangeClosed(1, 250).boxed().collect(Collectors.toList());
+        // 重复的ID只处理一次
+        ids.add(1L);
+        List<Integer> chunkSizes = new ArrayList<>();
+
+        BulkOperationResult result = bulkJobService.run(ids, chunk -> {
+            chunkSizes.add(chunk.size());
+            if (chunk.contains(150L)) {
+                throw new IllegalStateException("deadlock");
+            }
+            Map<Long, BulkOperationResult.Outcome> outcomes = new HashMap<>();
+            chunk.forEach(id -> outcomes.put(id, id % 2 == 0
+                    ? BulkOperationResult.Outcome.UPDATED
+                    : BulkOperationResult.Outcome.NOT_FOUND));
+            return outcomes;
+        });
+
+        assertEquals(List.of(100, 100, 50), chunkSizes);
+        assertEquals(250, result.getRequested());
+        assertEquals(100, result.getFailed());
+        assertEquals(75, result.getUpdated());
+        assertEquals(75, result.getNotFound());
+        assertEquals(BulkOperationResult.Outcome.FAILED, result.getOutcomes().get(101L));
+        assertEquals(BulkOperationResult.Outcome.UPDATED, result.getOutcomes().get(2L));
+    }
+
+    @Test
+    void largeBatchesRunInBackgroundAndCanBePolled() throws InterruptedException {
+        User admin = new User();
+        admin.setId(1L);
+        admin.setRole("ADMIN");
+        when(userService.getCurrentAuthenticatedUser()).thenReturn(admin);
+
+        assertFalse(bulkJobService.shouldRunInBackground(250));
+        assertTrue(bulkJobService.shouldRunInBackground(251));
+
+        List<Long> ids = LongStream.rangeClosed(1, 300).boxed().collect(Collectors.toList());
+        BulkJobDto submitted = bulkJobService.submit("POST_STATUS", ids, chunk -> chunk.stream()
+                .collect(Collectors.toMap(id -> id, id -> BulkOperationResult.Outcome.UPDATED)));
+        assertEquals(300, submitted.getTotal());
+
+        BulkJobDto job = bulkJobService.getJob(submitted.getJobId());
+        for (int i = 0; i < 100 && !"COMPLETED".equals(job.getState()); i++) {
+            Thread.sleep(50);
+            job = bulkJobService.getJob(submitted.getJobId());
+        }
+
+        assertEquals("COMPLETED", job.getState());
+        assertEquals(300, job.getProcessed());
+        assertEquals(300, job.getResult().getUpdated());
+    }
+}
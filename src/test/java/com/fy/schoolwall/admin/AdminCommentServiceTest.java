@@ -0,0 +1,58 @@
+package com.fy.schoolwall.admin;
+
+import com.fy.schoolwall.admin.service.AdminCommentService;
+import com.fy.schoolwall.comment.model.Comment;
+import com.fy.schoolwall.comment.repository.CommentMapper;
+import com.fy.schoolwall.emotion.repository.EmotionMapper;
+import com.fy.schoolwall.user.model.User;
+import com.fy.schoolwall.user.service.UserService;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.List;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 管理员物理删除评论测试：情绪记录随评论级联删除前，先扣减评论者的评论情绪计数
+ */
+public class AdminCommentServiceTest {
+
+    private final CommentMapper commentMapper = mock(CommentMapper.class);
+    private final EmotionMapper emotionMapper = mock(EmotionMapper.class);
+    private final UserService userService = mock(UserService.class);
+    private final AdminCommentService adminCommentService = new AdminCommentService(commentMapper, emotionMapper,
+            userService);
+
+    AdminCommentServiceTest() {
+        User admin = new User();
+        admin.setId(1L);
+        admin.setRole("ADMIN");
+        when(userService.getCurrentAuthenticatedUser()).thenReturn(admin);
+    }
+
+    @Test
+    void deleteCommentDecrementsSentimentCountersBeforeDeleting() {
+        when(commentMapper.findById(5L)).thenReturn(new Comment());
+
+        adminCommentService.deleteComment(5L);
+
+        InOrder order = inOrder(emotionMapper, commentMapper);
+        order.verify(emotionMapper).decrementUserSentimentCountersForComments(List.of(5L));
+        order.verify(commentMapper).deleteById(5L);
+    }
+
+    @Test
+    void batchDeleteDecrementsSentimentCountersBeforeDeleting() {
+        List<Long> commentIds = List.of(5L, 6L, 7L);
+
+        adminCommentService.batchDeleteComments(commentIds);
+
+        InOrder order = inOrder(emotionMapper, commentMapper);
+        order.verify(emotionMapper).decrementUserSentimentCountersForComments(commentIds);
+        order.verify(commentMapper).batchDelete(commentIds);
+    }
+}
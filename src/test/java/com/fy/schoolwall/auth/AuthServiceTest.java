@@ -1,9 +1,109 @@
 package com.fy.schoolwall.auth;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fy.schoolwall.auth.dto.LoginRequest;
+import com.fy.schoolwall.auth.dto.TokenResponse;
+import com.fy.schoolwall.auth.model.RefreshToken;
+import com.fy.schoolwall.auth.repository.TokenRepository;
+import com.fy.schoolwall.auth.security.JwtTokenProvider;
+import com.fy.schoolwall.auth.security.UserPrincipal;
+import com.fy.schoolwall.auth.service.AuthService;
+import com.fy.schoolwall.user.dto.PasswordChangeRequest;
+import com.fy.schoolwall.user.event.UserAccountChangedEvent;
+import com.fy.schoolwall.user.model.User;
+import com.fy.schoolwall.user.repository.UserMapper;
+import com.fy.schoolwall.user.service.UserService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 刷新令牌测试：账户变更后已签发的刷新令牌不能再换取访问令牌
+ */
 public class AuthServiceTest {
+
+    private static final String SECRET = "auth-service-test-secret-at-least-32-bytes";
+
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private final UserMapper userMapper = mock(UserMapper.class);
+    private final InMemoryTokenRepository tokenRepository = new InMemoryTokenRepository();
+    private final AuthenticationManager authenticationManager = mock(AuthenticationManager.class);
+    private final AuthService authService = new AuthService(userMapper, passwordEncoder, authenticationManager,
+            new JwtTokenProvider(new ObjectMapper(), SECRET, 900), tokenRepository, 30);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void refreshIsRejectedAfterPasswordChange() {
+        User user = user(1L, "alice", passwordEncoder.encode("old-password"));
+        when(userMapper.findById(1L)).thenReturn(user);
+        doAnswer(invocation -> {
+            user.setPasswordHash(invocation.getArgument(1));
+            return null;
+        }).when(userMapper).updatePassword(anyLong(), anyString());
+        UserPrincipal principal = UserPrincipal.fromUser(user);
+        when(authenticationManager.authenticate(any()))
+                .thenReturn(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        TokenResponse login = authService.login(new LoginRequest());
+        TokenResponse rotated = authService.refresh(login.getRefreshToken());
+        assertNotNull(rotated.getAccessToken());
+
+        // 用户修改密码，账户变更事件交给 AuthService 的监听方法
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        UserService userService = new UserService(userMapper, passwordEncoder, null, true,
+                event -> authService.onUserAccountChanged((UserAccountChangedEvent) event));
+        PasswordChangeRequest request = new PasswordChangeRequest();
+        request.setCurrentPassword("old-password");
+        request.setNewPassword("new-password");
+        request.setConfirmPassword("new-password");
+        userService.changePassword(request);
+
+        // 修改密码前拿到的刷新令牌（如被盗用的令牌）不能再换取访问令牌
+        assertThrows(BadCredentialsException.class, () -> authService.refresh(rotated.getRefreshToken()));
+    }
+
+    @Test
+    void disablingAccountRevokesRefreshTokens() {
+        User user = user(2L, "bob", passwordEncoder.encode("password"));
+        when(userMapper.findById(2L)).thenReturn(user);
+        UserPrincipal principal = UserPrincipal.fromUser(user);
+        when(authenticationManager.authenticate(any()))
+                .thenReturn(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        TokenResponse login = authService.login(new LoginRequest());
+
+        authService.onUserAccountChanged(UserAccountChangedEvent.statusChanged(List.of(2L), false));
+        // 即使账户随后被重新启用，禁用前签发的刷新令牌也已失效
+        authService.onUserAccountChanged(UserAccountChangedEvent.statusChanged(List.of(2L), true));
+
+        assertThrows(BadCredentialsException.class, () -> authService.refresh(login.getRefreshToken()));
+    }
+
     public static void main(String[] args) {
         // 创建一个 BCryptPasswordEncoder 实例，成本因子默认为 10
         PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
@@ -20,4 +120,69 @@ public class AuthServiceTest {
         boolean isMatch = passwordEncoder.matches(rawPassword, encodedPassword);
         System.out.println("密码是否匹配: " + isMatch);
     }
-}
\ No newline at end of file
+
+    private static User user(Long id, String username, String passwordHash) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPasswordHash(passwordHash);
+        user.setRole("USER");
+        user.setIsEnabled(true);
+        user.setIsLocked(false);
+        return user;
+    }
+
+    /**
+     * 与 refresh_tokens 表行为一致的内存实现
+     */
+    private static class InMemoryTokenRepository implements TokenRepository {
+
+        private final List<RefreshToken> tokens = new ArrayList<>();
+        private final AtomicLong ids = new AtomicLong();
+
+        @Override
+        public void insert(RefreshToken refreshToken) {
+            refreshToken.setId(ids.incrementAndGet());
+            tokens.add(refreshToken);
+        }
+
+        @Override
+        public RefreshToken findByTokenHash(String tokenHash) {
+            return tokens.stream().filter(token -> token.getTokenHash().equals(tokenHash)).findFirst().orElse(null);
+        }
+
+        @Override
+        public int revoke(Long id) {
+            return revokeWhere(token -> token.getId().equals(id));
+        }
+
+        @Override
+        public int revokeAllForUser(Long userId) {
+            return revokeWhere(token -> token.getUserId().equals(userId));
+        }
+
+        @Override
+        public int revokeAllForUsers(List<Long> userIds) {
+            return revokeWhere(token -> userIds.contains(token.getUserId()));
+        }
+
+        @Override
+        public int deleteExpired(LocalDateTime before) {
+            int size = tokens.size();
+            tokens.removeIf(token -> token.getExpiresAt().isBefore(before));
+            return size - tokens.size();
+        }
+
+        private int revokeWhere(Predicate<RefreshToken> filter) {
+            int revoked = 0;
+            for (RefreshToken token : tokens) {
+                if (!token.isRevoked() && filter.test(token)) {
+                    token.setRevokedAt(LocalDateTime.now());
+                    revoked++;
+                }
+            }
+            return revoked;
+        }
+    }
+}
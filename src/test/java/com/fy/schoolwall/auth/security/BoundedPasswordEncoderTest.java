@@ -0,0 +1,77 @@
+package com.fy.schoolwall.auth.security;
+
+import com.fy.schoolwall.common.exception.TooManyRequestsException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 有界密码编码器测试：队列已满时拒绝，低成本哈希需要升级
+ */
+public class BoundedPasswordEncoderTest {
+
+    @Test
+    void rejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 4, 1, 1);
+        try {
+            // 一个任务占用唯一的线程，一个任务在队列中等待
+            CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "x"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("b", "x"));
+            while (encoder.getQueueDepth() == 0) {
+                Thread.onSpinWait();
+            }
+
+            assertThrows(TooManyRequestsException.class, () -> encoder.matches("c", "x"));
+            assertEquals(1, encoder.getRejectedCount());
+
+            release.countDown();
+            assertTrue(running.get(5, TimeUnit.SECONDS));
+            assertTrue(queued.get(5, TimeUnit.SECONDS));
+            assertEquals(2, encoder.getHashCount());
+        } finally {
+            release.countDown();
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void upgradesHashesBelowConfiguredCost() {
+        String legacyHash = new BCryptPasswordEncoder(4).encode("secret");
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(5, 1, 4);
+        try {
+            assertTrue(encoder.matches("secret", legacyHash));
+            assertTrue(encoder.upgradeEncoding(legacyHash));
+
+            String upgraded = encoder.encode("secret");
+            assertTrue(encoder.matches("secret", upgraded));
+            assertFalse(encoder.upgradeEncoding(upgraded));
+        } finally {
+            encoder.shutdown();
+        }
+    }
+}
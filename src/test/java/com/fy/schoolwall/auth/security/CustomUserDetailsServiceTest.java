@@ -0,0 +1,76 @@
+package com.fy.schoolwall.auth.security;
+
+import com.fy.schoolwall.user.event.UserAccountChangedEvent;
+import com.fy.schoolwall.user.model.User;
+import com.fy.schoolwall.user.repository.UserMapper;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 登录用户缓存测试：重复登录只查询一次，账户变更后立即失效，不缓存不存在的用户
+ */
+public class CustomUserDetailsServiceTest {
+
+    private final UserMapper userMapper = mock(UserMapper.class);
+    private final CustomUserDetailsService service = new CustomUserDetailsService(userMapper, 100, 300);
+
+    @Test
+    void cachesUntilAccountChanges() {
+        User enabled = user(true);
+        User disabled = user(false);
+        when(userMapper.findByUsername("alice")).thenReturn(enabled, disabled);
+        when(userMapper.findByUsername("alice@example.com")).thenReturn(null);
+        when(userMapper.findByEmail("alice@example.com")).thenReturn(enabled);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(service.loadUserByUsername("alice").isEnabled());
+            service.loadUserByUsername("alice@example.com");
+        }
+        verify(userMapper, times(1)).findByUsername("alice");
+        verify(userMapper, times(1)).findByEmail("alice@example.com");
+
+        // 其他用户的变更不影响缓存
+        service.onUserAccountChanged(UserAccountChangedEvent.statusChanged(List.of(7L), false));
+        assertTrue(service.loadUserByUsername("alice").isEnabled());
+
+        service.onUserAccountChanged(UserAccountChangedEvent.statusChanged(List.of(7L, 42L), false));
+        UserDetails reloaded = service.loadUserByUsername("alice");
+        assertFalse(reloaded.isEnabled());
+        verify(userMapper, times(2)).findByUsername("alice");
+        // 同一用户以邮箱登录的缓存项同样失效
+        service.loadUserByUsername("alice@example.com");
+        verify(userMapper, times(2)).findByEmail("alice@example.com");
+    }
+
+    @Test
+    void doesNotCacheUnknownUsers() {
+        when(userMapper.findByUsername("bob")).thenReturn(null, user(true));
+
+        assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("bob"));
+        assertEquals(42L, ((UserPrincipal) service.loadUserByUsername("bob")).getId());
+    }
+
+    private static User user(boolean enabled) {
+        User user = new User();
+        user.setId(42L);
+        user.setUsername("alice");
+        user.setPasswordHash("{noop}secret");
+        user.setRole("USER");
+        user.setIsEnabled(enabled);
+        user.setIsLocked(false);
+        return user;
+    }
+}
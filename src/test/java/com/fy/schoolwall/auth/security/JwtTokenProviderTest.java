@@ -0,0 +1,87 @@
+package com.fy.schoolwall.auth.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fy.schoolwall.user.model.User;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 访问令牌签发与校验测试：身份信息往返、篡改、过期以及不接受的算法
+ */
+public class JwtTokenProviderTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret!";
+    private static final Instant NOW = Instant.parse("2025-09-01T08:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JwtTokenProvider provider = new JwtTokenProvider(objectMapper, SECRET, 900,
+            Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void roundTripsIdentityWithoutPassword() {
+        String token = provider.createAccessToken(principal());
+
+        UserPrincipal parsed = provider.parseAccessToken(token);
+
+        assertNotNull(parsed);
+        assertEquals(42L, parsed.getId());
+        assertEquals("alice", parsed.getUsername());
+        assertEquals("ADMIN", parsed.getRole());
+        assertEquals("ROLE_ADMIN", parsed.getAuthorities().iterator().next().getAuthority());
+        assertNull(parsed.getPassword());
+    }
+
+    @Test
+    void rejectsTamperedExpiredAndForeignTokens() {
+        String token = provider.createAccessToken(principal());
+        String[] parts = token.split("\\.");
+
+        // 篡改载荷（把角色改为 USER）后签名不再匹配
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                .replace("ADMIN", "USER");
+        String tampered = parts[0] + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "." + parts[2];
+        assertNull(provider.parseAccessToken(tampered));
+
+        // alg=none 且不带签名
+        String none = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+        assertNull(provider.parseAccessToken(none + "." + parts[1] + "."));
+
+        // 其他密钥签发
+        JwtTokenProvider other = new JwtTokenProvider(objectMapper, SECRET.replace('!', '?'), 900,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        assertNull(other.parseAccessToken(token));
+
+        // 过期
+        JwtTokenProvider later = new JwtTokenProvider(objectMapper, SECRET, 900,
+                Clock.fixed(NOW.plusSeconds(900), ZoneOffset.UTC));
+        assertNull(later.parseAccessToken(token));
+
+        assertNull(provider.parseAccessToken("not-a-token"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new JwtTokenProvider(objectMapper, "short", 900, Clock.systemUTC()));
+    }
+
+    private static UserPrincipal principal() {
+        User user = new User();
+        user.setId(42L);
+        user.setUsername("alice");
+        user.setPasswordHash("$2a$10$hash");
+        user.setRole("ADMIN");
+        user.setIsEnabled(true);
+        user.setIsLocked(false);
+        return UserPrincipal.fromUser(user);
+    }
+}
@@ -0,0 +1,91 @@
+package com.fy.schoolwall.comment;
+
+import com.fy.schoolwall.comment.dto.CommentDto;
+import com.fy.schoolwall.comment.model.Comment;
+import com.fy.schoolwall.comment.repository.CommentMapper;
+import com.fy.schoolwall.comment.service.CommentService;
+import com.fy.schoolwall.common.util.PaginationUtil;
+import com.fy.schoolwall.post.model.Post;
+import com.fy.schoolwall.post.repository.PostMapper;
+import com.fy.schoolwall.user.model.User;
+import com.fy.schoolwall.user.service.UserService;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 帖子评论列表的查询次数测试：无论一页有多少条顶级评论，
+ * 回复预览和回复数都只应各查询一次。
+ */
+public class CommentServiceTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 10, 100 })
+    void getPostCommentsUsesConstantNumberOfQueries(int pageSize) {
+        CommentMapper commentMapper = mock(CommentMapper.class);
+        PostMapper postMapper = mock(PostMapper.class);
+        UserService userService = mock(UserService.class);
+
+        User viewer = new User();
+        viewer.setId(1L);
+        when(userService.getCurrentAuthenticatedUser()).thenReturn(viewer);
+        when(postMapper.findById(7L)).thenReturn(new Post());
+
+        List<Comment> topLevel = new ArrayList<>();
+        List<Comment> replies = new ArrayList<>();
+        List<Map<String, Object>> counts = new ArrayList<>();
+        for (long id = 1; id <= pageSize; id++) {
+            topLevel.add(comment(id, null));
+            replies.add(comment(1000 + id, id));
+            counts.add(Map.of("parent_comment_id", id, "reply_count", 1L));
+        }
+        when(commentMapper.findTopLevelCommentsByPostId(eq(7L), anyInt(), anyInt())).thenReturn(topLevel);
+        when(commentMapper.findRecentRepliesByParentCommentIds(anyList(), anyInt())).thenReturn(replies);
+        when(commentMapper.countRepliesByParentCommentIds(anyList())).thenReturn(counts);
+
+        CommentService commentService = new CommentService(commentMapper, postMapper, userService,
+                mock(ApplicationEventPublisher.class));
+        PaginationUtil.PageResponse<CommentDto> page = commentService.getPostComments(7L,
+                new PaginationUtil.PageRequest(0, pageSize));
+
+        assertEquals(pageSize, page.getContent().size());
+        page.getContent().forEach(dto -> {
+            assertEquals(1, dto.getReplies().size());
+            assertEquals(1L, dto.getReplyCount());
+        });
+
+        verify(commentMapper, times(1)).findRecentRepliesByParentCommentIds(anyList(), eq(3));
+        verify(commentMapper, times(1)).countRepliesByParentCommentIds(anyList());
+        verify(commentMapper, never()).findRepliesByParentCommentId(anyLong(), anyInt(), anyInt());
+        verify(commentMapper, never()).countRepliesByParentCommentId(anyLong());
+    }
+
+    private static Comment comment(Long id, Long parentId) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setUserId(2L);
+        comment.setPostId(7L);
+        comment.setParentCommentId(parentId);
+        comment.setContent("comment " + id);
+        comment.setCreatedAt(LocalDateTime.now());
+        comment.setIsDeleted(false);
+        return comment;
+    }
+}
@@ -0,0 +1,82 @@
+package com.fy.schoolwall.comment;
+
+import com.fy.schoolwall.comment.repository.CommentMapper;
+import com.fy.schoolwall.comment.service.CommentSnapshotSync;
+import com.fy.schoolwall.post.event.PostChangedEvent;
+import com.fy.schoolwall.post.model.Post;
+import com.fy.schoolwall.post.repository.PostMapper;
+import com.fy.schoolwall.user.event.UserAccountChangedEvent;
+import com.fy.schoolwall.user.model.User;
+import com.fy.schoolwall.user.repository.UserMapper;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 评论快照同步测试：按块同步到没有需要修改的行为止，与快照无关的事件不触发同步
+ */
+public class CommentSnapshotSyncTest {
+
+    private final CommentMapper commentMapper = mock(CommentMapper.class);
+    private final UserMapper userMapper = mock(UserMapper.class);
+    private final PostMapper postMapper = mock(PostMapper.class);
+    private final CommentSnapshotSync sync = new CommentSnapshotSync(commentMapper, userMapper, postMapper, 100);
+
+    @AfterEach
+    void shutdown() {
+        sync.shutdown();
+    }
+
+    @Test
+    void syncsAuthorSnapshotInChunks() throws Exception {
+        User user = new User();
+        user.setId(5L);
+        user.setUsername("alice");
+        user.setAvatarUrl("https://cdn.example.com/a.png");
+        when(userMapper.findById(5L)).thenReturn(user);
+        when(commentMapper.syncAuthorSnapshot(5L, "alice", "https://cdn.example.com/a.png", 100))
+                .thenReturn(100, 100, 40);
+
+        sync.onUserAccountChanged(UserAccountChangedEvent.of(UserAccountChangedEvent.Type.PASSWORD_CHANGED, 5L));
+        sync.onUserAccountChanged(UserAccountChangedEvent.of(UserAccountChangedEvent.Type.PROFILE_UPDATED, 5L));
+        waitFor(() -> sync.getSyncedRowCount() == 240);
+
+        verify(commentMapper, times(3)).syncAuthorSnapshot(5L, "alice", "https://cdn.example.com/a.png", 100);
+        assertEquals(0, sync.getFailedSyncCount());
+    }
+
+    @Test
+    void syncsPostTitleOnlyForEdits() throws Exception {
+        Post post = new Post();
+        post.setId(7L);
+        post.setTitle("新标题");
+        when(postMapper.findById(7L)).thenReturn(post);
+        when(commentMapper.syncPostTitle(7L, "新标题", 100)).thenReturn(3);
+
+        sync.onPostChanged(PostChangedEvent.of(PostChangedEvent.Type.TOP_CHANGED, post));
+        sync.onPostChanged(PostChangedEvent.of(PostChangedEvent.Type.UPDATED, post));
+        waitFor(() -> sync.getSyncedRowCount() == 3);
+
+        verify(commentMapper, times(1)).syncPostTitle(7L, "新标题", 100);
+        verify(commentMapper, never()).syncAuthorSnapshot(anyLong(), anyString(), anyString(), anyInt());
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,182 @@
+package com.fy.schoolwall.common.metrics;
+
+import com.fy.schoolwall.auth.security.UserPrincipal;
+import com.fy.schoolwall.comment.model.Comment;
+import com.fy.schoolwall.comment.repository.CommentMapper;
+import com.fy.schoolwall.comment.service.CommentService;
+import com.fy.schoolwall.common.util.PaginationUtil;
+import com.fy.schoolwall.emotion.repository.EmotionMapper;
+import com.fy.schoolwall.post.model.Post;
+import com.fy.schoolwall.post.repository.PostMapper;
+import com.fy.schoolwall.post.search.PostSearchIndex;
+import com.fy.schoolwall.post.service.PostCounterService;
+import com.fy.schoolwall.post.service.PostListCache;
+import com.fy.schoolwall.post.service.PostPurgeService;
+import com.fy.schoolwall.post.service.PostService;
+import com.fy.schoolwall.post.service.SlugAllocator;
+import com.fy.schoolwall.post.service.ViewCountBuffer;
+import com.fy.schoolwall.user.repository.UserMapper;
+import com.fy.schoolwall.user.service.UserService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 读接口的语句预算：语句数量不随页面大小增长，新增的逐条查询（N+1）会让测试失败
+ *
+ * Mapper 和 UserService 都使用记录语句的模拟对象/真实实现，当前用户与经过 JWT 过滤器的请求一样来自访问令牌。
+ */
+public class EndpointStatementBudgetTest {
+
+    private static final long VIEWER_ID = 1L;
+
+    private CommentMapper commentMapper;
+    private PostMapper postMapper;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        commentMapper = StatementBudget.mapper(CommentMapper.class);
+        postMapper = StatementBudget.mapper(PostMapper.class);
+        userService = new UserService(StatementBudget.mapper(UserMapper.class), null,
+                StatementBudget.mapper(EmotionMapper.class), true, mock(ApplicationEventPublisher.class));
+
+        UserPrincipal principal = UserPrincipal.fromToken(VIEWER_ID, "viewer", "USER");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * CommentService.getPostComments：帖子、顶级评论、回复预览、回复数、总数
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 20, 100 })
+    void postCommentsWithReplyPreviews(int pageSize) {
+        when(postMapper.findById(7L)).thenReturn(new Post());
+        List<Comment> topLevel = new ArrayList<>();
+        List<Comment> replies = new ArrayList<>();
+        List<Map<String, Object>> counts = new ArrayList<>();
+        for (long id = 1; id <= pageSize; id++) {
+            topLevel.add(comment(id, null));
+            replies.add(comment(1000 + id, id));
+            counts.add(Map.of("parent_comment_id", id, "reply_count", 1L));
+        }
+        when(commentMapper.findTopLevelCommentsByPostId(eq(7L), anyInt(), anyInt())).thenReturn(topLevel);
+        when(commentMapper.findRecentRepliesByParentCommentIds(anyList(), anyInt())).thenReturn(replies);
+        when(commentMapper.countRepliesByParentCommentIds(anyList())).thenReturn(counts);
+
+        CommentService commentService = commentService();
+        StatementLog log = StatementBudget.run(
+                () -> commentService.getPostComments(7L, new PaginationUtil.PageRequest(0, pageSize)));
+
+        StatementBudget.assertWithin(log, 5);
+    }
+
+    /**
+     * GET /api/comments/post/{postId}/toplevel
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 20, 100 })
+    void topLevelComments(int pageSize) {
+        when(postMapper.findById(7L)).thenReturn(new Post());
+        List<Comment> topLevel = new ArrayList<>();
+        for (long id = 1; id <= pageSize; id++) {
+            topLevel.add(comment(id, null));
+        }
+        when(commentMapper.findTopLevelCommentsByPostId(eq(7L), anyInt(), anyInt())).thenReturn(topLevel);
+
+        CommentService commentService = commentService();
+        StatementLog log = StatementBudget.run(() -> commentService.getTopLevelCommentsByPostId(7L,
+                new PaginationUtil.PageRequest(0, pageSize)));
+
+        StatementBudget.assertWithin(log, 3);
+    }
+
+    /**
+     * GET /api/comments/for-me
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 20, 100 })
+    void commentsForMe(int pageSize) {
+        List<Comment> comments = new ArrayList<>();
+        for (long id = 1; id <= pageSize; id++) {
+            comments.add(comment(id, null));
+        }
+        when(commentMapper.findCommentsForUser(eq(VIEWER_ID), anyInt(), anyInt())).thenReturn(comments);
+
+        CommentService commentService = commentService();
+        StatementLog log = StatementBudget.run(
+                () -> commentService.getCommentsForMe(new PaginationUtil.PageRequest(0, pageSize)));
+
+        StatementBudget.assertWithin(log, 2);
+    }
+
+    /**
+     * GET /api/posts/feed
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 20, 100 })
+    void postFeed(int pageSize) {
+        List<Post> posts = new ArrayList<>();
+        for (long id = 1; id <= pageSize; id++) {
+            Post post = new Post();
+            post.setId(id);
+            post.setTitle("post " + id);
+            post.setContent("content of post " + id);
+            post.setPublishedAt(LocalDateTime.now());
+            posts.add(post);
+        }
+        when(postMapper.findPublishedPosts(anyInt(), anyInt())).thenReturn(posts);
+        when(postMapper.countByStatus("PUBLISHED")).thenReturn((long) pageSize);
+
+        PostService postService = new PostService(postMapper, userService, mock(ViewCountBuffer.class),
+                mock(PostSearchIndex.class), mock(PostListCache.class), mock(ApplicationEventPublisher.class),
+                mock(PostPurgeService.class), mock(SlugAllocator.class), mock(PostCounterService.class),
+                mock(PlatformTransactionManager.class), true);
+        StatementLog log = StatementBudget.run(
+                () -> postService.getPostFeed(new PaginationUtil.PageRequest(0, pageSize)));
+
+        StatementBudget.assertWithin(log, 2);
+        assertEquals(1, log.count("PostMapper.findPublishedPosts"));
+    }
+
+    private CommentService commentService() {
+        return new CommentService(commentMapper, postMapper, userService, mock(ApplicationEventPublisher.class));
+    }
+
+    private static Comment comment(Long id, Long parentId) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setUserId(2L);
+        comment.setPostId(7L);
+        comment.setParentCommentId(parentId);
+        comment.setContent("comment " + id);
+        comment.setCreatedAt(LocalDateTime.now());
+        comment.setIsDeleted(false);
+        return comment;
+    }
+}
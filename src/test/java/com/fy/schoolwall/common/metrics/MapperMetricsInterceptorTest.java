@@ -0,0 +1,59 @@
+package com.fy.schoolwall.common.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * MyBatis 语句计时测试：按语句 ID 和结果分别记录
+ */
+public class MapperMetricsInterceptorTest {
+
+    @Test
+    void recordsStatementTimersBySuccessAndFailure() throws Throwable {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MapperMetricsInterceptor interceptor = new MapperMetricsInterceptor(registry);
+        MappedStatement statement = statement("com.fy.schoolwall.post.repository.PostMapper.updateViewCount");
+        Executor executor = mock(Executor.class);
+        when(executor.update(any(), any())).thenReturn(1, 1).thenThrow(new SQLException("deadlock"));
+
+        assertEquals(1, interceptor.intercept(update(executor, statement)));
+        assertEquals(1, interceptor.intercept(update(executor, statement)));
+        // Invocation 通过反射调用，异常被包装为 InvocationTargetException（MyBatis 的 Plugin 会再解包）
+        assertThrows(InvocationTargetException.class, () -> interceptor.intercept(update(executor, statement)));
+
+        Timer success = registry.get("mybatis.statement")
+                .tags("statement", "PostMapper.updateViewCount", "command", "UPDATE", "outcome", "success").timer();
+        Timer error = registry.get("mybatis.statement")
+                .tags("statement", "PostMapper.updateViewCount", "outcome", "error").timer();
+        assertEquals(2, success.count());
+        assertEquals(1, error.count());
+    }
+
+    private static MappedStatement statement(String id) {
+        Configuration configuration = new Configuration();
+        return new MappedStatement.Builder(configuration, id, new StaticSqlSource(configuration, "UPDATE posts"),
+                SqlCommandType.UPDATE).build();
+    }
+
+    private static Invocation update(Executor executor, MappedStatement statement) throws NoSuchMethodException {
+        return new Invocation(executor, Executor.class.getMethod("update", MappedStatement.class, Object.class),
+                new Object[] { statement, null });
+    }
+}
@@ -0,0 +1,88 @@
+package com.fy.schoolwall.common.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 语句审计测试：拦截器按线程记录语句，请求结束时报告重复执行和超过耗时预算的语句
+ */
+public class StatementAuditTest {
+
+    private final StatementAuditInterceptor interceptor = new StatementAuditInterceptor();
+    private final Executor executor = mock(Executor.class);
+
+    @AfterEach
+    void tearDown() {
+        StatementLog.end();
+    }
+
+    @Test
+    void reportsRepeatedAndSlowStatements() throws Throwable {
+        MappedStatement findReplies = statement("com.fy.schoolwall.comment.repository.CommentMapper.findReplies");
+        MappedStatement findPost = statement("com.fy.schoolwall.post.repository.PostMapper.findById");
+
+        StatementLog log = StatementLog.begin();
+        interceptor.intercept(query(findPost));
+        for (int i = 0; i < 6; i++) {
+            interceptor.intercept(query(findReplies));
+        }
+        log.record("PostMapper.findFeed", 250_000_000L);
+        StatementLog.end();
+
+        StatementAudit audit = new StatementAudit(true, 5, 200, 2, new ObjectMapper().findAndRegisterModules());
+        List<StatementFinding> findings = audit.report("GET /api/posts/{id}", "/api/posts/7", log);
+
+        assertEquals(8, log.getTotalCount());
+        assertEquals(2, findings.size());
+        StatementFinding repeated = findings.get(0);
+        assertEquals(StatementFinding.Type.REPEATED_STATEMENT, repeated.getType());
+        assertEquals("CommentMapper.findReplies", repeated.getStatementId());
+        assertEquals(6, repeated.getExecutions());
+        assertEquals(8, repeated.getRequestStatements());
+        StatementFinding slow = findings.get(1);
+        assertEquals(StatementFinding.Type.SLOW_STATEMENT, slow.getType());
+        assertEquals("PostMapper.findFeed", slow.getStatementId());
+        assertEquals(250.0, slow.getMaxMillis());
+
+        // 最新的在前，超过 max-findings 的旧发现被丢弃
+        audit.report("GET /api/posts/feed", "/api/posts/feed", log);
+        List<StatementFinding> recent = audit.getRecentFindings();
+        assertEquals(2, recent.size());
+        assertEquals("GET /api/posts/feed", recent.get(0).getEndpoint());
+        assertEquals(2, audit.getAuditedRequestCount());
+        assertEquals(4, audit.getFindingCount());
+    }
+
+    @Test
+    void doesNotRecordWithoutActiveLog() throws Throwable {
+        interceptor.intercept(query(statement("com.fy.schoolwall.post.repository.PostMapper.findById")));
+        assertTrue(StatementLog.current() == null);
+    }
+
+    private static MappedStatement statement(String id) {
+        Configuration configuration = new Configuration();
+        return new MappedStatement.Builder(configuration, id, new StaticSqlSource(configuration, "SELECT 1"),
+                SqlCommandType.SELECT).build();
+    }
+
+    private Invocation query(MappedStatement statement) throws NoSuchMethodException {
+        return new Invocation(executor, Executor.class.getMethod("query", MappedStatement.class, Object.class,
+                RowBounds.class, ResultHandler.class), new Object[] { statement, null, RowBounds.DEFAULT, null });
+    }
+}
@@ -0,0 +1,74 @@
+package com.fy.schoolwall.common.metrics;
+
+import org.mockito.invocation.Invocation;
+import org.mockito.listeners.InvocationListener;
+
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * 测试中按接口断言 MyBatis 语句数量
+ *
+ * 用 {@link #mapper(Class)} 创建的 Mapper 模拟对象，每次方法调用都记为一条语句
+ * （语句 ID 与 StatementAuditInterceptor 相同，如 CommentMapper.findTopLevelCommentsByPostId），
+ * 连接真实数据库的测试则由 StatementAuditInterceptor 记录；两者都写入当前线程的 {@link StatementLog}。
+ *
+ * <pre>
+ * StatementLog log = StatementBudget.run(() -&gt; commentService.getPostComments(7L, pageRequest));
+ * StatementBudget.assertWithin(log, 4);
+ * </pre>
+ */
+public final class StatementBudget {
+
+    private static final InvocationListener RECORDER = report -> {
+        StatementLog log = StatementLog.current();
+        if (log != null && report.getInvocation() instanceof Invocation invocation
+                && invocation.getMethod().getDeclaringClass() != Object.class) {
+            log.record(invocation.getMethod().getDeclaringClass().getSimpleName() + "."
+                    + invocation.getMethod().getName(), 0);
+        }
+    };
+
+    private StatementBudget() {
+    }
+
+    /**
+     * 创建记录语句的 Mapper 模拟对象，桩和校验与普通 mock 相同
+     */
+    public static <T> T mapper(Class<T> mapperType) {
+        return mock(mapperType, withSettings().invocationListeners(RECORDER));
+    }
+
+    /**
+     * 执行一段代码并返回其间在当前线程上执行的语句
+     */
+    public static StatementLog run(Runnable action) {
+        StatementLog log = StatementLog.begin();
+        try {
+            action.run();
+        } finally {
+            StatementLog.end();
+        }
+        return log;
+    }
+
+    /**
+     * 语句总数不超过预算，且没有语句执行超过一次（一次性加载，没有 N+1）
+     */
+    public static void assertWithin(StatementLog log, int maxStatements) {
+        boolean repeated = log.getStatements().values().stream().anyMatch(stats -> stats.getCount() > 1);
+        if (log.getTotalCount() > maxStatements || repeated) {
+            fail("Expected at most " + maxStatements + " statements, each executed once, but got "
+                    + log.getTotalCount() + ": " + describe(log));
+        }
+    }
+
+    private static String describe(StatementLog log) {
+        return log.getStatements().entrySet().stream()
+                .map(entry -> entry.getKey() + " x" + entry.getValue().getCount())
+                .collect(Collectors.joining(", "));
+    }
+}
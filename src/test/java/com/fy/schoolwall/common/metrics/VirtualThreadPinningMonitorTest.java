@@ -0,0 +1,78 @@
+package com.fy.schoolwall.common.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 虚拟线程钉住检测测试：通过 JFR 捕获 synchronized 块内阻塞的虚拟线程，按调用栈归并并标记 JDBC 路径
+ */
+public class VirtualThreadPinningMonitorTest {
+
+    private final Object lock = new Object();
+
+    @Test
+    void detectsVirtualThreadBlockedInsideSynchronized() throws Exception {
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(true, true, 10, 100);
+        monitor.start();
+        try {
+            Thread.ofVirtual().start(this::sleepWhileHoldingLock).join();
+
+            // JFR 流大约每秒推送一次事件
+            long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+            while (monitor.getPinnedCount() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+        } finally {
+            monitor.stop();
+        }
+
+        assertTrue(monitor.getPinnedCount() > 0);
+        PinnedThreadSite site = monitor.getPinnedSites().get(0);
+        assertTrue(site.getStackTrace().stream().anyMatch(frame -> frame.contains("sleepWhileHoldingLock")));
+        assertFalse(site.isJdbc());
+        assertTrue(site.getMaxMillis() >= 10);
+    }
+
+    @Test
+    void groupsPinnedEventsByStackTraceAndFlagsJdbcPaths() {
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(true, true, 20, 2);
+        List<String> jdbcStack = List.of("java.lang.VirtualThread.parkOnCarrierThread",
+                "com.mysql.cj.protocol.a.NativeProtocol.sendCommand:1000",
+                "com.fy.schoolwall.post.service.PostService.getPostFeed:216");
+        List<String> appStack = List.of("java.lang.VirtualThread.parkOnCarrierThread",
+                "com.fy.schoolwall.post.service.PostService.getPostFeed:216");
+
+        monitor.record(Duration.ofMillis(30), jdbcStack);
+        monitor.record(Duration.ofMillis(50), jdbcStack);
+        monitor.record(Duration.ofMillis(25), appStack);
+        // 超过 max-sites 的新位置只计入总数
+        monitor.record(Duration.ofMillis(25), List.of("com.fy.schoolwall.Other.method"));
+
+        assertEquals(4, monitor.getPinnedCount());
+        assertEquals(2, monitor.getJdbcPinnedCount());
+        assertEquals(Duration.ofMillis(130).toNanos(), monitor.getTotalPinnedNanos());
+        List<PinnedThreadSite> sites = monitor.getPinnedSites();
+        assertEquals(2, sites.size());
+        assertTrue(sites.get(0).isJdbc());
+        assertEquals(2, sites.get(0).getCount());
+        assertEquals(80.0, sites.get(0).getTotalMillis());
+        assertEquals(50.0, sites.get(0).getMaxMillis());
+        assertFalse(sites.get(1).isJdbc());
+    }
+
+    private void sleepWhileHoldingLock() {
+        synchronized (lock) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.fy.schoolwall.common.util;
+
+import net.sourceforge.pinyin4j.PinyinHelper;
+import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
+import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
+import net.sourceforge.pinyin4j.format.exception.BadHanyuPinyinOutputFormatCombination;
+
+import java.text.Normalizer;
+import java.util.regex.Pattern;
+
+/**
+ * 原先基于逐字 pinyin4j 调用和多轮正则替换的 slug 实现
+ * 只作为 {@link SlugGenerator} 的对照（一致性测试与基准测试），不在生产代码中使用
+ */
+public final class LegacySlugGenerator {
+
+    private static final Pattern NON_LATIN = Pattern.compile("[^\\w-]");
+    private static final Pattern WHITESPACE = Pattern.compile("[\\s]");
+    private static final Pattern MULTIPLE_HYPHENS = Pattern.compile("-{2,}");
+    private static final Pattern LEADING_TRAILING_HYPHENS = Pattern.compile("^-+|-+$");
+
+    private static final HanyuPinyinOutputFormat PINYIN_FORMAT = new HanyuPinyinOutputFormat();
+
+    static {
+        PINYIN_FORMAT.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
+        PINYIN_FORMAT.setCaseType(HanyuPinyinCaseType.LOWERCASE);
+        PINYIN_FORMAT.setVCharType(HanyuPinyinVCharType.WITH_V);
+    }
+
+    private LegacySlugGenerator() {
+    }
+
+    public static String generateSlug(String input) {
+        if (input == null || input.trim().isEmpty()) {
+            return SlugGenerator.DEFAULT_SLUG;
+        }
+
+        String slug = input.trim().toLowerCase();
+        slug = handleChineseCharacters(slug);
+        slug = Normalizer.normalize(slug, Normalizer.Form.NFD);
+        slug = WHITESPACE.matcher(slug).replaceAll("-");
+        slug = NON_LATIN.matcher(slug).replaceAll("");
+        slug = MULTIPLE_HYPHENS.matcher(slug).replaceAll("-");
+        slug = LEADING_TRAILING_HYPHENS.matcher(slug).replaceAll("");
+
+        if (slug.isEmpty()) {
+            return SlugGenerator.DEFAULT_SLUG;
+        }
+
+        if (slug.length() > SlugGenerator.MAX_SLUG_LENGTH) {
+            slug = slug.substring(0, SlugGenerator.MAX_SLUG_LENGTH);
+            if (slug.endsWith("-")) {
+                slug = slug.substring(0, slug.length() - 1);
+            } else if (slug.contains("-")) {
+                int lastHyphenIndex = slug.lastIndexOf("-");
+                if (lastHyphenIndex != -1 && (slug.length() - lastHyphenIndex) < 10) {
+                    slug = slug.substring(0, lastHyphenIndex);
+                }
+            }
+        }
+        slug = LEADING_TRAILING_HYPHENS.matcher(slug).replaceAll("");
+        if (slug.isEmpty()) {
+            return SlugGenerator.DEFAULT_SLUG;
+        }
+
+        return slug;
+    }
+
+    private static String handleChineseCharacters(String input) {
+        StringBuilder pinyinBuilder = new StringBuilder();
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            try {
+                if (Character.getType(c) == Character.OTHER_LETTER) {
+                    String[] pinyinArray = PinyinHelper.toHanyuPinyinStringArray(c, PINYIN_FORMAT);
+                    if (pinyinArray != null && pinyinArray.length > 0) {
+                        pinyinBuilder.append(pinyinArray[0]);
+                    } else {
+                        pinyinBuilder.append(c);
+                    }
+                } else {
+                    pinyinBuilder.append(c);
+                }
+            } catch (BadHanyuPinyinOutputFormatCombination e) {
+                pinyinBuilder.append(c);
+            }
+        }
+        return pinyinBuilder.toString();
+    }
+}
@@ -0,0 +1,75 @@
+package com.fy.schoolwall.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 单次遍历的 slug 生成与原先正则实现的一致性测试
+ */
+public class SlugGeneratorTest {
+
+    static final List<String> TITLES = List.of(
+            "校园墙 Spring Boot 实战：从 0 到 1",
+            "期末考试复习资料分享（高数 + 线代）",
+            "Résumé 写作技巧 -- 求职季必看!!!",
+            "  周末一起去爬山吗？  ",
+            "Java 21 虚拟线程 vs 平台线程 benchmark",
+            "绿色出行 lv you 女生宿舍 nv_sheng",
+            "🎉🎉 新学期快乐 🎉🎉",
+            "ÀÉÎÕÜ ñ ç ø ß ﬁ Ｆｕｌｌｗｉｄｔｈ　全角空格",
+            "---",
+            "",
+            "   ",
+            "图书馆".repeat(30),
+            "a very long english title with many words that keeps going and going until it exceeds the limit",
+            "中文与English混合的非常非常长的标题，用于测试截断时的连字符处理逻辑是否保持不变 with extra words");
+
+    @Test
+    void matchesLegacyImplementationOnMixedTitles() {
+        for (String title : TITLES) {
+            String slug = SlugGenerator.generateSlug(title);
+            assertEquals(LegacySlugGenerator.generateSlug(title), slug, title);
+            assertTrue(slug.length() <= SlugGenerator.MAX_SLUG_LENGTH, title);
+        }
+        assertEquals("untitled", SlugGenerator.generateSlug(null));
+    }
+
+    @Test
+    void matchesLegacyImplementationForEveryBmpCharacter() {
+        List<String> mismatches = new ArrayList<>();
+        for (char c = 1; c < Character.MAX_VALUE; c++) {
+            if (Character.isSurrogate(c)) {
+                continue;
+            }
+            String input = "a" + c + "b " + c;
+            String expected = LegacySlugGenerator.generateSlug(input);
+            String actual = SlugGenerator.generateSlug(input);
+            if (!expected.equals(actual)) {
+                mismatches.add(String.format("U+%04X: %s != %s", (int) c, actual, expected));
+            }
+        }
+        assertTrue(mismatches.isEmpty(), () -> mismatches.size() + " mismatches, e.g. "
+                + mismatches.subList(0, Math.min(10, mismatches.size())));
+    }
+
+    @Test
+    void matchesLegacyImplementationOnRandomInput() {
+        String alphabet = "abcXYZ019_- \t\n!?，。：中文标题长安银行éÅß🎉";
+        Random random = new Random(42);
+        for (int n = 0; n < 5000; n++) {
+            StringBuilder input = new StringBuilder();
+            int length = random.nextInt(150);
+            for (int i = 0; i < length; i++) {
+                input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertEquals(LegacySlugGenerator.generateSlug(input.toString()),
+                    SlugGenerator.generateSlug(input.toString()), input.toString());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.fy.schoolwall.emotion;
+
+import com.fy.schoolwall.comment.event.CommentCreatedEvent;
+import com.fy.schoolwall.emotion.client.SentimentClient;
+import com.fy.schoolwall.emotion.client.SentimentResult;
+import com.fy.schoolwall.emotion.client.SentimentUnavailableException;
+import com.fy.schoolwall.emotion.model.Emotion;
+import com.fy.schoolwall.emotion.repository.EmotionMapper;
+import com.fy.schoolwall.emotion.service.EmotionPrecomputePipeline;
+import com.fy.schoolwall.emotion.service.EmotionService;
+import com.fy.schoolwall.emotion.service.EmotionWriter;
+import com.fy.schoolwall.post.event.PostChangedEvent;
+import com.fy.schoolwall.post.model.Post;
+import com.fy.schoolwall.post.repository.PostMapper;
+import com.fy.schoolwall.comment.repository.CommentMapper;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 情绪预计算流水线测试：事件入队、批量写入、失败跳过、队列满时丢弃以及已有结果时的逐条写入
+ */
+public class EmotionPrecomputePipelineTest {
+
+    private final SentimentClient sentimentClient = mock(SentimentClient.class);
+    private final EmotionMapper emotionMapper = mock(EmotionMapper.class);
+    private final EmotionWriter emotionWriter = new EmotionWriter(emotionMapper);
+    private final EmotionService emotionService = new EmotionService(emotionMapper, mock(PostMapper.class),
+            mock(CommentMapper.class), sentimentClient, emotionWriter);
+    private EmotionPrecomputePipeline pipeline;
+
+    @AfterEach
+    void stop() {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void analyzesCreatedCommentsAndPublishedPostsInBatches() {
+        // 工作线程启动前先入队，保证一次取出整批任务
+        pipeline = new EmotionPrecomputePipeline(sentimentClient, emotionWriter, emotionService, true, 100, 1, 20,
+                5000, false);
+        when(sentimentClient.analyze(anyString(), anyString()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(result("positive")));
+        when(sentimentClient.analyze(eq("comment:3"), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new SentimentUnavailableException("down")));
+
+        for (long id = 1; id <= 5; id++) {
+            pipeline.onCommentCreated(new CommentCreatedEvent(id, 100L, 7L, "评论 " + id));
+        }
+        pipeline.onPostChanged(PostChangedEvent.of(PostChangedEvent.Type.PUBLISHED, post(100L, "PUBLISHED")));
+        // 草稿不预计算
+        pipeline.onPostChanged(PostChangedEvent.of(PostChangedEvent.Type.CREATED, post(101L, "DRAFT")));
+        assertEquals(6, pipeline.getQueueSize());
+
+        pipeline.start();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Emotion>> captor = ArgumentCaptor.forClass(List.class);
+        verify(emotionMapper, timeout(5000)).batchInsert(captor.capture());
+        List<Emotion> saved = captor.getValue();
+        assertEquals(5, saved.size());
+        assertEquals(100L, saved.get(4).getPostId());
+        assertEquals("positive", saved.get(0).getSentiment());
+        assertEquals(1, pipeline.getFailedCount());
+        verify(sentimentClient, never()).analyze(eq("post:101"), anyString());
+    }
+
+    @Test
+    void dropsTasksWhenQueueIsFull() {
+        pipeline = new EmotionPrecomputePipeline(sentimentClient, emotionWriter, emotionService, true, 3, 1, 20,
+                5000, false);
+
+        for (long id = 1; id <= 5; id++) {
+            pipeline.onCommentCreated(new CommentCreatedEvent(id, 100L, 7L, "评论 " + id));
+        }
+
+        assertEquals(3, pipeline.getQueueSize());
+        assertEquals(2, pipeline.getDroppedCount());
+    }
+
+    @Test
+    void writesEachBatchWithASingleInsert() {
+        pipeline = new EmotionPrecomputePipeline(sentimentClient, emotionWriter, emotionService, true, 100, 1, 10,
+                5000, true);
+        when(sentimentClient.analyze(anyString(), anyString()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(result("neutral")));
+        List<Integer> batchSizes = new ArrayList<>();
+        when(emotionMapper.batchInsert(anyList())).thenAnswer(invocation -> {
+            batchSizes.add(((List<?>) invocation.getArgument(0)).size());
+            return 0;
+        });
+
+        for (long id = 1; id <= 25; id++) {
+            pipeline.onCommentCreated(new CommentCreatedEvent(id, 100L, 7L, "评论 " + id));
+        }
+        pipeline.start();
+
+        verify(emotionMapper, timeout(5000).times(3)).batchInsert(anyList());
+        assertEquals(List.of(10, 10, 5), batchSizes);
+        assertEquals(25, pipeline.getSavedCount());
+    }
+
+    @Test
+    void skipsExistingResultsAndCountsOnlyInsertedRows() {
+        Emotion first = emotion(1L);
+        Emotion existing = emotion(2L);
+        Emotion third = emotion(3L);
+        when(emotionMapper.batchInsert(anyList())).thenThrow(new DuplicateKeyException("uk_emotion_comment_id"));
+        doAnswer(invocation -> {
+            Emotion emotion = invocation.getArgument(0);
+            if (emotion == existing) {
+                throw new DuplicateKeyException("uk_emotion_comment_id");
+            }
+            emotion.setId(emotion.getCommentId() + 100);
+            return null;
+        }).when(emotionMapper).insert(any(Emotion.class));
+
+        List<Emotion> inserted = emotionWriter.insertAll(List.of(first, existing, third));
+
+        assertEquals(List.of(first, third), inserted);
+        verify(emotionMapper).incrementUserSentimentCounters(List.of(101L, 103L));
+    }
+
+    private static Emotion emotion(Long commentId) {
+        Emotion emotion = new Emotion();
+        emotion.setCommentId(commentId);
+        emotion.setSentiment("positive");
+        return emotion;
+    }
+
+    private static SentimentResult result(String sentiment) {
+        SentimentResult result = new SentimentResult();
+        result.setSentiment(sentiment);
+        result.setConfidence(0.8);
+        result.setProbabilities(Map.of(sentiment, 0.8));
+        return result;
+    }
+
+    private static Post post(Long id, String status) {
+        Post post = new Post();
+        post.setId(id);
+        post.setContent("帖子内容 " + id);
+        post.setStatus(status);
+        return post;
+    }
+}
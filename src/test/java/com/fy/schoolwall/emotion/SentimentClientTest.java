@@ -0,0 +1,174 @@
+package com.fy.schoolwall.emotion;
+
+import com.fy.schoolwall.emotion.client.SentimentClient;
+import com.fy.schoolwall.emotion.client.SentimentResult;
+import com.fy.schoolwall.emotion.client.SentimentUnavailableException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 情绪分析客户端测试，使用本地 HttpServer 模拟分析服务
+ */
+public class SentimentClientTest {
+
+    private static final String SINGLE_RESPONSE = "{\"success\":true,\"sentiment\":\"positive\",\"confidence\":0.9,"
+            + "\"probabilities\":{\"positive\":0.9,\"negative\":0.1}}";
+
+    private HttpServer server;
+    private final AtomicInteger singleCalls = new AtomicInteger();
+    private final AtomicInteger batchCalls = new AtomicInteger();
+    private final AtomicReference<String> lastBatchBody = new AtomicReference<>();
+    private volatile int status = 200;
+    private volatile CountDownLatch release = new CountDownLatch(0);
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/analyze_sentiment", exchange -> {
+            singleCalls.incrementAndGet();
+            await();
+            respond(exchange, status, SINGLE_RESPONSE);
+        });
+        server.createContext("/analyze_sentiment_batch", exchange -> {
+            batchCalls.incrementAndGet();
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            lastBatchBody.set(body);
+            int count = body.split("\",\"", -1).length;
+            List<String> results = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                results.add("{\"sentiment\":\"neutral\",\"confidence\":0.5,\"probabilities\":{\"neutral\":0.5}}");
+            }
+            respond(exchange, status, "{\"success\":true,\"results\":[" + String.join(",", results) + "]}");
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void analyzesText() throws Exception {
+        SentimentResult result = client(false, 3000, 5).analyze("post:1", "今天天气很好").get(5, TimeUnit.SECONDS);
+
+        assertEquals("positive", result.getSentiment());
+        assertEquals(0.9, result.getConfidence());
+        assertEquals(0.1, result.getProbabilities().get("negative"));
+    }
+
+    @Test
+    void coalescesConcurrentRequestsForSameTarget() throws Exception {
+        release = new CountDownLatch(1);
+        SentimentClient client = client(false, 3000, 5);
+
+        List<CompletableFuture<SentimentResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(client.analyze("post:1", "同一个帖子"));
+        }
+        futures.add(client.analyze("post:2", "另一个帖子"));
+        release.countDown();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, singleCalls.get());
+        assertEquals(9, client.getCoalescedCount());
+    }
+
+    @Test
+    void microBatchesTexts() throws Exception {
+        SentimentClient client = client(true, 3000, 5);
+
+        List<CompletableFuture<SentimentResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(client.analyze("comment:" + i, "评论" + i));
+        }
+        for (CompletableFuture<SentimentResult> future : futures) {
+            assertEquals("neutral", future.get(5, TimeUnit.SECONDS).getSentiment());
+        }
+
+        assertEquals(1, batchCalls.get());
+        assertEquals(0, singleCalls.get());
+        assertTrue(lastBatchBody.get().contains("评论3"));
+    }
+
+    @Test
+    void opensCircuitAfterConsecutiveFailures() throws Exception {
+        status = 500;
+        SentimentClient client = client(false, 3000, 3);
+
+        for (int i = 0; i < 3; i++) {
+            assertUnavailable(client.analyze("post:" + i, "text"));
+        }
+        assertEquals("OPEN", client.getCircuitState());
+
+        // 熔断期间不再请求分析服务
+        assertUnavailable(client.analyze("post:99", "text"));
+        assertEquals(3, singleCalls.get());
+        assertEquals(1, client.getRejectedCount());
+    }
+
+    @Test
+    void failsWhenServiceIsSlowerThanTimeout() {
+        release = new CountDownLatch(1);
+        SentimentClient client = client(false, 200, 5);
+
+        assertUnavailable(client.analyze("post:1", "text"));
+        assertEquals(1, client.getFailureCount());
+    }
+
+    private SentimentClient client(boolean batch, long requestTimeoutMillis, int failureThreshold) {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        return new SentimentClient(baseUrl, 1000, requestTimeoutMillis, batch, 16, 50, failureThreshold, 60_000,
+                false, new SimpleMeterRegistry());
+    }
+
+    private static void assertUnavailable(CompletableFuture<SentimentResult> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(SentimentUnavailableException.class, e.getCause());
+    }
+
+    private void await() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
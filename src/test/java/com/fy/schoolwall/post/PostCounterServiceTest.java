@@ -0,0 +1,115 @@
+package com.fy.schoolwall.post;
+
+import com.fy.schoolwall.post.model.Post;
+import com.fy.schoolwall.post.model.PostCounter;
+import com.fy.schoolwall.post.repository.PostCounterMapper;
+import com.fy.schoolwall.post.repository.PostMapper;
+import com.fy.schoolwall.post.service.PostCounterService;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 帖子计数测试：按加锁读取的旧值计算增量，按主键顺序写入，对账只修正不一致的计数项
+ */
+public class PostCounterServiceTest {
+
+    private final PostMapper postMapper = mock(PostMapper.class);
+    private final PostCounterMapper postCounterMapper = mock(PostCounterMapper.class);
+    private final PostCounterService service = new PostCounterService(postMapper, postCounterMapper,
+            mock(PlatformTransactionManager.class));
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bulkStatusChangeAppliesNetDeltasInKeyOrder() {
+        List<Map<String, Object>> rows = List.of(
+                row(1L, "PUBLISHED", "study"),
+                row(2L, "DRAFT", "life"),
+                row(3L, "DRAFT", null),
+                row(4L, "HIDDEN", "study"));
+
+        // 4 号帖子已经是目标状态，不在修改列表中
+        service.recordStatusChange(rows, List.of(1L, 2L, 3L), "HIDDEN");
+
+        ArgumentCaptor<List<PostCounter>> captor = ArgumentCaptor.forClass(List.class);
+        verify(postCounterMapper).applyDeltas(captor.capture());
+        assertEquals(List.of("DRAFT//-1", "DRAFT/life/-1", "HIDDEN//1", "HIDDEN/life/1", "HIDDEN/study/1",
+                "PUBLISHED/study/-1"), describe(captor.getValue()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void updateUsesLockedCurrentValues() {
+        when(postMapper.findStatusesByIdsForUpdate(List.of(9L))).thenReturn(List.of(row(9L, "PUBLISHED", "life")));
+
+        // 调用方持有的帖子对象可能已过期，增量以加锁读取的当前值为准
+        service.recordUpdate(9L, "PUBLISHED", "study");
+        ArgumentCaptor<List<PostCounter>> captor = ArgumentCaptor.forClass(List.class);
+        verify(postCounterMapper).applyDeltas(captor.capture());
+        assertEquals(List.of("PUBLISHED/life/-1", "PUBLISHED/study/1"), describe(captor.getValue()));
+
+        // 状态和分类都没有变化时不写计数
+        when(postMapper.findStatusesByIdsForUpdate(List.of(10L))).thenReturn(List.of(row(10L, "DRAFT", null)));
+        service.recordUpdate(10L, "DRAFT", null);
+        verify(postCounterMapper).applyDeltas(anyList());
+
+        Post post = new Post();
+        post.setStatus("DRAFT");
+        service.recordCreated(post);
+        verify(postCounterMapper, times(2)).applyDeltas(captor.capture());
+        assertEquals(List.of("DRAFT//1"), describe(captor.getValue()));
+    }
+
+    @Test
+    void reconcileRecountsOnlyDriftedCounters() {
+        PostCounter drifted = new PostCounter();
+        drifted.setStatus("PUBLISHED");
+        drifted.setCategory("study");
+        drifted.setPostCount(5);
+        when(postCounterMapper.findDrift()).thenReturn(List.of(drifted));
+        when(postCounterMapper.countPostsForShare("PUBLISHED", "study")).thenReturn(6L);
+
+        service.reconcile();
+
+        ArgumentCaptor<PostCounter> captor = ArgumentCaptor.forClass(PostCounter.class);
+        verify(postCounterMapper).setCount(captor.capture());
+        assertEquals(6L, captor.getValue().getPostCount());
+        assertEquals(1, service.getCorrectedCounterCount());
+
+        when(postCounterMapper.findDrift()).thenReturn(List.of());
+        service.reconcile();
+        verify(postCounterMapper, never()).countPostsForShare("DRAFT", "");
+        verify(postCounterMapper).setCount(any());
+    }
+
+    private static Map<String, Object> row(Long id, String status, String category) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("status", status);
+        if (category != null) {
+            row.put("category", category);
+        }
+        return row;
+    }
+
+    private static List<String> describe(List<PostCounter> counters) {
+        return counters.stream()
+                .map(c -> c.getStatus() + "/" + c.getCategory() + "/" + c.getPostCount())
+                .collect(Collectors.toList());
+    }
+}
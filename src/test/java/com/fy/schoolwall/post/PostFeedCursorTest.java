@@ -0,0 +1,69 @@
+package com.fy.schoolwall.post;
+
+import com.fy.schoolwall.post.dto.FeedCursor;
+import com.fy.schoolwall.post.dto.UpdatePostRequest;
+import com.fy.schoolwall.post.model.Post;
+import com.fy.schoolwall.post.repository.PostMapper;
+import com.fy.schoolwall.post.search.PostSearchIndex;
+import com.fy.schoolwall.post.service.PostCounterService;
+import com.fy.schoolwall.post.service.PostListCache;
+import com.fy.schoolwall.post.service.PostPurgeService;
+import com.fy.schoolwall.post.service.PostService;
+import com.fy.schoolwall.post.service.SlugAllocator;
+import com.fy.schoolwall.post.service.ViewCountBuffer;
+import com.fy.schoolwall.user.model.User;
+import com.fy.schoolwall.user.service.UserService;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 动态流游标测试：重新发布的帖子（发布时间为空的行）设置发布时间后可以作为下一页游标
+ */
+public class PostFeedCursorTest {
+
+    private final PostMapper postMapper = mock(PostMapper.class);
+    private final UserService userService = mock(UserService.class);
+    private final PostService postService = new PostService(postMapper, userService, mock(ViewCountBuffer.class),
+            mock(PostSearchIndex.class), mock(PostListCache.class), mock(ApplicationEventPublisher.class),
+            mock(PostPurgeService.class), mock(SlugAllocator.class), mock(PostCounterService.class),
+            mock(PlatformTransactionManager.class), true);
+
+    @Test
+    void republishingHiddenPostWithoutPublishedAtSetsIt() {
+        Post post = new Post();
+        post.setId(42L);
+        post.setAuthorId(1L);
+        post.setTitle("失物招领");
+        post.setStatus("HIDDEN");
+        post.setIsTop(false);
+        post.setCreatedAt(LocalDateTime.of(2026, 3, 1, 8, 0));
+        when(postMapper.findById(42L)).thenReturn(post);
+        User author = new User();
+        author.setId(1L);
+        when(userService.getCurrentAuthenticatedUser()).thenReturn(author);
+
+        UpdatePostRequest request = new UpdatePostRequest();
+        request.setStatus("PUBLISHED");
+        postService.updatePost(42L, request);
+
+        ArgumentCaptor<Post> updated = ArgumentCaptor.forClass(Post.class);
+        verify(postMapper).update(updated.capture());
+        assertNotNull(updated.getValue().getPublishedAt());
+
+        // 以该帖子结束一页时，游标可以编码并解析回相同的排序键
+        FeedCursor cursor = FeedCursor.decode(FeedCursor.after(updated.getValue()).encode());
+        assertEquals(updated.getValue().getPublishedAt(), cursor.getPublishedAt());
+        assertEquals(42L, cursor.getId());
+    }
+}
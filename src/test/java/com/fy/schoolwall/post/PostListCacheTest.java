@@ -0,0 +1,74 @@
+package com.fy.schoolwall.post;
+
+import com.fy.schoolwall.post.event.PostChangedEvent;
+import com.fy.schoolwall.post.model.Post;
+import com.fy.schoolwall.post.repository.PostMapper;
+import com.fy.schoolwall.post.service.PostListCache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 首页列表缓存测试：重复读取只查询一次数据库，变更事件只失效受影响的缓存项
+ */
+public class PostListCacheTest {
+
+    @Test
+    void servesRepeatedReadsFromMemoryAndInvalidatesOnEvents() {
+        PostMapper postMapper = mock(PostMapper.class);
+        when(postMapper.findTopPosts(50)).thenReturn(List.of(post(1L)));
+        when(postMapper.findRecommendedPosts(50)).thenReturn(List.of(post(2L)));
+        when(postMapper.getCategoryStats()).thenReturn(List.of(Map.of("category", "study", "post_count", 3L)));
+
+        PostListCache cache = new PostListCache(postMapper, 50, 60_000, 600_000);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(1, cache.getTopPosts().size());
+            assertEquals(1, cache.getRecommendedPosts().size());
+            assertEquals(3L, cache.getCategoryPostCounts().get("study"));
+        }
+        verify(postMapper, times(1)).findTopPosts(50);
+        verify(postMapper, times(1)).findRecommendedPosts(50);
+        verify(postMapper, times(1)).getCategoryStats();
+        assertEquals(3, cache.getStats().missCount());
+        assertEquals(27, cache.getStats().hitCount());
+
+        // 置顶变更只失效置顶列表
+        cache.onPostChanged(PostChangedEvent.of(PostChangedEvent.Type.TOP_CHANGED, 1L));
+        cache.getTopPosts();
+        cache.getRecommendedPosts();
+        verify(postMapper, times(2)).findTopPosts(50);
+        verify(postMapper, times(1)).findRecommendedPosts(50);
+
+        // 新建草稿不影响缓存
+        Post draft = post(3L);
+        draft.setStatus("DRAFT");
+        cache.onPostChanged(PostChangedEvent.of(PostChangedEvent.Type.CREATED, draft));
+        cache.getCategoryPostCounts();
+        verify(postMapper, times(1)).getCategoryStats();
+
+        // 删除帖子失效全部缓存
+        cache.onPostChanged(PostChangedEvent.deleted(1L));
+        cache.getTopPosts();
+        cache.getRecommendedPosts();
+        cache.getCategoryPostCounts();
+        verify(postMapper, times(3)).findTopPosts(50);
+        verify(postMapper, times(2)).findRecommendedPosts(50);
+        verify(postMapper, times(2)).getCategoryStats();
+    }
+
+    private static Post post(Long id) {
+        Post post = new Post();
+        post.setId(id);
+        post.setTitle("post " + id);
+        post.setStatus("PUBLISHED");
+        return post;
+    }
+}
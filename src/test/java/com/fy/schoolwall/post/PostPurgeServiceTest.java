@@ -0,0 +1,86 @@
+package com.fy.schoolwall.post;
+
+import com.fy.schoolwall.comment.repository.CommentMapper;
+import com.fy.schoolwall.emotion.repository.EmotionMapper;
+import com.fy.schoolwall.post.repository.PostMapper;
+import com.fy.schoolwall.post.service.PostCounterService;
+import com.fy.schoolwall.post.service.PostPurgeService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 帖子清理测试：删除请求只执行固定条数的 SQL，物理删除按块进行
+ */
+public class PostPurgeServiceTest {
+
+    private final PostMapper postMapper = mock(PostMapper.class);
+    private final CommentMapper commentMapper = mock(CommentMapper.class);
+    private final EmotionMapper emotionMapper = mock(EmotionMapper.class);
+    private final PostPurgeService purgeService = new PostPurgeService(postMapper, commentMapper, emotionMapper,
+            mock(PostCounterService.class), mock(PlatformTransactionManager.class), 100);
+
+    @AfterEach
+    void shutdown() {
+        purgeService.shutdown();
+    }
+
+    @Test
+    void markDeletedNeverLoadsComments() {
+        purgeService.markDeleted(7L);
+
+        verify(commentMapper).softDeleteByPostId(7L);
+        verify(postMapper).updateStatus(7L, "DELETED");
+        verify(postMapper).insertPurgeRequest(7L);
+        verify(commentMapper, never()).findByPostId(eq(7L), anyInt(), anyInt());
+        verify(postMapper, never()).deleteById(7L);
+    }
+
+    @Test
+    void purgesCommentsInChunksBeforeDeletingPost() throws Exception {
+        when(postMapper.findPurgeRequests(anyInt())).thenReturn(List.of(7L), List.of());
+        when(commentMapper.detachRepliesByPostId(7L, 100)).thenReturn(100, 30);
+        when(commentMapper.findIdsByPostId(7L, 100)).thenReturn(ids(1, 100), ids(101, 200), ids(201, 250));
+
+        purgeService.onApplicationReady();
+        waitFor(() -> purgeService.getPurgedPostCount() == 1);
+
+        verify(commentMapper, times(2)).detachRepliesByPostId(7L, 100);
+        verify(emotionMapper, times(3)).decrementUserSentimentCountersForComments(anyList());
+        verify(commentMapper, times(3)).batchDelete(anyList());
+        InOrder order = inOrder(commentMapper, emotionMapper, postMapper);
+        order.verify(commentMapper).batchDelete(ids(201, 250));
+        order.verify(emotionMapper).decrementUserSentimentCountersForPost(7L);
+        order.verify(postMapper).deleteById(7L);
+        order.verify(postMapper).deletePurgeRequest(7L);
+        assertEquals(250, purgeService.getPurgedCommentCount());
+    }
+
+    private static List<Long> ids(long from, long to) {
+        return LongStream.rangeClosed(from, to).boxed().collect(Collectors.toList());
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
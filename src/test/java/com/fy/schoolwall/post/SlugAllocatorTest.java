@@ -0,0 +1,185 @@
+package com.fy.schoolwall.post;
+
+import com.fy.schoolwall.common.util.SlugGenerator;
+import com.fy.schoolwall.post.dto.CreatePostRequest;
+import com.fy.schoolwall.post.dto.PostDto;
+import com.fy.schoolwall.post.model.Post;
+import com.fy.schoolwall.post.repository.PostMapper;
+import com.fy.schoolwall.post.repository.SlugSequenceMapper;
+import com.fy.schoolwall.post.search.PostSearchIndex;
+import com.fy.schoolwall.post.service.PostCounterService;
+import com.fy.schoolwall.post.service.PostListCache;
+import com.fy.schoolwall.post.service.PostPurgeService;
+import com.fy.schoolwall.post.service.PostService;
+import com.fy.schoolwall.post.service.SlugAllocator;
+import com.fy.schoolwall.post.service.ViewCountBuffer;
+import com.fy.schoolwall.user.model.User;
+import com.fy.schoolwall.user.service.UserService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * slug 分配器压力测试：多个实例、多线程并发分配时不产生重复 slug；
+ * 领取号段需要单独的数据库连接，分配只能发生在事务外
+ */
+public class SlugAllocatorTest {
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    /**
+     * 模拟 slug_sequences 表：advance 与随后的 findNextValue 在真实数据库中处于同一事务并持有行锁，
+     * 这里用每个调用线程各自记录推进后的值来模拟
+     */
+    static class InMemorySlugSequence implements SlugSequenceMapper {
+        final AtomicLong nextValue = new AtomicLong(1);
+        final AtomicLong advances = new AtomicLong();
+        private final ThreadLocal<Long> advancedTo = new ThreadLocal<>();
+
+        @Override
+        public int advance(String name, int blockSize) {
+            advances.incrementAndGet();
+            advancedTo.set(nextValue.addAndGet(blockSize));
+            return 1;
+        }
+
+        @Override
+        public Long findNextValue(String name) {
+            return advancedTo.get();
+        }
+    }
+
+    @Test
+    void allocatesUniqueShortSlugsAcrossNodesUnderConcurrency() throws Exception {
+        InMemorySlugSequence sequence = new InMemorySlugSequence();
+        int nodes = 4;
+        int threadsPerNode = 8;
+        int slugsPerThread = 25_000;
+        List<SlugAllocator> allocators = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            allocators.add(new SlugAllocator(sequence, mock(PlatformTransactionManager.class), 100));
+        }
+
+        Set<String> slugs = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(nodes * threadsPerNode);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (SlugAllocator allocator : allocators) {
+            for (int t = 0; t < threadsPerNode; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int duplicates = 0;
+                    for (int n = 0; n < slugsPerThread; n++) {
+                        // 所有线程使用相同的标题，唯一性完全依赖后缀
+                        if (!slugs.add(allocator.allocate("校园墙 热门帖子"))) {
+                            duplicates++;
+                        }
+                    }
+                    return duplicates;
+                }));
+            }
+        }
+        start.countDown();
+        int duplicates = 0;
+        for (Future<Integer> result : results) {
+            duplicates += result.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int total = nodes * threadsPerNode * slugsPerThread;
+        assertEquals(0, duplicates);
+        assertEquals(total, slugs.size());
+        // 每个号段一次数据库往返
+        assertEquals(total / 100, sequence.advances.get());
+        String base = SlugGenerator.generateSlug("校园墙 热门帖子");
+        for (String slug : slugs) {
+            String suffix = slug.substring(slug.lastIndexOf('-') + 1);
+            assertEquals(base, slug.substring(0, slug.lastIndexOf('-')));
+            assertTrue(suffix.length() <= 4 && suffix.matches("[0-9a-z]+"), slug);
+        }
+    }
+
+    @Test
+    void refusesToAllocateInsideTransaction() {
+        SlugAllocator allocator = new SlugAllocator(new InMemorySlugSequence(),
+                mock(PlatformTransactionManager.class), 100);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertThrows(IllegalStateException.class, () -> allocator.allocate("校园墙 热门帖子"));
+    }
+
+    @Test
+    void createPostAllocatesSlugBeforeTransactionStarts() {
+        // 号段大小为 1：每个帖子都要领取号段
+        InMemorySlugSequence sequence = new InMemorySlugSequence();
+        SlugAllocator allocator = new SlugAllocator(sequence, mock(PlatformTransactionManager.class), 1);
+
+        // 请求事务：开始时标记事务活跃，提交或回滚时清除
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            return mock(TransactionStatus.class);
+        });
+        doAnswer(invocation -> {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            return null;
+        }).when(transactionManager).commit(any());
+        doAnswer(invocation -> {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            return null;
+        }).when(transactionManager).rollback(any());
+
+        PostMapper postMapper = mock(PostMapper.class);
+        List<Boolean> insertedInTransaction = new ArrayList<>();
+        doAnswer(invocation -> {
+            insertedInTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            invocation.<Post>getArgument(0).setId((long) insertedInTransaction.size());
+            return null;
+        }).when(postMapper).insert(any(Post.class));
+        User author = new User();
+        author.setId(1L);
+        author.setUsername("alice");
+        UserService userService = mock(UserService.class);
+        when(userService.getCurrentAuthenticatedUser()).thenReturn(author);
+
+        PostService postService = new PostService(postMapper, userService, mock(ViewCountBuffer.class),
+                mock(PostSearchIndex.class), mock(PostListCache.class), mock(ApplicationEventPublisher.class),
+                mock(PostPurgeService.class), allocator, mock(PostCounterService.class), transactionManager, true);
+        CreatePostRequest request = new CreatePostRequest();
+        request.setTitle("校园墙 热门帖子");
+        request.setContent("内容");
+        PostDto first = postService.createPost(request);
+        PostDto second = postService.createPost(request);
+
+        assertEquals(List.of(true, true), insertedInTransaction);
+        assertEquals(2, sequence.advances.get());
+        assertNotEquals(first.getSlug(), second.getSlug());
+    }
+}
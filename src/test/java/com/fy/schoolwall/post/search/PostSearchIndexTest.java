@@ -0,0 +1,125 @@
+package com.fy.schoolwall.post.search;
+
+import com.fy.schoolwall.post.event.PostChangedEvent;
+import com.fy.schoolwall.post.model.Post;
+import com.fy.schoolwall.post.repository.PostMapper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 本地搜索索引测试：中文、拼音检索，增量更新，以及快照的保存和加载
+ */
+public class PostSearchIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void searchesChineseAndPinyin() throws Exception {
+        PostSearchIndex index = newIndex(mapperWith(
+                post(1L, "校园二手书转让", "九成新的高数教材"),
+                post(2L, "食堂新菜品", "二楼窗口推出麻辣香锅"),
+                post(3L, "Spring Boot 学习笔记", "整理了校园网可以访问的资料")));
+        index.rebuild();
+
+        assertEquals(List.of(1L, 3L), ids(index.search(List.of("校园"), 0, 10)));
+        assertEquals(List.of(1L), ids(index.search(List.of("二手"), 0, 10)));
+        assertEquals(List.of(1L, 3L), ids(index.search(List.of("xiaoyuan"), 0, 10)));
+        assertEquals(List.of(1L), ids(index.search(List.of("xiaoyuanershou"), 0, 10)));
+        assertEquals(List.of(2L), ids(index.search(List.of("shi", "tang"), 0, 10)));
+        assertEquals(List.of(3L), ids(index.search(List.of("spring"), 0, 10)));
+        assertEquals(0, index.search(List.of("校园", "食堂"), 0, 10).getTotalElements());
+    }
+
+    @Test
+    void appliesIncrementalUpdates() throws Exception {
+        PostSearchIndex index = newIndex(mapperWith(post(1L, "校园二手书转让", "九成新")));
+        index.rebuild();
+
+        index.onPostChanged(PostChangedEvent.of(PostChangedEvent.Type.CREATED, post(2L, "二手自行车", "")));
+        assertEquals(List.of(1L, 2L), ids(index.search(List.of("二手"), 0, 10)));
+
+        Post hidden = post(1L, "校园二手书转让", "九成新");
+        hidden.setStatus("HIDDEN");
+        index.onPostChanged(PostChangedEvent.of(PostChangedEvent.Type.UPDATED, hidden));
+        assertEquals(List.of(2L), ids(index.search(List.of("二手"), 0, 10)));
+
+        index.onPostChanged(PostChangedEvent.deleted(2L));
+        assertEquals(0, index.search(List.of("二手"), 0, 10).getTotalElements());
+        assertEquals(0, index.getTermCount());
+    }
+
+    @Test
+    void restoresFromSnapshotAndCatchesUp() throws Exception {
+        Path snapshot = tempDir.resolve("index.bin");
+        PostSearchIndex original = new PostSearchIndex(mapperWith(
+                post(1L, "校园二手书转让", "九成新"),
+                post(2L, "食堂新菜品", "麻辣香锅")), true, snapshot.toString());
+        original.rebuild();
+        original.saveSnapshot();
+
+        // 快照之后帖子 2 被删除，帖子 3 被发布
+        PostMapper mapper = mock(PostMapper.class);
+        when(mapper.findPostsUpdatedSince(any())).thenReturn(List.of());
+        when(mapper.findPublishedPostIds()).thenReturn(List.of(1L, 3L));
+        when(mapper.findByIds(List.of(3L))).thenReturn(List.of(post(3L, "食堂营业时间调整", "")));
+
+        PostSearchIndex restored = new PostSearchIndex(mapper, true, snapshot.toString());
+        assertTrue(restored.loadSnapshot());
+
+        assertEquals(List.of(1L), ids(restored.search(List.of("xiaoyuan"), 0, 10)));
+        assertEquals(List.of(3L), ids(restored.search(List.of("食堂"), 0, 10)));
+        Post restoredPost = restored.search(List.of("二手"), 0, 10).getPosts().get(0);
+        assertEquals("九成新", restoredPost.getContent());
+        assertEquals("post-1", restoredPost.getSlug());
+        verify(mapper).findPostsUpdatedSince(any());
+    }
+
+    private PostSearchIndex newIndex(PostMapper mapper) {
+        return new PostSearchIndex(mapper, true, tempDir.resolve("index.bin").toString());
+    }
+
+    private static PostMapper mapperWith(Post... posts) {
+        PostMapper mapper = mock(PostMapper.class);
+        when(mapper.findPublishedPostsAfter(isNull(), isNull(), isNull(), anyInt())).thenReturn(List.of(posts));
+        return mapper;
+    }
+
+    private static List<Long> ids(PostSearchIndex.SearchResult result) {
+        return result.getPosts().stream().map(Post::getId).sorted().collect(Collectors.toList());
+    }
+
+    private static Post post(Long id, String title, String content) {
+        Post post = new Post();
+        post.setId(id);
+        post.setTitle(title);
+        post.setContent(content);
+        post.setSlug("post-" + id);
+        post.setAuthorId(10L);
+        post.setAuthorUsername("author");
+        post.setStatus("PUBLISHED");
+        post.setViewCount(0);
+        post.setCommentCount(0);
+        post.setIsTop(false);
+        post.setIsRecommended(false);
+        post.setCreatedAt(LocalDateTime.now());
+        post.setUpdatedAt(LocalDateTime.now());
+        post.setPublishedAt(LocalDateTime.now().minusMinutes(id));
+        return post;
+    }
+}